@@ -0,0 +1,85 @@
+package ee.spiritix.filterssb3.benchmark;
+
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.dto.AmountCriteriaDTO;
+import ee.spiritix.filterssb3.dto.DateCriteriaDTO;
+import ee.spiritix.filterssb3.dto.FilterCriteriaDTO;
+import ee.spiritix.filterssb3.dto.FilterDTO;
+import ee.spiritix.filterssb3.dto.TextCriteriaDTO;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static ee.spiritix.filterssb3.constant.FilterCriteriaTypes.AMOUNT;
+import static ee.spiritix.filterssb3.constant.FilterCriteriaTypes.DATE;
+import static ee.spiritix.filterssb3.constant.FilterCriteriaTypes.TEXT;
+
+/**
+ * Deterministic filters and objects shared by the benchmarks. Criteria are chosen so most objects pass most of them,
+ * which keeps the evaluation from short-circuiting on the first criterion. The class and {@link CriteriaMix} are
+ * public because the code JMH generates for the benchmark parameters lives in another package.
+ */
+public final class BenchmarkData {
+
+  static final String[] APPLICATION_ARGS = {
+      "--spring.jpa.show-sql=false",
+      "--logging.level.root=WARN"
+  };
+
+  private static final LocalDate BASE_DATE = LocalDate.of(2024, 1, 1);
+  private static final String[] WORDS = {"Apple", "Banana", "Cherry", "Orange", "Grape", "Product", "Item", "Good"};
+
+  public enum CriteriaMix {
+    AMOUNT, DATE, TEXT, MIXED
+  }
+
+  private BenchmarkData() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  static FilterDTO filter(int criteriaCount, CriteriaMix mix) {
+    List<FilterCriteriaDTO> criteria = new ArrayList<>();
+    for (int i = 0; i < criteriaCount; i++) {
+      CriteriaMix type = mix == CriteriaMix.MIXED ? CriteriaMix.values()[i % 3] : mix;
+      criteria.add(switch (type) {
+        case AMOUNT -> AmountCriteriaDTO.builder()
+            .filterType(AMOUNT)
+            .conditionType("greater_than")
+            .value(BigDecimal.valueOf(i))
+            .build();
+        case DATE -> DateCriteriaDTO.builder()
+            .filterType(DATE)
+            .conditionType("is_after")
+            .value(BASE_DATE.minusDays(i + 1L))
+            .build();
+        case TEXT, MIXED -> TextCriteriaDTO.builder()
+            .filterType(TEXT)
+            .conditionType("not_contains")
+            .value("Missing" + i)
+            .build();
+      });
+    }
+    return FilterDTO.builder()
+        .name("Benchmark " + mix + " " + criteriaCount)
+        .selection(SelectionType.S1)
+        .criteriaList(criteria)
+        .build();
+  }
+
+  static List<FilterableObject> objects(int size) {
+    Random random = new Random(42);
+    List<FilterableObject> objects = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      objects.add(new FilterableObject(
+          BigDecimal.valueOf(random.nextInt(100_000), 2),
+          WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)],
+          BASE_DATE.plusDays(random.nextInt(365)),
+          SelectionType.values()[random.nextInt(SelectionType.values().length)]));
+    }
+    return objects;
+  }
+}
@@ -0,0 +1,172 @@
+package ee.spiritix.filterssb3.benchmark;
+
+import ee.spiritix.filterssb3.FiltersSb3Application;
+import ee.spiritix.filterssb3.entity.Filter;
+import ee.spiritix.filterssb3.repository.FilterRepository;
+import ee.spiritix.filterssb3.service.FilterService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading one filter with its criteria. {@code lazyCriteria} reads the filter and then initializes the lazy criteria
+ * collection, as the service does; {@code fetchJoin} reads both in one query.
+ *
+ * <p>{@code joinedQuery} and {@code singleTableQuery} compare the two inheritance layouts on the query that loads the
+ * criteria of one filter. {@code joinedQuery} is the baseline: the criteria in a base table and one table per subtype,
+ * as before {@code move_criteria_to_single_table}, outer-joined the way Hibernate loads a JOINED hierarchy.
+ * {@code singleTableQuery} reads the single {@code filter_criteria} table the entities map today. The second-level
+ * cache is disabled, so every iteration reaches the database.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CriteriaLoadBenchmark {
+
+  @Param({"1", "10", "100"})
+  public int criteriaCount;
+
+  private static final String[] JOINED_SCHEMA = {
+      """
+      CREATE TABLE joined_criteria
+      (
+          id          BIGINT PRIMARY KEY,
+          filter_type VARCHAR(31) NOT NULL,
+          filter_id   BIGINT      NOT NULL
+      )""",
+      """
+      CREATE TABLE joined_amount_criteria
+      (
+          id             BIGINT PRIMARY KEY REFERENCES joined_criteria (id),
+          condition_type VARCHAR(100),
+          amount_value   DECIMAL(19, 2)
+      )""",
+      """
+      CREATE TABLE joined_date_criteria
+      (
+          id             BIGINT PRIMARY KEY REFERENCES joined_criteria (id),
+          condition_type VARCHAR(100),
+          date_value     DATE
+      )""",
+      """
+      CREATE TABLE joined_text_criteria
+      (
+          id              BIGINT PRIMARY KEY REFERENCES joined_criteria (id),
+          condition_type  VARCHAR(100),
+          text_value      VARCHAR(500),
+          text_match_mode VARCHAR(50)
+      )""",
+      "CREATE INDEX idx_joined_criteria_filter_id ON joined_criteria (filter_id)",
+      "INSERT INTO joined_criteria SELECT id, filter_type, filter_id FROM filter_criteria",
+      """
+      INSERT INTO joined_amount_criteria
+      SELECT id, amount_condition_type, amount_value FROM filter_criteria WHERE filter_type = 'Amount'""",
+      """
+      INSERT INTO joined_date_criteria
+      SELECT id, date_condition_type, date_value FROM filter_criteria WHERE filter_type = 'Date'""",
+      """
+      INSERT INTO joined_text_criteria
+      SELECT id, text_condition_type, text_value, text_match_mode FROM filter_criteria WHERE filter_type = 'Title'"""
+  };
+
+  private static final String JOINED_QUERY = """
+      SELECT c.id, c.filter_type, a.condition_type, a.amount_value, d.condition_type, d.date_value,
+             t.condition_type, t.text_value, t.text_match_mode
+      FROM joined_criteria c
+               LEFT JOIN joined_amount_criteria a ON a.id = c.id
+               LEFT JOIN joined_date_criteria d ON d.id = c.id
+               LEFT JOIN joined_text_criteria t ON t.id = c.id
+      WHERE c.filter_id = ?""";
+
+  private static final String SINGLE_TABLE_QUERY = """
+      SELECT id, filter_type, amount_condition_type, amount_value, date_condition_type, date_value,
+             text_condition_type, text_value, text_match_mode
+      FROM filter_criteria
+      WHERE filter_id = ?""";
+
+  private ConfigurableApplicationContext context;
+  private FilterRepository filterRepository;
+  private TransactionTemplate transactionTemplate;
+  private JdbcTemplate jdbcTemplate;
+  private Long filterId;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = new SpringApplicationBuilder(FiltersSb3Application.class)
+        .web(WebApplicationType.NONE)
+        .run(Stream.concat(Stream.of(BenchmarkData.APPLICATION_ARGS),
+                Stream.of("--spring.jpa.properties.hibernate.cache.use_second_level_cache=false"))
+            .toArray(String[]::new));
+    filterRepository = context.getBean(FilterRepository.class);
+    transactionTemplate = context.getBean(TransactionTemplate.class);
+    jdbcTemplate = context.getBean(JdbcTemplate.class);
+    filterId = context.getBean(FilterService.class)
+        .add(BenchmarkData.filter(criteriaCount, BenchmarkData.CriteriaMix.MIXED)).getId();
+    jdbcTemplate.batchUpdate(JOINED_SCHEMA);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public int lazyCriteria() {
+    return transactionTemplate.execute(status -> filterRepository.findById(filterId)
+        .map(filter -> filter.getFilterCriteria().size())
+        .orElseThrow());
+  }
+
+  @Benchmark
+  public int fetchJoin() {
+    return transactionTemplate.execute(status -> {
+      List<Filter> filters = filterRepository.findAllWithCriteriaByIdIn(List.of(filterId));
+      return filters.get(0).getFilterCriteria().size();
+    });
+  }
+
+  @Benchmark
+  public int joinedQuery() {
+    return readCriteria(JOINED_QUERY);
+  }
+
+  @Benchmark
+  public int singleTableQuery() {
+    return readCriteria(SINGLE_TABLE_QUERY);
+  }
+
+  private int readCriteria(String query) {
+    // Reads every column, as mapping the rows to entities would
+    return jdbcTemplate.query(query, (resultSet, row) -> {
+      int nonNull = 0;
+      for (int column = 1; column <= 9; column++) {
+        if (resultSet.getObject(column) != null) {
+          nonNull++;
+        }
+      }
+      return nonNull;
+    }, filterId).size();
+  }
+}
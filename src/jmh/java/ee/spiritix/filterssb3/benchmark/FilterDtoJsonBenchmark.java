@@ -0,0 +1,65 @@
+package ee.spiritix.filterssb3.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import ee.spiritix.filterssb3.dto.FilterDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON (de)serialisation of {@link FilterDTO} with an {@link ObjectMapper} configured the way Spring Boot configures
+ * the one used by the controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterDtoJsonBenchmark {
+
+  @Param({"1", "5", "20"})
+  public int criteriaCount;
+
+  @Param({"AMOUNT", "DATE", "TEXT", "MIXED"})
+  public BenchmarkData.CriteriaMix criteriaMix;
+
+  private ObjectWriter writer;
+  private ObjectReader reader;
+  private FilterDTO filterDto;
+  private byte[] json;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    writer = objectMapper.writerFor(FilterDTO.class);
+    reader = objectMapper.readerFor(FilterDTO.class);
+    filterDto = BenchmarkData.filter(criteriaCount, criteriaMix);
+    json = writer.writeValueAsBytes(filterDto);
+  }
+
+  @Benchmark
+  public byte[] serialize() throws IOException {
+    return writer.writeValueAsBytes(filterDto);
+  }
+
+  @Benchmark
+  public FilterDTO deserialize() throws IOException {
+    return reader.readValue(json);
+  }
+}
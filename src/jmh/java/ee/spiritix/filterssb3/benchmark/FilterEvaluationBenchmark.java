@@ -0,0 +1,87 @@
+package ee.spiritix.filterssb3.benchmark;
+
+import ee.spiritix.filterssb3.FiltersSb3Application;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import ee.spiritix.filterssb3.service.CompiledFilterCache;
+import ee.spiritix.filterssb3.service.FilterService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FilterService#filterObjectsUsingFilterWithId} against a running application context. {@code cachedFilter}
+ * measures evaluation only; {@code withRepositoryLookup} drops the compiled filter first, so every invocation also
+ * loads the filter with its criteria and compiles it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterEvaluationBenchmark {
+
+  @Param({"100", "10000"})
+  public int listSize;
+
+  @Param({"1", "5", "20"})
+  public int criteriaCount;
+
+  @Param({"AMOUNT", "DATE", "TEXT", "MIXED"})
+  public BenchmarkData.CriteriaMix criteriaMix;
+
+  private ConfigurableApplicationContext context;
+  private FilterService filterService;
+  private CompiledFilterCache compiledFilterCache;
+  private TransactionTemplate transactionTemplate;
+  private List<FilterableObject> objects;
+  private Long filterId;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = new SpringApplicationBuilder(FiltersSb3Application.class)
+        .web(WebApplicationType.NONE)
+        .run(BenchmarkData.APPLICATION_ARGS);
+    filterService = context.getBean(FilterService.class);
+    compiledFilterCache = context.getBean(CompiledFilterCache.class);
+    transactionTemplate = context.getBean(TransactionTemplate.class);
+    filterId = filterService.add(BenchmarkData.filter(criteriaCount, criteriaMix)).getId();
+    objects = BenchmarkData.objects(listSize);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public List<FilterableObject> cachedFilter() {
+    return filterService.filterObjectsUsingFilterWithId(objects, filterId);
+  }
+
+  @Benchmark
+  public List<FilterableObject> withRepositoryLookup() {
+    // Requests run inside open-session-in-view, the transaction stands in for it here
+    return transactionTemplate.execute(status -> {
+      compiledFilterCache.invalidate(filterId);
+      return filterService.filterObjectsUsingFilterWithId(objects, filterId);
+    });
+  }
+}
@@ -0,0 +1,122 @@
+package ee.spiritix.filterssb3.benchmark;
+
+import ee.spiritix.filterssb3.FiltersSb3Application;
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.dto.FilterDTO;
+import ee.spiritix.filterssb3.dto.TextCriteriaDTO;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import ee.spiritix.filterssb3.service.FilterService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static ee.spiritix.filterssb3.constant.FilterCriteriaTypes.TEXT;
+
+/**
+ * One text criterion per match mode against titles of 16 to 4096 characters, half of which end with the value in a
+ * different case and with accents. {@code lowerCaseBaseline} lower cases every title for each comparison, which is
+ * what the folded criterion value and the allocation free comparisons replace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextMatchingBenchmark {
+
+  private static final int LIST_SIZE = 1000;
+  private static final String VALUE = "creme brulee";
+  private static final String[] WORDS = {"Apple", "banana", "CHERRY", "Orange", "Gr\u00e4pe", "Product", "item"};
+
+  @Param({"16", "256", "4096"})
+  public int titleLength;
+
+  @Param({"exact", "ignore_case", "ignore_case_and_accents"})
+  public String matchMode;
+
+  @Param({"equals", "contains"})
+  public String conditionType;
+
+  private ConfigurableApplicationContext context;
+  private FilterService filterService;
+  private List<FilterableObject> objects;
+  private Long filterId;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = new SpringApplicationBuilder(FiltersSb3Application.class)
+        .web(WebApplicationType.NONE)
+        .run(BenchmarkData.APPLICATION_ARGS);
+    filterService = context.getBean(FilterService.class);
+    filterId = filterService.add(FilterDTO.builder()
+        .name("Text " + matchMode + " " + conditionType)
+        .selection(SelectionType.S1)
+        .criteriaList(List.of(TextCriteriaDTO.builder()
+            .filterType(TEXT)
+            .conditionType(conditionType)
+            .value(VALUE)
+            .matchMode(matchMode)
+            .build()))
+        .build()).getId();
+    objects = objects(titleLength);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public List<FilterableObject> filter() {
+    return filterService.filterObjectsUsingFilterWithId(objects, filterId);
+  }
+
+  @Benchmark
+  public List<FilterableObject> lowerCaseBaseline() {
+    boolean equals = "equals".equals(conditionType);
+    List<FilterableObject> matching = new ArrayList<>();
+    for (FilterableObject object : objects) {
+      String title = object.getTitle().toLowerCase(Locale.ROOT);
+      if (equals ? title.equals(VALUE) : title.contains(VALUE)) {
+        matching.add(object);
+      }
+    }
+    return matching;
+  }
+
+  private static List<FilterableObject> objects(int titleLength) {
+    Random random = new Random(42);
+    List<FilterableObject> objects = new ArrayList<>(LIST_SIZE);
+    for (int i = 0; i < LIST_SIZE; i++) {
+      StringBuilder title = new StringBuilder(titleLength + VALUE.length());
+      while (title.length() < titleLength - VALUE.length()) {
+        title.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+      }
+      title.append(i % 2 == 0 ? "Cr\u00e8me BR\u00dbL\u00c9E" : "Creme Caramel");
+      objects.add(new FilterableObject(BigDecimal.ONE, title.toString(), LocalDate.of(2024, 1, 1), SelectionType.S1));
+    }
+    return objects;
+  }
+}
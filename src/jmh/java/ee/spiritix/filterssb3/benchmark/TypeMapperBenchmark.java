@@ -0,0 +1,70 @@
+package ee.spiritix.filterssb3.benchmark;
+
+import ee.spiritix.filterssb3.dto.FilterDTO;
+import ee.spiritix.filterssb3.entity.Filter;
+import ee.spiritix.filterssb3.mapper.TypeMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TypeMapper} against the ModelMapper implementation it replaced, in both directions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TypeMapperBenchmark {
+
+  @Param({"1", "5", "20"})
+  public int criteriaCount;
+
+  @Param({"AMOUNT", "DATE", "TEXT", "MIXED"})
+  public BenchmarkData.CriteriaMix criteriaMix;
+
+  private TypeMapper typeMapper;
+  private ModelMapperTypeMapper modelMapperTypeMapper;
+  private FilterDTO filterDto;
+  private Filter filter;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    typeMapper = new TypeMapper();
+    modelMapperTypeMapper = new ModelMapperTypeMapper();
+    filterDto = BenchmarkData.filter(criteriaCount, criteriaMix);
+    filter = (Filter) typeMapper.mapObject(filterDto, Filter.class);
+  }
+
+  @Benchmark
+  public Object dtoToEntity() {
+    return typeMapper.mapObject(filterDto, Filter.class);
+  }
+
+  @Benchmark
+  public Object entityToDto() {
+    return typeMapper.mapObject(filter, FilterDTO.class);
+  }
+
+  @Benchmark
+  public Object dtoToEntityModelMapper() {
+    return modelMapperTypeMapper.mapObject(filterDto, Filter.class);
+  }
+
+  @Benchmark
+  public Object entityToDtoModelMapper() {
+    return modelMapperTypeMapper.mapObject(filter, FilterDTO.class);
+  }
+}
@@ -0,0 +1,158 @@
+package ee.spiritix.filterssb3.loadtest;
+
+import ee.spiritix.filterssb3.FiltersSb3Application;
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.dto.AmountCriteriaDTO;
+import ee.spiritix.filterssb3.dto.FilterDTO;
+import ee.spiritix.filterssb3.service.FilterService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static ee.spiritix.filterssb3.constant.FilterCriteriaTypes.AMOUNT;
+
+/**
+ * Starts the application once with platform request threads and once with virtual ones, and runs the same closed
+ * workload against both: every client sends its requests one after another and waits for each response. Requests
+ * page through the stored filters, so every request blocks on JDBC. Prints the throughput and latency percentiles of
+ * each run.
+ *
+ * <p>Run with {@code ./gradlew loadTest}. The number of clients, requests per client and stored filters are set
+ * with the {@code loadtest.clients}, {@code loadtest.requests-per-client} and {@code loadtest.filters} system
+ * properties.</p>
+ */
+public final class FilterLoadTest {
+
+  private static final int PAGE_SIZE = 20;
+
+  private FilterLoadTest() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  public static void main(String[] args) throws Exception {
+    int[] clientCounts = Arrays.stream(System.getProperty("loadtest.clients", "1000,5000,10000").split(","))
+        .map(String::trim)
+        .mapToInt(Integer::parseInt)
+        .toArray();
+    int requestsPerClient = Integer.getInteger("loadtest.requests-per-client", 20);
+    int filterCount = Integer.getInteger("loadtest.filters", 2000);
+
+    System.out.printf("%-9s %8s %10s %8s %12s %9s %9s %9s%n",
+        "threads", "clients", "requests", "errors", "requests/s", "p50 ms", "p99 ms", "max ms");
+    for (boolean virtualThreads : new boolean[]{false, true}) {
+      try (ConfigurableApplicationContext context = start(virtualThreads)) {
+        seed(context.getBean(FilterService.class), filterCount);
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        URI base = URI.create("http://localhost:" + port + "/api/filters/page");
+
+        // Warms up the JIT and the connection pool, the result is not reported
+        run(base, Math.min(200, clientCounts[0]), requestsPerClient, filterCount);
+        for (int clients : clientCounts) {
+          Result result = run(base, clients, requestsPerClient, filterCount);
+          System.out.printf("%-9s %8d %10d %8d %12.0f %9.1f %9.1f %9.1f%n",
+              virtualThreads ? "virtual" : "platform", clients, result.requests(), result.errors(),
+              result.throughput(), result.percentile(0.50), result.percentile(0.99), result.percentile(1.0));
+        }
+      }
+    }
+  }
+
+  private static ConfigurableApplicationContext start(boolean virtualThreads) {
+    return new SpringApplicationBuilder(FiltersSb3Application.class).run(
+        "--server.port=0",
+        "--spring.threads.virtual.enabled=" + virtualThreads,
+        "--filters.fan-out.virtual-threads=" + virtualThreads,
+        // Let every client connect, so the request threads are the limit instead of the connector
+        "--server.tomcat.max-connections=20000",
+        "--server.tomcat.accept-count=10000",
+        "--spring.jpa.show-sql=false",
+        "--logging.level.root=WARN");
+  }
+
+  private static void seed(FilterService filterService, int filterCount) {
+    List<FilterDTO> filters = new ArrayList<>(filterCount);
+    for (int i = 0; i < filterCount; i++) {
+      filters.add(FilterDTO.builder()
+          .name("Load test " + i)
+          .selection(SelectionType.S1)
+          .criteriaList(List.of(AmountCriteriaDTO.builder()
+              .filterType(AMOUNT)
+              .conditionType("greater_than")
+              .value(BigDecimal.valueOf(i))
+              .build()))
+          .build());
+    }
+    filterService.importFilters(filters);
+  }
+
+  private static Result run(URI base, int clients, int requestsPerClient, int filterCount) throws Exception {
+    long[][] latencies = new long[clients][requestsPerClient];
+    AtomicLong errors = new AtomicLong();
+    long start = System.nanoTime();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+         HttpClient httpClient = HttpClient.newBuilder()
+             .executor(executor)
+             .connectTimeout(Duration.ofSeconds(30))
+             .build()) {
+      List<Future<?>> futures = new ArrayList<>(clients);
+      for (int client = 0; client < clients; client++) {
+        long[] clientLatencies = latencies[client];
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < requestsPerClient; i++) {
+            long after = ThreadLocalRandom.current().nextLong(filterCount);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(base + "?after=" + after + "&size=" + PAGE_SIZE))
+                .timeout(Duration.ofSeconds(60))
+                .build();
+            long sent = System.nanoTime();
+            try {
+              HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+              if (response.statusCode() != 200) {
+                errors.incrementAndGet();
+              }
+            } catch (Exception e) {
+              errors.incrementAndGet();
+            }
+            clientLatencies[i] = System.nanoTime() - sent;
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    }
+    long elapsed = System.nanoTime() - start;
+    long[] sorted = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+    return new Result(sorted, errors.get(), elapsed);
+  }
+
+  private record Result(long[] sortedLatencies, long errors, long elapsedNanos) {
+
+    int requests() {
+      return sortedLatencies.length;
+    }
+
+    double throughput() {
+      return requests() / (elapsedNanos / 1e9);
+    }
+
+    double percentile(double percentile) {
+      int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+      return sortedLatencies[Math.max(0, index)] / 1e6;
+    }
+  }
+}
@@ -14,6 +14,11 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>("HTTP 400 Error occured: " + ex.getMessage(), HttpStatus.BAD_REQUEST);
   }
 
+  @ExceptionHandler(IllegalArgumentException.class)
+  public ResponseEntity<String> handleInvalidFilter(IllegalArgumentException ex) {
+    return new ResponseEntity<>("HTTP 400 Error occured: " + ex.getMessage(), HttpStatus.BAD_REQUEST);
+  }
+
   @ExceptionHandler(Exception.class)
   public ResponseEntity<String> handleGeneralException(Exception ex) {
     return new ResponseEntity<>("An unexpected error occurred: " + ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
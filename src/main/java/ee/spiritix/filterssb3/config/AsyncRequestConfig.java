@@ -0,0 +1,39 @@
+package ee.spiritix.filterssb3.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class AsyncRequestConfig implements WebMvcConfigurer {
+
+  private final boolean virtualThreads;
+  private final int maxStreams;
+
+  public AsyncRequestConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                            @Value("${filters.stream.max-concurrency:200}") int maxStreams) {
+    if (maxStreams <= 0) {
+      throw new IllegalArgumentException("Stream concurrency must be positive");
+    }
+    this.virtualThreads = virtualThreads;
+    this.maxStreams = maxStreams;
+  }
+
+  /**
+   * Streaming responses are written on the async executor, not on the request thread. The filter evaluation pool is
+   * an executor bean, so Spring Boot does not create its own task executor and this one is set explicitly, on virtual
+   * threads whenever requests are. On platform threads at most {@code filters.stream.max-concurrency} streams are
+   * written at once, further ones wait for a thread to finish.
+   */
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("filter-stream-");
+    executor.setVirtualThreads(virtualThreads);
+    if (!virtualThreads) {
+      executor.setConcurrencyLimit(maxStreams);
+    }
+    configurer.setTaskExecutor(executor);
+  }
+}
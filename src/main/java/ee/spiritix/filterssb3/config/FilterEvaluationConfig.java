@@ -0,0 +1,45 @@
+package ee.spiritix.filterssb3.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+
+@Configuration
+public class FilterEvaluationConfig {
+
+  /**
+   * Dedicated pool for parallel filter evaluation, so large batches do not compete with request threads that use
+   * the common pool.
+   */
+  @Bean(destroyMethod = "shutdown")
+  public ForkJoinPool filterEvaluationPool(@Value("${filters.evaluation.parallel.parallelism:0}") int parallelism) {
+    int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    return new ForkJoinPool(threads, pool -> {
+      ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+      thread.setName("filter-evaluation-" + thread.getPoolIndex());
+      return thread;
+    }, null, false);
+  }
+
+  /**
+   * Runs blocking work fanned out from a request, such as loading several filters from the repository. Virtual
+   * threads by default, one per task, so tasks waiting on JDBC do not hold platform threads. On platform threads a
+   * fixed pool of {@code filters.fan-out.max-concurrency} threads, as no more tasks than that run at once.
+   */
+  @Bean(destroyMethod = "close")
+  public ExecutorService filterFanOutExecutor(
+      @Value("${filters.fan-out.virtual-threads:true}") boolean virtualThreads,
+      @Value("${filters.fan-out.max-concurrency:10}") int maxConcurrency) {
+    if (virtualThreads) {
+      return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("filter-fan-out-", 0).factory());
+    }
+    ThreadFactory threadFactory = Thread.ofPlatform().name("filter-fan-out-", 0).daemon(true).factory();
+    return Executors.newFixedThreadPool(maxConcurrency, threadFactory);
+  }
+}
@@ -0,0 +1,19 @@
+package ee.spiritix.filterssb3.config;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FilterMetricsConfig {
+
+  /**
+   * Evaluation timers are tagged with the filter id. Filters beyond the configured number get no timer of their own,
+   * so a large number of stored filters cannot flood the registry with time series.
+   */
+  @Bean
+  public MeterFilter filterTagLimit(@Value("${filters.metrics.max-filter-tags:100}") int maxFilterTags) {
+    return MeterFilter.maximumAllowableTags("filters.evaluation", "filter", maxFilterTags, MeterFilter.deny());
+  }
+}
@@ -0,0 +1,16 @@
+package ee.spiritix.filterssb3.constant;
+
+public enum FilterAnalysisStatus {
+  /**
+   * The criteria restrict the objects of the filter's selection.
+   */
+  SATISFIABLE,
+  /**
+   * No object can match, evaluation is skipped.
+   */
+  UNSATISFIABLE,
+  /**
+   * Every criterion is always true, so every object of the filter's selection matches.
+   */
+  ALWAYS_TRUE
+}
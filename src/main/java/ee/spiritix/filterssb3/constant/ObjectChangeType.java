@@ -0,0 +1,7 @@
+package ee.spiritix.filterssb3.constant;
+
+public enum ObjectChangeType {
+  INSERT,
+  UPDATE,
+  DELETE
+}
@@ -0,0 +1,6 @@
+package ee.spiritix.filterssb3.constant;
+
+public enum RankBy {
+  AMOUNT,
+  DATE
+}
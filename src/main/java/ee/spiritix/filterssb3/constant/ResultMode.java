@@ -0,0 +1,20 @@
+package ee.spiritix.filterssb3.constant;
+
+public enum ResultMode {
+  /**
+   * Only the number of matching objects.
+   */
+  COUNT,
+  /**
+   * Whether any object matches, stops at the first match.
+   */
+  EXISTS,
+  /**
+   * The first matching objects in input order, stops once enough are found.
+   */
+  LIMIT,
+  /**
+   * The matching objects with the largest amounts or latest dates, kept in a heap bounded by the limit.
+   */
+  TOP
+}
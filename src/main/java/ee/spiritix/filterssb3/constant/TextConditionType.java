@@ -7,7 +7,10 @@ public enum TextConditionType {
   EQUALS("equals"),
   CONTAINS("contains"),
   NOT_CONTAINS("not_contains"),
-  NOT_EQUALS("not_equals");
+  NOT_EQUALS("not_equals"),
+  STARTS_WITH("starts_with"),
+  ENDS_WITH("ends_with"),
+  MATCHES("matches");
 
   private final String value;
 
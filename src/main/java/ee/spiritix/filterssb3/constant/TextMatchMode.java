@@ -0,0 +1,16 @@
+package ee.spiritix.filterssb3.constant;
+
+import lombok.Getter;
+
+@Getter
+public enum TextMatchMode {
+  EXACT("exact"),
+  IGNORE_CASE("ignore_case"),
+  IGNORE_CASE_AND_ACCENTS("ignore_case_and_accents");
+
+  private final String value;
+
+  TextMatchMode(String value) {
+    this.value = value;
+  }
+}
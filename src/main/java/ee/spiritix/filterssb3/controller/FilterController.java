@@ -1,21 +1,41 @@
 package ee.spiritix.filterssb3.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import ee.spiritix.filterssb3.constant.RankBy;
+import ee.spiritix.filterssb3.constant.ResultMode;
+import ee.spiritix.filterssb3.dto.CacheStatisticsDTO;
+import ee.spiritix.filterssb3.dto.EntityCacheStatisticsDTO;
+import ee.spiritix.filterssb3.dto.FilterAnalysisDTO;
 import ee.spiritix.filterssb3.dto.FilterDTO;
+import ee.spiritix.filterssb3.dto.FilterImportResultDTO;
+import ee.spiritix.filterssb3.dto.FilterPageDTO;
+import ee.spiritix.filterssb3.dto.FilterResultDTO;
+import ee.spiritix.filterssb3.dto.FilterStatisticsDTO;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
 import ee.spiritix.filterssb3.service.FilterService;
+import ee.spiritix.filterssb3.service.NdjsonFilterStreamer;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 @RestController
 @CrossOrigin(origins = "${filters.frontend.url}")
@@ -24,16 +44,78 @@ import java.util.List;
 public class FilterController {
 
   private final FilterService filterService;
+  private final NdjsonFilterStreamer ndjsonFilterStreamer;
 
   @GetMapping
   public List<FilterDTO> getAllFilters() {
     return filterService.getAllFilters();
   }
 
+  @GetMapping("/page")
+  public FilterPageDTO getFilterPage(@RequestParam(required = false) Long after,
+                                     @RequestParam(defaultValue = "${filters.pagination.page-size:100}") int size) {
+    return filterService.getFilterPage(after, size);
+  }
+
+  @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public StreamingResponseBody streamAllFilters(
+      @RequestParam(defaultValue = "${filters.pagination.page-size:100}") int size) {
+    Stream<FilterDTO> filters = filterService.streamAllFilters(size);
+    return output -> ndjsonFilterStreamer.write(filters, output);
+  }
+
   @PostMapping
   @ResponseStatus(HttpStatus.CREATED)
   @ExceptionHandler(ConstraintViolationException.class)
   public FilterDTO add(@Valid @RequestBody FilterDTO filterDto) {
     return filterService.add(filterDto);
   }
+
+  @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public FilterImportResultDTO importFilters(@RequestBody List<FilterDTO> filterDtos) {
+    return filterService.importFilters(filterDtos);
+  }
+
+  @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+  public FilterImportResultDTO importFiltersNdjson(InputStream filters) throws IOException {
+    return filterService.importFilters(ndjsonFilterStreamer.readAll(filters, FilterDTO.class));
+  }
+
+  @PostMapping(value = "/{id}/apply", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+      produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public StreamingResponseBody apply(@PathVariable Long id, InputStream objects) {
+    Predicate<FilterableObject> filter = filterService.getFilterPredicate(id);
+    return output -> ndjsonFilterStreamer.filter(objects, output, filter);
+  }
+
+  @PostMapping(value = "/{id}/evaluate", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+  public FilterResultDTO evaluate(@PathVariable Long id,
+                                  @RequestParam ResultMode mode,
+                                  @RequestParam(defaultValue = "50") int limit,
+                                  @RequestParam(defaultValue = "AMOUNT") RankBy rankBy,
+                                  InputStream objects) throws IOException {
+    try (MappingIterator<FilterableObject> iterator = ndjsonFilterStreamer.iterate(objects, FilterableObject.class)) {
+      return filterService.evaluate(iterator, id, mode, limit, rankBy);
+    }
+  }
+
+  @GetMapping("/{id}/statistics")
+  public FilterStatisticsDTO getFilterStatistics(@PathVariable Long id) {
+    return filterService.getFilterStatistics(id);
+  }
+
+  @GetMapping("/{id}/analysis")
+  public FilterAnalysisDTO getFilterAnalysis(@PathVariable Long id) {
+    return filterService.getFilterAnalysis(id);
+  }
+
+  @GetMapping("/cache/statistics")
+  public CacheStatisticsDTO getCacheStatistics() {
+    return filterService.getCacheStatistics();
+  }
+
+  @GetMapping("/cache/entity-statistics")
+  public EntityCacheStatisticsDTO getEntityCacheStatistics() {
+    return filterService.getEntityCacheStatistics();
+  }
 }
@@ -0,0 +1,64 @@
+package ee.spiritix.filterssb3.controller;
+
+import ee.spiritix.filterssb3.dto.MembershipDeltaDTO;
+import ee.spiritix.filterssb3.dto.ObjectChangeDTO;
+import ee.spiritix.filterssb3.dto.SubscriptionDTO;
+import ee.spiritix.filterssb3.service.StandingFilterService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+@RestController
+@CrossOrigin(origins = "${filters.frontend.url}")
+@RequestMapping("/api/subscriptions")
+@RequiredArgsConstructor
+public class FilterSubscriptionController {
+
+  private final StandingFilterService standingFilterService;
+
+  @PostMapping
+  @ResponseStatus(HttpStatus.CREATED)
+  public SubscriptionDTO subscribe(@RequestParam Long filterId) {
+    return standingFilterService.subscribe(filterId);
+  }
+
+  @GetMapping("/{id}")
+  public SubscriptionDTO getSubscription(@PathVariable String id) {
+    return standingFilterService.getSubscription(id);
+  }
+
+  @PostMapping("/{id}/changes")
+  public MembershipDeltaDTO applyChanges(@PathVariable String id, @RequestBody List<ObjectChangeDTO> changes) {
+    return standingFilterService.applyChanges(id, changes);
+  }
+
+  @DeleteMapping("/{id}")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public void unsubscribe(@PathVariable String id) {
+    standingFilterService.unsubscribe(id);
+  }
+
+  @ExceptionHandler(NoSuchElementException.class)
+  public ResponseEntity<String> handleNotFound(NoSuchElementException ex) {
+    return new ResponseEntity<>("HTTP 404 Not found: " + ex.getMessage(), HttpStatus.NOT_FOUND);
+  }
+
+  @ExceptionHandler(IllegalStateException.class)
+  public ResponseEntity<String> handleLimitReached(IllegalStateException ex) {
+    return new ResponseEntity<>("HTTP 409 Limit reached: " + ex.getMessage(), HttpStatus.CONFLICT);
+  }
+}
@@ -0,0 +1,36 @@
+package ee.spiritix.filterssb3.controller;
+
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import ee.spiritix.filterssb3.service.FilterService;
+import ee.spiritix.filterssb3.service.ReactiveFilterService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.io.InputStream;
+import java.util.function.Predicate;
+
+@RestController
+@CrossOrigin(origins = "${filters.frontend.url}")
+@RequestMapping("/api/filters")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "filters.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveFilterController {
+
+  private final FilterService filterService;
+  private final ReactiveFilterService reactiveFilterService;
+
+  @PostMapping(value = "/{id}/apply/reactive", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+      produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public Flux<FilterableObject> apply(@PathVariable Long id, InputStream objects) {
+    // Loaded before the response starts, so an unknown or invalid filter is answered like on the other endpoints
+    Predicate<FilterableObject> filter = filterService.getFilterPredicate(id);
+    return reactiveFilterService.filter(filter, reactiveFilterService.read(objects));
+  }
+}
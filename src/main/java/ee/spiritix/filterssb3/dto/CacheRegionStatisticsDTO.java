@@ -0,0 +1,18 @@
+package ee.spiritix.filterssb3.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheRegionStatisticsDTO {
+
+  private String region;
+  private long hits;
+  private long misses;
+  private long puts;
+}
@@ -0,0 +1,19 @@
+package ee.spiritix.filterssb3.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatisticsDTO {
+
+  private int size;
+  private int maxSize;
+  private long hits;
+  private long misses;
+  private long evictions;
+}
@@ -0,0 +1,19 @@
+package ee.spiritix.filterssb3.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CriterionStatisticsDTO {
+
+  private int position;
+  private String criterion;
+  private long evaluations;
+  private Double passRate;
+  private Double averageNanos;
+}
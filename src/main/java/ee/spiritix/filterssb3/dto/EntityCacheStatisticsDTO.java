@@ -0,0 +1,24 @@
+package ee.spiritix.filterssb3.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityCacheStatisticsDTO {
+
+  private long hits;
+  private long misses;
+  private long puts;
+  /**
+   * Statements prepared since the statistics were last cleared, to tell whether loads still reach the database.
+   */
+  private long statements;
+  private List<CacheRegionStatisticsDTO> regions;
+}
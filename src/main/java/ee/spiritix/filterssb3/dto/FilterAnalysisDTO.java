@@ -0,0 +1,24 @@
+package ee.spiritix.filterssb3.dto;
+
+import ee.spiritix.filterssb3.constant.FilterAnalysisStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FilterAnalysisDTO {
+
+  private Long filterId;
+  private FilterAnalysisStatus status;
+  /**
+   * The criteria as they are evaluated after normalisation, empty when the filter can never match.
+   */
+  private List<String> criteria;
+  private List<String> findings;
+}
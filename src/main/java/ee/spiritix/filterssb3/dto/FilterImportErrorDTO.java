@@ -0,0 +1,20 @@
+package ee.spiritix.filterssb3.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FilterImportErrorDTO {
+
+  /**
+   * Zero-based position of the filter in the imported array or stream.
+   */
+  private int index;
+  private String name;
+  private String message;
+}
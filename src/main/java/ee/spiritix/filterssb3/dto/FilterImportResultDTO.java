@@ -0,0 +1,23 @@
+package ee.spiritix.filterssb3.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FilterImportResultDTO {
+
+  private int imported;
+  private int failed;
+  /**
+   * Ids of the imported filters, in input order.
+   */
+  private List<Long> filterIds;
+  private List<FilterImportErrorDTO> errors;
+}
@@ -0,0 +1,21 @@
+package ee.spiritix.filterssb3.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FilterPageDTO {
+
+  private List<FilterDTO> filters;
+  /**
+   * Cursor for the next page, {@code null} when this is the last page.
+   */
+  private Long nextAfter;
+}
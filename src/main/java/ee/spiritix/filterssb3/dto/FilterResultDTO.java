@@ -0,0 +1,34 @@
+package ee.spiritix.filterssb3.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import ee.spiritix.filterssb3.constant.ResultMode;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FilterResultDTO {
+
+  private ResultMode mode;
+  /**
+   * Objects evaluated before the result was known, fewer than were sent when the evaluation stopped early.
+   */
+  private long evaluated;
+  /**
+   * Number of matching objects among the evaluated ones, not set for {@link ResultMode#EXISTS}.
+   */
+  private Long count;
+  private Boolean exists;
+  /**
+   * The selected objects for {@link ResultMode#LIMIT} and {@link ResultMode#TOP}.
+   */
+  private List<FilterableObject> objects;
+}
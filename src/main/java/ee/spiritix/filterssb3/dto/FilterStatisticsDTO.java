@@ -0,0 +1,20 @@
+package ee.spiritix.filterssb3.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FilterStatisticsDTO {
+
+  private Long filterId;
+  private boolean adaptive;
+  private long samples;
+  private List<CriterionStatisticsDTO> criteria;
+}
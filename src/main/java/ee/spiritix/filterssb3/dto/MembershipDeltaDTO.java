@@ -0,0 +1,26 @@
+package ee.spiritix.filterssb3.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MembershipDeltaDTO {
+
+  private String subscriptionId;
+  /**
+   * Ids of the objects that match the filter after the changes and did not before, in the order they were changed.
+   */
+  private List<String> entered;
+  /**
+   * Ids of the objects that matched the filter before the changes and no longer do.
+   */
+  private List<String> left;
+  private int members;
+}
@@ -0,0 +1,22 @@
+package ee.spiritix.filterssb3.dto;
+
+import ee.spiritix.filterssb3.constant.ObjectChangeType;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ObjectChangeDTO {
+
+  private ObjectChangeType type;
+  private String objectId;
+  /**
+   * The object after the change, not needed for deletes.
+   */
+  private FilterableObject object;
+}
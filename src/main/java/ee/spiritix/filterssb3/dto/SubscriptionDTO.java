@@ -0,0 +1,20 @@
+package ee.spiritix.filterssb3.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubscriptionDTO {
+
+  private String id;
+  private Long filterId;
+  /**
+   * Number of objects currently matching the filter.
+   */
+  private int members;
+}
@@ -1,6 +1,7 @@
 package ee.spiritix.filterssb3.dto;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
@@ -13,5 +14,8 @@ import lombok.experimental.SuperBuilder;
 public class TextCriteriaDTO extends FilterCriteriaDTO {
 
   @NotBlank
+  @Size(max = 500)
   private String value;
+  // exact, ignore_case or ignore_case_and_accents, exact when missing
+  private String matchMode;
 }
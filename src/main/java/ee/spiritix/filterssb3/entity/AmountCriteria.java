@@ -6,7 +6,6 @@ import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
@@ -21,12 +20,11 @@ import static ee.spiritix.filterssb3.constant.FilterCriteriaTypes.AMOUNT;
 @SuperBuilder
 @NoArgsConstructor
 @Entity
-@Table(name = "amount_criteria")
 @DiscriminatorValue(AMOUNT)
 public class AmountCriteria extends FilterCriteria {
 
   @Enumerated(EnumType.STRING)
-  @Column(name = "condition_type")
+  @Column(name = "amount_condition_type")
   private AmountConditionType conditionType;
 
   @Column(name = "amount_value")
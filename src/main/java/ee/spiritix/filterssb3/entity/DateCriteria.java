@@ -6,7 +6,6 @@ import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.Table;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -23,12 +22,11 @@ import static ee.spiritix.filterssb3.constant.FilterCriteriaTypes.DATE;
 @SuperBuilder
 @NoArgsConstructor
 @Entity
-@Table(name = "date_criteria")
 @DiscriminatorValue(DATE)
 public class DateCriteria extends FilterCriteria {
 
   @Enumerated(EnumType.STRING)
-  @Column(name = "condition_type")
+  @Column(name = "date_condition_type")
   private DateConditionType conditionType;
 
   @Column(name = "date_value")
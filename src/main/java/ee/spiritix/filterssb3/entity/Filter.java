@@ -1,6 +1,7 @@
 package ee.spiritix.filterssb3.entity;
 
 import ee.spiritix.filterssb3.constant.SelectionType;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -10,8 +11,11 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -19,10 +23,13 @@ import java.util.List;
 @Data
 @Entity
 @Table(name = "filter")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Filter {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "filter_seq")
+  @SequenceGenerator(name = "filter_seq", sequenceName = "filter_seq", allocationSize = 50)
   private Long id;
 
   @Column(nullable = false)
@@ -32,6 +39,7 @@ public class Filter {
   @Column(nullable = false)
   private SelectionType selection;
 
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
   @OneToMany(mappedBy = "filter", cascade = CascadeType.ALL, orphanRemoval = true)
   private List<FilterCriteria> filterCriteria = new ArrayList<>();
 }
@@ -1,5 +1,6 @@
 package ee.spiritix.filterssb3.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.DiscriminatorColumn;
 import jakarta.persistence.DiscriminatorType;
 import jakarta.persistence.Entity;
@@ -11,22 +12,34 @@ import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+/**
+ * Criteria of all types live in the single {@code filter_criteria} table, so loading a filter's criteria is a plain
+ * select on one table instead of outer joins across one table per type.
+ *
+ * <p>The second-level cache is configured here, on the root of the hierarchy; all criteria types share its region.</p>
+ */
 @Entity
 @Table(name = "filter_criteria")
-@Inheritance(strategy = InheritanceType.JOINED)
+@Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "filter_type", discriminatorType = DiscriminatorType.STRING)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @NoArgsConstructor
 @Data
 @SuperBuilder
 public abstract class FilterCriteria {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "filter_criteria_seq")
+  @SequenceGenerator(name = "filter_criteria_seq", sequenceName = "filter_criteria_seq", allocationSize = 50)
   private Long id;
 
   @ManyToOne(fetch = FetchType.LAZY)
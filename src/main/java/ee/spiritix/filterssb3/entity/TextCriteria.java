@@ -1,12 +1,12 @@
 package ee.spiritix.filterssb3.entity;
 
 import ee.spiritix.filterssb3.constant.TextConditionType;
+import ee.spiritix.filterssb3.constant.TextMatchMode;
 import jakarta.persistence.Column;
 import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
@@ -19,14 +19,17 @@ import static ee.spiritix.filterssb3.constant.FilterCriteriaTypes.TEXT;
 @SuperBuilder
 @NoArgsConstructor
 @Entity
-@Table(name = "text_criteria")
 @DiscriminatorValue(TEXT)
 public class TextCriteria extends FilterCriteria {
 
   @Enumerated(EnumType.STRING)
-  @Column(name = "condition_type")
+  @Column(name = "text_condition_type")
   private TextConditionType conditionType;
 
   @Column(name = "text_value", length = 500)
   private String textValue;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "text_match_mode")
+  private TextMatchMode matchMode;
 }
@@ -3,11 +3,13 @@ package ee.spiritix.filterssb3.external.model;
 import ee.spiritix.filterssb3.constant.SelectionType;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 public class FilterableObject {
 
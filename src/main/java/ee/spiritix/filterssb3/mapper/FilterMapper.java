@@ -0,0 +1,125 @@
+package ee.spiritix.filterssb3.mapper;
+
+import ee.spiritix.filterssb3.constant.AmountConditionType;
+import ee.spiritix.filterssb3.constant.DateConditionType;
+import ee.spiritix.filterssb3.constant.TextConditionType;
+import ee.spiritix.filterssb3.constant.TextMatchMode;
+import ee.spiritix.filterssb3.dto.AmountCriteriaDTO;
+import ee.spiritix.filterssb3.dto.DateCriteriaDTO;
+import ee.spiritix.filterssb3.dto.FilterCriteriaDTO;
+import ee.spiritix.filterssb3.dto.FilterDTO;
+import ee.spiritix.filterssb3.dto.TextCriteriaDTO;
+import ee.spiritix.filterssb3.entity.AmountCriteria;
+import ee.spiritix.filterssb3.entity.DateCriteria;
+import ee.spiritix.filterssb3.entity.Filter;
+import ee.spiritix.filterssb3.entity.FilterCriteria;
+import ee.spiritix.filterssb3.entity.TextCriteria;
+import org.mapstruct.AfterMapping;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Builder;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValueMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+import org.mapstruct.SubclassExhaustiveStrategy;
+import org.mapstruct.SubclassMapping;
+
+import static ee.spiritix.filterssb3.constant.FilterCriteriaTypes.AMOUNT;
+import static ee.spiritix.filterssb3.constant.FilterCriteriaTypes.DATE;
+import static ee.spiritix.filterssb3.constant.FilterCriteriaTypes.TEXT;
+
+/**
+ * Mapping between filter DTOs and entities, implemented by MapStruct at compile time. Builders are disabled so the
+ * generated code uses the no-args constructors and setters. Missing criteria lists map to empty lists, matching the
+ * entity defaults.
+ */
+@Mapper(
+    builder = @Builder(disableBuilder = true),
+    unmappedTargetPolicy = ReportingPolicy.ERROR,
+    nullValueIterableMappingStrategy = NullValueMappingStrategy.RETURN_DEFAULT
+)
+public interface FilterMapper {
+
+  @Mapping(target = "filterCriteria", source = "criteriaList")
+  Filter toEntity(FilterDTO dto);
+
+  @Mapping(target = "criteriaList", source = "filterCriteria")
+  FilterDTO toDto(Filter entity);
+
+  @BeanMapping(subclassExhaustiveStrategy = SubclassExhaustiveStrategy.RUNTIME_EXCEPTION)
+  @SubclassMapping(source = AmountCriteriaDTO.class, target = AmountCriteria.class)
+  @SubclassMapping(source = DateCriteriaDTO.class, target = DateCriteria.class)
+  @SubclassMapping(source = TextCriteriaDTO.class, target = TextCriteria.class)
+  FilterCriteria toEntity(FilterCriteriaDTO dto);
+
+  @BeanMapping(subclassExhaustiveStrategy = SubclassExhaustiveStrategy.RUNTIME_EXCEPTION)
+  @SubclassMapping(source = AmountCriteria.class, target = AmountCriteriaDTO.class)
+  @SubclassMapping(source = DateCriteria.class, target = DateCriteriaDTO.class)
+  @SubclassMapping(source = TextCriteria.class, target = TextCriteriaDTO.class)
+  FilterCriteriaDTO toDto(FilterCriteria entity);
+
+  @Mapping(target = "id", ignore = true)
+  @Mapping(target = "filter", ignore = true)
+  @Mapping(target = "amountValue", source = "value")
+  AmountCriteria toEntity(AmountCriteriaDTO dto);
+
+  @Mapping(target = "id", ignore = true)
+  @Mapping(target = "filter", ignore = true)
+  @Mapping(target = "dateValue", source = "value")
+  DateCriteria toEntity(DateCriteriaDTO dto);
+
+  @Mapping(target = "id", ignore = true)
+  @Mapping(target = "filter", ignore = true)
+  @Mapping(target = "textValue", source = "value")
+  TextCriteria toEntity(TextCriteriaDTO dto);
+
+  @Mapping(target = "filterType", constant = AMOUNT)
+  @Mapping(target = "value", source = "amountValue")
+  AmountCriteriaDTO toDto(AmountCriteria entity);
+
+  @Mapping(target = "filterType", constant = DATE)
+  @Mapping(target = "value", source = "dateValue")
+  DateCriteriaDTO toDto(DateCriteria entity);
+
+  @Mapping(target = "filterType", constant = TEXT)
+  @Mapping(target = "value", source = "textValue")
+  TextCriteriaDTO toDto(TextCriteria entity);
+
+  default AmountConditionType toAmountConditionType(String value) {
+    return value == null ? null : AmountConditionType.valueOf(value.toUpperCase());
+  }
+
+  default DateConditionType toDateConditionType(String value) {
+    return value == null ? null : DateConditionType.valueOf(value.toUpperCase());
+  }
+
+  default TextConditionType toTextConditionType(String value) {
+    return value == null ? null : TextConditionType.valueOf(value.toUpperCase());
+  }
+
+  default TextMatchMode toTextMatchMode(String value) {
+    return value == null ? null : TextMatchMode.valueOf(value.toUpperCase());
+  }
+
+  default String fromAmountConditionType(AmountConditionType conditionType) {
+    return conditionType == null ? null : conditionType.getValue();
+  }
+
+  default String fromDateConditionType(DateConditionType conditionType) {
+    return conditionType == null ? null : conditionType.getValue();
+  }
+
+  default String fromTextConditionType(TextConditionType conditionType) {
+    return conditionType == null ? null : conditionType.getValue();
+  }
+
+  default String fromTextMatchMode(TextMatchMode matchMode) {
+    return matchMode == null ? null : matchMode.getValue();
+  }
+
+  @AfterMapping
+  default void linkCriteria(@MappingTarget Filter filter) {
+    filter.getFilterCriteria().forEach(criteria -> criteria.setFilter(filter));
+  }
+}
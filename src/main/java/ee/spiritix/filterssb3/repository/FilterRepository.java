@@ -1,9 +1,28 @@
 package ee.spiritix.filterssb3.repository;
 
 import ee.spiritix.filterssb3.entity.Filter;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface FilterRepository extends JpaRepository<Filter, Long> {
+
+  /**
+   * Keyset page of filter ids: the ids greater than {@code after}, in ascending order. Only the first page of
+   * {@code pageable} is meaningful, the offset is always expressed through {@code after}.
+   */
+  @Query("select f.id from Filter f where f.id > :after order by f.id")
+  List<Long> findIdsAfter(@Param("after") long after, Pageable pageable);
+
+  /**
+   * Loads the given filters together with all their criteria in a single query.
+   */
+  @Query("select distinct f from Filter f left join fetch f.filterCriteria where f.id in :ids order by f.id")
+  List<Filter> findAllWithCriteriaByIdIn(@Param("ids") Collection<Long> ids);
 }
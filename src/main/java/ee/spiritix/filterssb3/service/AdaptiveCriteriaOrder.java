@@ -0,0 +1,186 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.dto.CriterionStatisticsDTO;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Evaluates the criteria of one filter in an order learned at runtime. A sample of the evaluations runs every
+ * criterion, not only up to the first rejection, and records whether it passed and how long it took. Every
+ * {@code reorderInterval} samples the criteria are sorted by {@code cost / rejectRate}, which puts cheap criteria that
+ * reject often first; criteria that never reject go last.
+ *
+ * <p>A new order is only taken when its expected cost per object, estimated from the same samples, is lower than that
+ * of the current order by at least {@code reorderMargin}, so sampling noise does not flip between two similar orders.
+ * After {@code maxReorders} changes the order is kept for the lifetime of the compiled filter.</p>
+ *
+ * <p>In generated mode {@link FilterBytecodeGenerator} runs again for every new order, so the generated code follows
+ * the learned order as well; {@code maxReorders} also bounds the number of classes generated for one filter.</p>
+ */
+final class AdaptiveCriteriaOrder {
+
+  private final SelectionType selection;
+  private final List<FilterCriteriaInterface> criteria;
+  private final boolean generated;
+  private final int sampleMask;
+  private final int reorderInterval;
+  private final double reorderMargin;
+  private final int maxReorders;
+
+  private final LongAdder[] evaluations;
+  private final LongAdder[] passes;
+  private final LongAdder[] nanos;
+  private final AtomicLong samples = new AtomicLong();
+  private volatile Order order;
+  private int reorders;
+
+  /**
+   * @param sampleRate one in {@code sampleRate} evaluations is measured, rounded up to a power of two
+   * @param reorderMargin the fraction of the expected cost a new order has to save before it replaces the current one
+   * @param maxReorders how often the order may change
+   * @param generated whether each order is turned into a generated predicate instead of walking the criteria
+   */
+  AdaptiveCriteriaOrder(SelectionType selection, List<FilterCriteriaInterface> criteria, int sampleRate,
+                        int reorderInterval, double reorderMargin, int maxReorders, boolean generated) {
+    this.selection = selection;
+    this.criteria = List.copyOf(criteria);
+    this.generated = generated;
+    this.sampleMask = sampleRate <= 1 ? 0 : (Integer.highestOneBit(sampleRate - 1) << 1) - 1;
+    this.reorderInterval = Math.max(1, reorderInterval);
+    this.reorderMargin = reorderMargin;
+    this.maxReorders = maxReorders;
+    this.evaluations = adders(criteria.size());
+    this.passes = adders(criteria.size());
+    this.nanos = adders(criteria.size());
+    this.order = order(IntStream.range(0, criteria.size()).toArray());
+  }
+
+  /**
+   * Checks the criteria only, the selection is checked by the owning {@link FilterFunction}.
+   */
+  boolean matches(FilterableObject object) {
+    Order current = order;
+    if ((ThreadLocalRandom.current().nextInt() & sampleMask) == 0) {
+      return sample(object, current);
+    }
+    if (current.predicate() != null) {
+      return current.predicate().test(object);
+    }
+    for (FilterCriteriaInterface criterion : current.criteria()) {
+      if (!criterion.applyCriteria(object)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  int[] getOrder() {
+    return order.positions().clone();
+  }
+
+  long getSamples() {
+    return samples.get();
+  }
+
+  /**
+   * Statistics of every criterion, in the current evaluation order.
+   */
+  List<CriterionStatisticsDTO> getStatistics() {
+    List<CriterionStatisticsDTO> statistics = new ArrayList<>();
+    for (int position : order.positions()) {
+      long evaluated = evaluations[position].sum();
+      statistics.add(CriterionStatisticsDTO.builder()
+          .position(position)
+          .criterion(FilterAnalyzer.describe(criteria.get(position)))
+          .evaluations(evaluated)
+          .passRate(evaluated == 0 ? null : (double) passes[position].sum() / evaluated)
+          .averageNanos(evaluated == 0 ? null : (double) nanos[position].sum() / evaluated)
+          .build());
+    }
+    return statistics;
+  }
+
+  private boolean sample(FilterableObject object, Order current) {
+    boolean matches = true;
+    for (int position : current.positions()) {
+      long start = System.nanoTime();
+      boolean passed = criteria.get(position).applyCriteria(object);
+      nanos[position].add(System.nanoTime() - start);
+      evaluations[position].increment();
+      if (passed) {
+        passes[position].increment();
+      }
+      matches &= passed;
+    }
+    if (samples.incrementAndGet() % reorderInterval == 0) {
+      reorder();
+    }
+    return matches;
+  }
+
+  private synchronized void reorder() {
+    if (reorders >= maxReorders) {
+      return;
+    }
+    double[] passRates = new double[criteria.size()];
+    double[] costs = new double[criteria.size()];
+    double[] ranks = new double[criteria.size()];
+    for (int position = 0; position < ranks.length; position++) {
+      long evaluated = evaluations[position].sum();
+      passRates[position] = evaluated == 0 ? 1 : (double) passes[position].sum() / evaluated;
+      costs[position] = evaluated == 0 ? 0 : (double) nanos[position].sum() / evaluated;
+      double rejectRate = 1 - passRates[position];
+      ranks[position] = rejectRate == 0 ? Double.POSITIVE_INFINITY : costs[position] / rejectRate;
+    }
+    // Stable sort, so criteria with equal rank keep their persistence order
+    int[] positions = IntStream.range(0, criteria.size()).boxed()
+        .sorted(Comparator.comparingDouble(position -> ranks[position]))
+        .mapToInt(Integer::intValue)
+        .toArray();
+    if (!Arrays.equals(positions, order.positions())
+        && expectedCost(positions, passRates, costs)
+        <= expectedCost(order.positions(), passRates, costs) * (1 - reorderMargin)) {
+      order = order(positions);
+      reorders++;
+    }
+  }
+
+  /**
+   * The average cost of evaluating the criteria in the given order, where each criterion only runs for the objects
+   * all criteria before it passed.
+   */
+  private static double expectedCost(int[] positions, double[] passRates, double[] costs) {
+    double cost = 0;
+    double reached = 1;
+    for (int position : positions) {
+      cost += reached * costs[position];
+      reached *= passRates[position];
+    }
+    return cost;
+  }
+
+  private Order order(int[] positions) {
+    List<FilterCriteriaInterface> ordered = Arrays.stream(positions).mapToObj(criteria::get).toList();
+    Predicate<FilterableObject> predicate = generated ? FilterBytecodeGenerator.generate(selection, ordered) : null;
+    return new Order(positions, ordered.toArray(FilterCriteriaInterface[]::new), predicate);
+  }
+
+  private static LongAdder[] adders(int size) {
+    LongAdder[] adders = new LongAdder[size];
+    Arrays.setAll(adders, ignored -> new LongAdder());
+    return adders;
+  }
+
+  private record Order(int[] positions, FilterCriteriaInterface[] criteria, Predicate<FilterableObject> predicate) {
+  }
+}
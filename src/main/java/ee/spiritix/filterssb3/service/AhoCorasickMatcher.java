@@ -0,0 +1,177 @@
+package ee.spiritix.filterssb3.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton finding every pattern contained in a text in one pass over the text. Patterns are numbered
+ * in the order they were first added to the {@link Builder}. A pattern is reported when {@link String#contains} would
+ * return {@code true}, so the empty pattern is contained in every text.
+ *
+ * <p>Matchers are immutable. The builder keeps its trie between {@link Builder#build()} calls, so adding patterns
+ * only inserts their characters; the failure links are recomputed for the whole trie on the next build.</p>
+ */
+final class AhoCorasickMatcher {
+
+  private static final int ROOT = 0;
+
+  private final char[][] keys;
+  private final int[][] targets;
+  private final int[] failure;
+  private final int[] output;
+  private final int[] dictionary;
+  private final int patternCount;
+
+  private AhoCorasickMatcher(char[][] keys, int[][] targets, int[] failure, int[] output, int[] dictionary,
+                             int patternCount) {
+    this.keys = keys;
+    this.targets = targets;
+    this.failure = failure;
+    this.output = output;
+    this.dictionary = dictionary;
+    this.patternCount = patternCount;
+  }
+
+  int getPatternCount() {
+    return patternCount;
+  }
+
+  /**
+   * Sets the bit of every pattern contained in {@code text}.
+   */
+  void match(String text, BitSet matched) {
+    report(ROOT, matched);
+    int node = ROOT;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      int next = transition(node, c);
+      while (next < 0 && node != ROOT) {
+        node = failure[node];
+        next = transition(node, c);
+      }
+      node = next < 0 ? ROOT : next;
+      report(node, matched);
+    }
+  }
+
+  private void report(int node, BitSet matched) {
+    int current = output[node] >= 0 ? node : dictionary[node];
+    while (current >= 0) {
+      int pattern = output[current];
+      // A pattern already seen had its whole dictionary chain reported at that time
+      if (matched.get(pattern)) {
+        return;
+      }
+      matched.set(pattern);
+      current = dictionary[current];
+    }
+  }
+
+  private int transition(int node, char c) {
+    int index = Arrays.binarySearch(keys[node], c);
+    return index >= 0 ? targets[node][index] : -1;
+  }
+
+  static final class Builder {
+
+    private final List<TreeMap<Character, Integer>> children = new ArrayList<>();
+    private final List<Integer> outputs = new ArrayList<>();
+    private final Map<String, Integer> patterns = new HashMap<>();
+
+    Builder() {
+      children.add(new TreeMap<>());
+      outputs.add(-1);
+    }
+
+    /**
+     * Adds a pattern and returns its number. Adding a known pattern again returns the existing number.
+     */
+    int add(String pattern) {
+      Integer existing = patterns.get(pattern);
+      if (existing != null) {
+        return existing;
+      }
+      int node = ROOT;
+      for (int i = 0; i < pattern.length(); i++) {
+        TreeMap<Character, Integer> edges = children.get(node);
+        Integer next = edges.get(pattern.charAt(i));
+        if (next == null) {
+          next = children.size();
+          edges.put(pattern.charAt(i), next);
+          children.add(new TreeMap<>());
+          outputs.add(-1);
+        }
+        node = next;
+      }
+      int number = patterns.size();
+      patterns.put(pattern, number);
+      outputs.set(node, number);
+      return number;
+    }
+
+    /**
+     * Returns the number of a pattern, or -1 when it was never added.
+     */
+    int indexOf(String pattern) {
+      return patterns.getOrDefault(pattern, -1);
+    }
+
+    AhoCorasickMatcher build() {
+      int size = children.size();
+      char[][] keys = new char[size][];
+      int[][] targets = new int[size][];
+      int[] output = new int[size];
+      for (int node = 0; node < size; node++) {
+        TreeMap<Character, Integer> edges = children.get(node);
+        keys[node] = new char[edges.size()];
+        targets[node] = new int[edges.size()];
+        int i = 0;
+        for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+          keys[node][i] = edge.getKey();
+          targets[node][i] = edge.getValue();
+          i++;
+        }
+        output[node] = outputs.get(node);
+      }
+
+      int[] failure = new int[size];
+      int[] dictionary = new int[size];
+      dictionary[ROOT] = -1;
+      // Breadth-first, so the failure target of a node is always finished before the node itself
+      ArrayDeque<Integer> queue = new ArrayDeque<>();
+      for (int child : targets[ROOT]) {
+        failure[child] = ROOT;
+        dictionary[child] = output[ROOT] >= 0 ? ROOT : -1;
+        queue.add(child);
+      }
+      while (!queue.isEmpty()) {
+        int node = queue.poll();
+        for (int i = 0; i < keys[node].length; i++) {
+          char c = keys[node][i];
+          int child = targets[node][i];
+          int fallback = failure[node];
+          int next = find(keys, targets, fallback, c);
+          while (next < 0 && fallback != ROOT) {
+            fallback = failure[fallback];
+            next = find(keys, targets, fallback, c);
+          }
+          failure[child] = next < 0 ? ROOT : next;
+          dictionary[child] = output[failure[child]] >= 0 ? failure[child] : dictionary[failure[child]];
+          queue.add(child);
+        }
+      }
+      return new AhoCorasickMatcher(keys, targets, failure, output, dictionary, patterns.size());
+    }
+
+    private static int find(char[][] keys, int[][] targets, int node, char c) {
+      int index = Arrays.binarySearch(keys[node], c);
+      return index >= 0 ? targets[node][index] : -1;
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.AmountConditionType;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static ee.spiritix.filterssb3.service.ScaledAmounts.NOT_REPRESENTABLE;
+
+/**
+ * Compares single objects with {@link BigDecimal#compareTo}, which does not allocate for amounts that fit in a
+ * {@code long}. The threshold is also kept in cents for {@link ColumnarFilterEvaluator}, which compares it with the
+ * amounts a {@link FilterableObjectBatch} converted to cents once per row. A threshold between two cents is kept as
+ * the cent on the side that leaves the comparison with whole cents unchanged, and no amount in cents equals it.
+ */
+@Getter(AccessLevel.PACKAGE)
+class AmountCriteriaFunction implements FilterCriteriaInterface {
+  private final AmountConditionType conditionType;
+  private final BigDecimal amountValue;
+  private final long centsBound;
+  private final boolean wholeCents;
+
+  @Builder
+  AmountCriteriaFunction(AmountConditionType conditionType, BigDecimal amountValue) {
+    this.conditionType = conditionType;
+    this.amountValue = amountValue;
+    long exact = ScaledAmounts.toScaledLong(amountValue);
+    this.wholeCents = exact != NOT_REPRESENTABLE;
+    this.centsBound = wholeCents ? exact : ScaledAmounts.toScaledLong(amountValue,
+        conditionType == AmountConditionType.LESS_THAN ? RoundingMode.CEILING : RoundingMode.FLOOR);
+  }
+
+  @Override
+  public boolean applyCriteria(FilterableObject object) {
+    return compare(object.getAmount());
+  }
+
+  boolean compare(BigDecimal amount) {
+    return switch (conditionType) {
+      case GREATER_THAN -> amount.compareTo(amountValue) > 0;
+      case LESS_THAN -> amount.compareTo(amountValue) < 0;
+      case EQUALS -> amount.compareTo(amountValue) == 0;
+      case NOT_EQUALS -> amount.compareTo(amountValue) != 0;
+    };
+  }
+}
@@ -0,0 +1,264 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.AmountConditionType;
+import ee.spiritix.filterssb3.constant.DateConditionType;
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.constant.TextConditionType;
+import ee.spiritix.filterssb3.constant.TextMatchMode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static ee.spiritix.filterssb3.service.ScaledAmounts.NOT_REPRESENTABLE;
+
+/**
+ * Evaluates a {@link FilterFunction} over a {@link FilterableObjectBatch} one criterion at a time. Each criterion
+ * runs as a loop over a single primitive column and produces a bitmap (one bit per row, 64 rows per word) that is
+ * ANDed into the result. Rows or criteria that cannot be expressed on the primitive columns fall back to the row-wise
+ * evaluation for just those rows. Regular expressions are too costly to run for rows already rejected, so they are
+ * evaluated row-wise as well.
+ */
+final class ColumnarFilterEvaluator {
+
+  private ColumnarFilterEvaluator() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  static long[] evaluate(FilterFunction function, FilterableObjectBatch batch) {
+    int size = batch.getSize();
+    long[] matches = new long[words(size)];
+    if (function.isUnsatisfiable()) {
+      return matches;
+    }
+    long[] pass = new long[matches.length];
+
+    selectionPass(function.getSelection(), batch, matches);
+    for (FilterCriteriaInterface criterion : function.getFilterCriteria()) {
+      if (isEmpty(matches)) {
+        break;
+      }
+      if (criterion instanceof AmountCriteriaFunction amountFunction) {
+        amountPass(amountFunction, batch, pass);
+      } else if (criterion instanceof DateCriteriaFunction dateFunction) {
+        datePass(dateFunction, batch, pass);
+      } else if (criterion instanceof TextCriteriaFunction textFunction
+          && textFunction.getConditionType() != TextConditionType.MATCHES) {
+        textPass(textFunction, batch, pass);
+      } else {
+        rowPass(criterion, batch, matches, pass);
+      }
+      and(matches, pass);
+    }
+    return matches;
+  }
+
+  static <T> List<T> select(List<T> rows, long[] matches) {
+    List<T> selected = new ArrayList<>(bitCount(matches));
+    for (int word = 0; word < matches.length; word++) {
+      long bits = matches[word];
+      while (bits != 0) {
+        selected.add(rows.get((word << 6) + Long.numberOfTrailingZeros(bits)));
+        bits &= bits - 1;
+      }
+    }
+    return selected;
+  }
+
+  private static void selectionPass(SelectionType selection, FilterableObjectBatch batch, long[] pass) {
+    byte[] selections = batch.getSelections();
+    byte ordinal = (byte) selection.ordinal();
+    int size = batch.getSize();
+    for (int word = 0, base = 0; base < size; word++, base += 64) {
+      int end = Math.min(base + 64, size);
+      long bits = 0;
+      for (int i = base; i < end; i++) {
+        bits |= (selections[i] == ordinal ? 1L : 0L) << i;
+      }
+      pass[word] = bits;
+    }
+  }
+
+  private static void amountPass(AmountCriteriaFunction function, FilterableObjectBatch batch, long[] pass) {
+    long[] amounts = batch.getScaledAmounts();
+    int size = batch.getSize();
+    // The function keeps a threshold between two cents as its floor or ceiling, which compares like the threshold
+    long bound = function.getCentsBound();
+    if (bound == NOT_REPRESENTABLE) {
+      amountFallback(function, batch, 0, size, pass);
+      return;
+    }
+
+    switch (function.getConditionType()) {
+      case GREATER_THAN -> greaterThan(amounts, size, bound, pass);
+      case LESS_THAN -> lessThan(amounts, size, bound, pass);
+      case EQUALS, NOT_EQUALS -> {
+        if (function.isWholeCents()) {
+          equalTo(amounts, size, bound, pass);
+        } else {
+          Arrays.fill(pass, 0L);
+        }
+        if (function.getConditionType() == AmountConditionType.NOT_EQUALS) {
+          not(pass, size);
+        }
+      }
+    }
+
+    for (int i = 0; i < size; i++) {
+      if (amounts[i] == NOT_REPRESENTABLE) {
+        amountFallback(function, batch, i, i + 1, pass);
+      }
+    }
+  }
+
+  private static void amountFallback(AmountCriteriaFunction function, FilterableObjectBatch batch, int from, int to,
+                                     long[] pass) {
+    for (int i = from; i < to; i++) {
+      set(pass, i, function.compare(batch.amount(i)));
+    }
+  }
+
+  private static void greaterThan(long[] values, int size, long bound, long[] pass) {
+    for (int word = 0, base = 0; base < size; word++, base += 64) {
+      int end = Math.min(base + 64, size);
+      long bits = 0;
+      for (int i = base; i < end; i++) {
+        bits |= (values[i] > bound ? 1L : 0L) << i;
+      }
+      pass[word] = bits;
+    }
+  }
+
+  private static void lessThan(long[] values, int size, long bound, long[] pass) {
+    for (int word = 0, base = 0; base < size; word++, base += 64) {
+      int end = Math.min(base + 64, size);
+      long bits = 0;
+      for (int i = base; i < end; i++) {
+        bits |= (values[i] < bound ? 1L : 0L) << i;
+      }
+      pass[word] = bits;
+    }
+  }
+
+  private static void equalTo(long[] values, int size, long bound, long[] pass) {
+    for (int word = 0, base = 0; base < size; word++, base += 64) {
+      int end = Math.min(base + 64, size);
+      long bits = 0;
+      for (int i = base; i < end; i++) {
+        bits |= (values[i] == bound ? 1L : 0L) << i;
+      }
+      pass[word] = bits;
+    }
+  }
+
+  private static void datePass(DateCriteriaFunction function, FilterableObjectBatch batch, long[] pass) {
+    long[] days = batch.getEpochDays();
+    int size = batch.getSize();
+    long day = function.getDateValue().toEpochDay();
+    for (int word = 0, base = 0; base < size; word++, base += 64) {
+      int end = Math.min(base + 64, size);
+      long bits = 0;
+      switch (function.getConditionType()) {
+        case IS, IS_NOT -> {
+          for (int i = base; i < end; i++) {
+            bits |= (days[i] == day ? 1L : 0L) << i;
+          }
+        }
+        case IS_AFTER -> {
+          for (int i = base; i < end; i++) {
+            bits |= (days[i] > day ? 1L : 0L) << i;
+          }
+        }
+        case IS_BEFORE -> {
+          for (int i = base; i < end; i++) {
+            bits |= (days[i] < day ? 1L : 0L) << i;
+          }
+        }
+      }
+      pass[word] = bits;
+    }
+    if (function.getConditionType() == DateConditionType.IS_NOT) {
+      not(pass, size);
+    }
+  }
+
+  private static void textPass(TextCriteriaFunction function, FilterableObjectBatch batch, long[] pass) {
+    String[] titles = function.getMatchMode() == TextMatchMode.IGNORE_CASE_AND_ACCENTS
+        ? batch.getFoldedTitles()
+        : batch.getTitles();
+    int size = batch.getSize();
+    for (int word = 0, base = 0; base < size; word++, base += 64) {
+      int end = Math.min(base + 64, size);
+      long bits = 0;
+      for (int i = base; i < end; i++) {
+        bits |= (function.matchesTitle(titles[i]) ? 1L : 0L) << i;
+      }
+      pass[word] = bits;
+    }
+    if (function.isNegated()) {
+      not(pass, size);
+    }
+  }
+
+  private static void rowPass(FilterCriteriaInterface criterion, FilterableObjectBatch batch, long[] matches,
+                              long[] pass) {
+    // Criteria without a columnar form only run for rows that are still candidates
+    for (int word = 0; word < matches.length; word++) {
+      long candidates = matches[word];
+      long bits = 0;
+      while (candidates != 0) {
+        int row = (word << 6) + Long.numberOfTrailingZeros(candidates);
+        if (criterion.applyCriteria(batch.row(row))) {
+          bits |= 1L << row;
+        }
+        candidates &= candidates - 1;
+      }
+      pass[word] = bits;
+    }
+  }
+
+  private static void set(long[] bitmap, int row, boolean value) {
+    if (value) {
+      bitmap[row >>> 6] |= 1L << row;
+    } else {
+      bitmap[row >>> 6] &= ~(1L << row);
+    }
+  }
+
+  private static void not(long[] bitmap, int size) {
+    for (int word = 0; word < bitmap.length; word++) {
+      bitmap[word] = ~bitmap[word];
+    }
+    int tail = size & 63;
+    if (tail != 0) {
+      bitmap[bitmap.length - 1] &= (1L << tail) - 1;
+    }
+  }
+
+  private static void and(long[] target, long[] bitmap) {
+    for (int word = 0; word < target.length; word++) {
+      target[word] &= bitmap[word];
+    }
+  }
+
+  private static boolean isEmpty(long[] bitmap) {
+    for (long word : bitmap) {
+      if (word != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int bitCount(long[] bitmap) {
+    int count = 0;
+    for (long word : bitmap) {
+      count += Long.bitCount(word);
+    }
+    return count;
+  }
+
+  private static int words(int size) {
+    return (size + 63) >>> 6;
+  }
+}
@@ -0,0 +1,72 @@
+package ee.spiritix.filterssb3.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import ee.spiritix.filterssb3.dto.CacheStatisticsDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of compiled {@link FilterFunction}s keyed by filter id. Entries expire after the configured
+ * time-to-live so changes made outside of {@link FilterService} are eventually picked up as well.
+ *
+ * <p>Concurrent misses for the same id share one load, so a filter is compiled once. An invalidation that arrives
+ * while the filter is being loaded waits for the load and then removes its result, so a filter loaded before a save
+ * is never served after it. Hits do not take a lock.</p>
+ */
+@Component
+public class CompiledFilterCache {
+
+  private final int maxSize;
+  private final Cache<Long, FilterFunction> entries;
+
+  public CompiledFilterCache(@Value("${filters.cache.max-size:1000}") int maxSize,
+                             @Value("${filters.cache.ttl:10m}") Duration ttl) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("Cache size must be positive");
+    }
+    this.maxSize = maxSize;
+    this.entries = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        // Evict on the calling thread, so the size and statistics are current when a call returns
+        .executor(Runnable::run)
+        .recordStats()
+        .build();
+  }
+
+  FilterFunction get(Long filterId, Function<Long, FilterFunction> loader) {
+    return entries.get(filterId, loader);
+  }
+
+  /**
+   * The cached filter, or {@code null} without loading it.
+   */
+  FilterFunction getIfPresent(Long filterId) {
+    return entries.getIfPresent(filterId);
+  }
+
+  public void invalidate(Long filterId) {
+    entries.invalidate(filterId);
+  }
+
+  public void invalidateAll() {
+    entries.invalidateAll();
+  }
+
+  public CacheStatisticsDTO getStatistics() {
+    entries.cleanUp();
+    CacheStats stats = entries.stats();
+    return CacheStatisticsDTO.builder()
+        .size((int) entries.estimatedSize())
+        .maxSize(maxSize)
+        .hits(stats.hitCount())
+        .misses(stats.missCount())
+        .evictions(stats.evictionCount())
+        .build();
+  }
+}
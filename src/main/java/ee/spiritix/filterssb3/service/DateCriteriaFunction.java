@@ -0,0 +1,26 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.DateConditionType;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Builder
+@Getter(AccessLevel.PACKAGE)
+class DateCriteriaFunction implements FilterCriteriaInterface {
+  private final DateConditionType conditionType;
+  private final LocalDate dateValue;
+
+  @Override
+  public boolean applyCriteria(FilterableObject object) {
+    return switch (conditionType) {
+      case IS -> object.getDate().isEqual(dateValue);
+      case IS_NOT -> !object.getDate().isEqual(dateValue);
+      case IS_AFTER -> object.getDate().isAfter(dateValue);
+      case IS_BEFORE -> object.getDate().isBefore(dateValue);
+    };
+  }
+}
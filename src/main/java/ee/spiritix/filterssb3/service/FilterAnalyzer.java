@@ -0,0 +1,433 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.AmountConditionType;
+import ee.spiritix.filterssb3.constant.DateConditionType;
+import ee.spiritix.filterssb3.constant.FilterAnalysisStatus;
+import ee.spiritix.filterssb3.constant.TextConditionType;
+import ee.spiritix.filterssb3.constant.TextMatchMode;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Normalises the criteria of one filter before it is compiled. The criteria of each type are combined: amount and date
+ * bounds are merged into one interval, kept as at most one lower and one upper bound, and criteria implied by the
+ * others are dropped. A filter whose criteria contradict each other is reported as
+ * {@link FilterAnalysisStatus#UNSATISFIABLE} and never evaluated.
+ *
+ * <p>Normalised criteria keep the position of the first criterion of their type, so the persisted order is kept
+ * between types. Every finding is reported as a sentence for the analysis endpoint.</p>
+ */
+final class FilterAnalyzer {
+
+  private FilterAnalyzer() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  record Analysis(FilterAnalysisStatus status, List<FilterCriteriaInterface> criteria, List<String> findings) {
+  }
+
+  static Analysis analyze(List<FilterCriteriaInterface> criteria) {
+    List<AmountCriteriaFunction> amounts = new ArrayList<>();
+    List<DateCriteriaFunction> dates = new ArrayList<>();
+    List<TextCriteriaFunction> texts = new ArrayList<>();
+    for (FilterCriteriaInterface criterion : criteria) {
+      if (criterion instanceof AmountCriteriaFunction amountFunction) {
+        amounts.add(amountFunction);
+      } else if (criterion instanceof DateCriteriaFunction dateFunction) {
+        dates.add(dateFunction);
+      } else if (criterion instanceof TextCriteriaFunction textFunction) {
+        texts.add(textFunction);
+      }
+    }
+
+    List<String> findings = new ArrayList<>();
+    List<FilterCriteriaInterface> normalizedAmounts = amounts.isEmpty() ? List.of() : amounts(amounts, findings);
+    List<FilterCriteriaInterface> normalizedDates = dates.isEmpty() ? List.of() : dates(dates, findings);
+    List<FilterCriteriaInterface> normalizedTexts = texts.isEmpty() ? List.of() : texts(texts, findings);
+    if (normalizedAmounts == null || normalizedDates == null || normalizedTexts == null) {
+      return new Analysis(FilterAnalysisStatus.UNSATISFIABLE, List.of(), findings);
+    }
+
+    List<FilterCriteriaInterface> normalized = new ArrayList<>();
+    boolean amountsAdded = false;
+    boolean datesAdded = false;
+    boolean textsAdded = false;
+    for (FilterCriteriaInterface criterion : criteria) {
+      if (criterion instanceof AmountCriteriaFunction) {
+        if (!amountsAdded) {
+          normalized.addAll(normalizedAmounts);
+          amountsAdded = true;
+        }
+      } else if (criterion instanceof DateCriteriaFunction) {
+        if (!datesAdded) {
+          normalized.addAll(normalizedDates);
+          datesAdded = true;
+        }
+      } else if (criterion instanceof TextCriteriaFunction) {
+        if (!textsAdded) {
+          normalized.addAll(normalizedTexts);
+          textsAdded = true;
+        }
+      } else {
+        normalized.add(criterion);
+      }
+    }
+    FilterAnalysisStatus status = normalized.isEmpty() ? FilterAnalysisStatus.ALWAYS_TRUE
+        : FilterAnalysisStatus.SATISFIABLE;
+    return new Analysis(status, List.copyOf(normalized), findings);
+  }
+
+  static String describe(FilterCriteriaInterface criterion) {
+    if (criterion instanceof AmountCriteriaFunction amountFunction) {
+      return "amount " + amountFunction.getConditionType().getValue() + " "
+          + amountFunction.getAmountValue().toPlainString();
+    } else if (criterion instanceof DateCriteriaFunction dateFunction) {
+      return "date " + dateFunction.getConditionType().getValue() + " " + dateFunction.getDateValue();
+    } else if (criterion instanceof TextCriteriaFunction textFunction) {
+      String text = "text " + textFunction.getConditionType().getValue() + " '" + textFunction.getTextValue() + "'";
+      return switch (textFunction.getMatchMode()) {
+        case EXACT -> text;
+        case IGNORE_CASE -> text + " ignoring case";
+        case IGNORE_CASE_AND_ACCENTS -> text + " ignoring case and accents";
+      };
+    }
+    return criterion.getClass().getSimpleName();
+  }
+
+  /**
+   * Amounts are compared as decimals, so any two different bounds leave values between them.
+   *
+   * @return the normalised criteria, or {@code null} when they cannot match
+   */
+  private static List<FilterCriteriaInterface> amounts(List<AmountCriteriaFunction> amounts, List<String> findings) {
+    BigDecimal lower = null;
+    BigDecimal upper = null;
+    BigDecimal equal = null;
+    // Ordered by compareTo, so 1.0 and 1.00 are the same value
+    TreeSet<BigDecimal> notEqual = new TreeSet<>();
+    for (AmountCriteriaFunction amount : amounts) {
+      BigDecimal value = amount.getAmountValue();
+      switch (amount.getConditionType()) {
+        case GREATER_THAN -> lower = lower == null || value.compareTo(lower) > 0 ? value : lower;
+        case LESS_THAN -> upper = upper == null || value.compareTo(upper) < 0 ? value : upper;
+        case EQUALS -> {
+          if (equal != null && equal.compareTo(value) != 0) {
+            findings.add("amount cannot equal both " + equal.toPlainString() + " and " + value.toPlainString());
+            return null;
+          }
+          equal = value;
+        }
+        case NOT_EQUALS -> notEqual.add(value);
+      }
+    }
+
+    if (equal != null) {
+      String contradiction = null;
+      if (lower != null && equal.compareTo(lower) <= 0) {
+        contradiction = "greater than " + lower.toPlainString();
+      } else if (upper != null && equal.compareTo(upper) >= 0) {
+        contradiction = "less than " + upper.toPlainString();
+      } else if (notEqual.contains(equal)) {
+        contradiction = "not equal to " + equal.toPlainString();
+      }
+      if (contradiction != null) {
+        findings.add("amount cannot equal " + equal.toPlainString() + " and be " + contradiction);
+        return null;
+      }
+      if (amounts.size() > 1) {
+        findings.add("amount equals " + equal.toPlainString() + " makes the other amount criteria redundant");
+      }
+      return List.of(amount(AmountConditionType.EQUALS, equal));
+    }
+
+    if (lower != null && upper != null && lower.compareTo(upper) >= 0) {
+      findings.add("amount cannot be greater than " + lower.toPlainString() + " and less than "
+          + upper.toPlainString());
+      return null;
+    }
+    List<FilterCriteriaInterface> normalized = new ArrayList<>();
+    if (lower != null) {
+      normalized.add(amount(AmountConditionType.GREATER_THAN, lower));
+    }
+    if (upper != null) {
+      normalized.add(amount(AmountConditionType.LESS_THAN, upper));
+    }
+    for (BigDecimal value : notEqual) {
+      // Values outside the interval are excluded by the bounds already
+      if ((lower == null || value.compareTo(lower) > 0) && (upper == null || value.compareTo(upper) < 0)) {
+        normalized.add(amount(AmountConditionType.NOT_EQUALS, value));
+      }
+    }
+    if (normalized.size() < amounts.size()) {
+      findings.add("merged " + amounts.size() + " amount criteria into " + normalized.size());
+    }
+    return normalized;
+  }
+
+  /**
+   * Dates are whole days, so the bounds are compared as epoch days: after A and before B leaves {@code B - A - 1}
+   * days.
+   *
+   * @return the normalised criteria, or {@code null} when they cannot match
+   */
+  private static List<FilterCriteriaInterface> dates(List<DateCriteriaFunction> dates, List<String> findings) {
+    Long after = null;
+    Long before = null;
+    Long is = null;
+    TreeSet<Long> isNot = new TreeSet<>();
+    for (DateCriteriaFunction date : dates) {
+      long day = date.getDateValue().toEpochDay();
+      switch (date.getConditionType()) {
+        case IS_AFTER -> after = after == null ? day : Math.max(after, day);
+        case IS_BEFORE -> before = before == null ? day : Math.min(before, day);
+        case IS -> {
+          if (is != null && is != day) {
+            findings.add("date cannot be both " + LocalDate.ofEpochDay(is) + " and " + LocalDate.ofEpochDay(day));
+            return null;
+          }
+          is = day;
+        }
+        case IS_NOT -> isNot.add(day);
+      }
+    }
+
+    if (is == null && after != null && before != null && before - after == 2) {
+      is = after + 1;
+      findings.add("date after " + LocalDate.ofEpochDay(after) + " and before " + LocalDate.ofEpochDay(before)
+          + " can only be " + LocalDate.ofEpochDay(is));
+    }
+    if (is != null) {
+      if ((after != null && is <= after) || (before != null && is >= before) || isNot.contains(is)) {
+        findings.add("date " + LocalDate.ofEpochDay(is) + " contradicts the other date criteria");
+        return null;
+      }
+      if (dates.size() > 1) {
+        findings.add("date is " + LocalDate.ofEpochDay(is) + " makes the other date criteria redundant");
+      }
+      return List.of(date(DateConditionType.IS, is));
+    }
+
+    if (after != null && before != null) {
+      long days = before - after - 1;
+      if (days <= 0 || isNot.subSet(after, false, before, false).size() == days) {
+        findings.add("no date is after " + LocalDate.ofEpochDay(after) + " and before " + LocalDate.ofEpochDay(before)
+            + (days > 0 ? " without being excluded" : ""));
+        return null;
+      }
+    }
+    List<FilterCriteriaInterface> normalized = new ArrayList<>();
+    if (after != null) {
+      normalized.add(date(DateConditionType.IS_AFTER, after));
+    }
+    if (before != null) {
+      normalized.add(date(DateConditionType.IS_BEFORE, before));
+    }
+    for (long day : isNot) {
+      if ((after == null || day > after) && (before == null || day < before)) {
+        normalized.add(date(DateConditionType.IS_NOT, day));
+      }
+    }
+    if (normalized.size() < dates.size()) {
+      findings.add("merged " + dates.size() + " date criteria into " + normalized.size());
+    }
+    return normalized;
+  }
+
+  /**
+   * Criteria are normalised per match mode, on their folded values: a title containing {@code "apple pie"} also
+   * contains {@code "apple"}, and ignoring case it also contains {@code "APPLE"}. Criteria of different modes are
+   * only related through an exact equals, which fixes the title.
+   *
+   * @return the normalised criteria, or {@code null} when they cannot match
+   */
+  private static List<FilterCriteriaInterface> texts(List<TextCriteriaFunction> texts, List<String> findings) {
+    Map<TextMatchMode, List<TextCriteriaFunction>> byMode = new EnumMap<>(TextMatchMode.class);
+    texts.forEach(text -> byMode.computeIfAbsent(text.getMatchMode(), mode -> new ArrayList<>()).add(text));
+    List<TextCriteriaFunction> normalized = new ArrayList<>();
+    for (List<TextCriteriaFunction> sameMode : byMode.values()) {
+      List<TextCriteriaFunction> normalizedMode = textsOfMode(sameMode, findings);
+      if (normalizedMode == null) {
+        return null;
+      }
+      normalized.addAll(normalizedMode);
+    }
+
+    TextCriteriaFunction first = normalized.isEmpty() ? null : normalized.get(0);
+    if (byMode.size() > 1 && first != null && first.getMatchMode() == TextMatchMode.EXACT
+        && first.getConditionType() == TextConditionType.EQUALS) {
+      FilterableObject title = new FilterableObject(null, first.getTextValue(), null, null);
+      for (TextCriteriaFunction text : normalized) {
+        if (!text.applyCriteria(title)) {
+          findings.add(describe(first) + " contradicts " + describe(text));
+          return null;
+        }
+      }
+      findings.add(describe(first) + " makes the other text criteria redundant");
+      return List.of(first);
+    }
+    return List.<FilterCriteriaInterface>copyOf(normalized);
+  }
+
+  /**
+   * Of several prefixes only the longest is kept, and it must start with all the others; suffixes likewise. Regular
+   * expressions are only deduplicated, and are checked against an equals whose title they see unchanged.
+   */
+  private static List<TextCriteriaFunction> textsOfMode(List<TextCriteriaFunction> texts, List<String> findings) {
+    TextCriteriaFunction equal = null;
+    TextCriteriaFunction prefix = null;
+    TextCriteriaFunction suffix = null;
+    Map<String, TextCriteriaFunction> contains = new LinkedHashMap<>();
+    Map<String, TextCriteriaFunction> notContains = new LinkedHashMap<>();
+    Map<String, TextCriteriaFunction> notEqual = new LinkedHashMap<>();
+    Map<String, TextCriteriaFunction> matches = new LinkedHashMap<>();
+    for (TextCriteriaFunction text : texts) {
+      String value = text.getFoldedValue();
+      switch (text.getConditionType()) {
+        case EQUALS -> {
+          if (equal != null && !equal.getFoldedValue().equals(value)) {
+            findings.add("text cannot equal both '" + equal.getTextValue() + "' and '" + text.getTextValue() + "'");
+            return null;
+          }
+          equal = equal == null ? text : equal;
+        }
+        case CONTAINS -> contains.putIfAbsent(value, text);
+        case NOT_CONTAINS -> notContains.putIfAbsent(value, text);
+        case NOT_EQUALS -> notEqual.putIfAbsent(value, text);
+        case STARTS_WITH -> {
+          String kept = prefix == null ? "" : prefix.getFoldedValue();
+          if (!value.startsWith(kept) && !kept.startsWith(value)) {
+            findings.add("text cannot start with both '" + prefix.getTextValue() + "' and '" + text.getTextValue()
+                + "'");
+            return null;
+          }
+          prefix = prefix == null || value.length() > kept.length() ? text : prefix;
+        }
+        case ENDS_WITH -> {
+          String kept = suffix == null ? "" : suffix.getFoldedValue();
+          if (!value.endsWith(kept) && !kept.endsWith(value)) {
+            findings.add("text cannot end with both '" + suffix.getTextValue() + "' and '" + text.getTextValue()
+                + "'");
+            return null;
+          }
+          suffix = suffix == null || value.length() > kept.length() ? text : suffix;
+        }
+        case MATCHES -> matches.putIfAbsent(value, text);
+      }
+    }
+
+    if (equal != null) {
+      String equalValue = equal.getFoldedValue();
+      List<TextCriteriaFunction> normalized = new ArrayList<>(List.of(equal));
+      for (TextCriteriaFunction text : texts) {
+        if (text.getConditionType() == TextConditionType.MATCHES && text.getMatchMode() == TextMatchMode.IGNORE_CASE) {
+          // Ignoring case the title may be in any case, which a pattern can tell apart, so it is kept
+          normalized.add(text);
+          continue;
+        }
+        String value = text.getFoldedValue();
+        boolean holds = switch (text.getConditionType()) {
+          case EQUALS -> equalValue.equals(value);
+          case CONTAINS -> equalValue.contains(value);
+          case NOT_CONTAINS -> !equalValue.contains(value);
+          case NOT_EQUALS -> !equalValue.equals(value);
+          case STARTS_WITH -> equalValue.startsWith(value);
+          case ENDS_WITH -> equalValue.endsWith(value);
+          case MATCHES -> TextMatching.find(text.getPattern(), equalValue);
+        };
+        if (!holds) {
+          findings.add("text equals '" + equal.getTextValue() + "' contradicts " + describe(text));
+          return null;
+        }
+      }
+      if (texts.size() > normalized.size()) {
+        findings.add("text equals '" + equal.getTextValue() + "' makes the other text criteria redundant");
+      }
+      return normalized;
+    }
+
+    String prefixValue = prefix == null ? "" : prefix.getFoldedValue();
+    String suffixValue = suffix == null ? "" : suffix.getFoldedValue();
+    for (Map.Entry<String, TextCriteriaFunction> excluded : notContains.entrySet()) {
+      for (Map.Entry<String, TextCriteriaFunction> required : contains.entrySet()) {
+        // Also catches the empty value, which every title contains
+        if (required.getKey().contains(excluded.getKey())) {
+          findings.add("text containing '" + required.getValue().getTextValue() + "' always contains '"
+              + excluded.getValue().getTextValue() + "'");
+          return null;
+        }
+      }
+      for (TextCriteriaFunction affix : new TextCriteriaFunction[]{prefix, suffix}) {
+        if (affix != null && affix.getFoldedValue().contains(excluded.getKey())) {
+          findings.add(describe(affix) + " always contains '" + excluded.getValue().getTextValue() + "'");
+          return null;
+        }
+      }
+      if (excluded.getKey().isEmpty()) {
+        findings.add("every text contains ''");
+        return null;
+      }
+    }
+    if (contains.remove("") != null) {
+      findings.add("text contains '' is always true");
+    }
+    if (prefix != null && prefixValue.isEmpty()) {
+      findings.add("text starts_with '' is always true");
+      prefix = null;
+    }
+    if (suffix != null && suffixValue.isEmpty()) {
+      findings.add("text ends_with '' is always true");
+      suffix = null;
+    }
+    Set<String> containsValues = contains.keySet();
+    Set<String> notContainsValues = notContains.keySet();
+    List<String> keptContains = containsValues.stream()
+        .filter(value -> containsValues.stream().noneMatch(other -> !other.equals(value) && other.contains(value)))
+        .filter(value -> !prefixValue.contains(value) && !suffixValue.contains(value))
+        .toList();
+    List<String> keptNotContains = notContainsValues.stream()
+        .filter(value -> notContainsValues.stream().noneMatch(other -> !other.equals(value) && value.contains(other)))
+        .toList();
+    List<String> keptNotEqual = notEqual.keySet().stream()
+        .filter(value -> keptContains.stream().allMatch(value::contains)
+            && keptNotContains.stream().noneMatch(value::contains)
+            && value.startsWith(prefixValue) && value.endsWith(suffixValue))
+        .toList();
+
+    // Regular expressions go last, so the cheaper criteria reject most titles before them
+    List<TextCriteriaFunction> normalized = new ArrayList<>();
+    keptContains.forEach(value -> normalized.add(contains.get(value)));
+    if (prefix != null) {
+      normalized.add(prefix);
+    }
+    if (suffix != null) {
+      normalized.add(suffix);
+    }
+    keptNotContains.forEach(value -> normalized.add(notContains.get(value)));
+    keptNotEqual.forEach(value -> normalized.add(notEqual.get(value)));
+    normalized.addAll(matches.values());
+    if (normalized.size() < texts.size()) {
+      findings.add("merged " + texts.size() + " text criteria into " + normalized.size());
+    }
+    return normalized;
+  }
+
+  private static AmountCriteriaFunction amount(AmountConditionType conditionType, BigDecimal value) {
+    return AmountCriteriaFunction.builder().conditionType(conditionType).amountValue(value).build();
+  }
+
+  private static DateCriteriaFunction date(DateConditionType conditionType, long epochDay) {
+    return DateCriteriaFunction.builder()
+        .conditionType(conditionType)
+        .dateValue(LocalDate.ofEpochDay(epochDay))
+        .build();
+  }
+}
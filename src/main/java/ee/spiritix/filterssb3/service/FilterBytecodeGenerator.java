@@ -0,0 +1,250 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.AmountConditionType;
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.constant.TextConditionType;
+import ee.spiritix.filterssb3.constant.TextMatchMode;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.chrono.ChronoLocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Turns the criteria of a {@link FilterFunction} into a hidden class whose {@code test} method checks the selection
+ * and every criterion in straight-line code. Criterion values are passed in as class data and read into static final
+ * fields, so the JIT sees them as constants. Criteria without a dedicated code shape are invoked through
+ * {@link FilterCriteriaInterface} from the generated code, which keeps the result identical to the interpreted path.
+ */
+final class FilterBytecodeGenerator implements Opcodes {
+
+  private static final String CLASS_NAME =
+      FilterBytecodeGenerator.class.getPackageName().replace('.', '/') + "/GeneratedFilterPredicate";
+  private static final String OBJECT = Type.getInternalName(FilterableObject.class);
+  private static final String BIG_DECIMAL = Type.getInternalName(BigDecimal.class);
+  private static final String LOCAL_DATE = Type.getInternalName(LocalDate.class);
+  private static final String STRING = Type.getInternalName(String.class);
+  private static final String CRITERIA = Type.getInternalName(FilterCriteriaInterface.class);
+  private static final String TEXT_MATCHING = Type.getInternalName(TextMatching.class);
+  private static final String SELECTION = Type.getInternalName(SelectionType.class);
+  private static final String CHRONO_DATE_DESCRIPTOR = Type.getDescriptor(ChronoLocalDate.class);
+
+  private FilterBytecodeGenerator() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  @SuppressWarnings("unchecked")
+  static Predicate<FilterableObject> generate(SelectionType selection, List<FilterCriteriaInterface> criteria) {
+    List<Constant> constants = new ArrayList<>();
+    ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
+      @Override
+      protected String getCommonSuperClass(String type1, String type2) {
+        // Frames only merge where the stack is empty and every local holds the same type on all paths
+        return "java/lang/Object";
+      }
+    };
+    classWriter.visit(V17, ACC_FINAL | ACC_SUPER, CLASS_NAME, null, "java/lang/Object",
+        new String[]{Type.getInternalName(Predicate.class)});
+
+    MethodVisitor test = classWriter.visitMethod(ACC_PUBLIC, "test", "(Ljava/lang/Object;)Z", null, null);
+    test.visitCode();
+    Label fail = new Label();
+    test.visitVarInsn(ALOAD, 1);
+    test.visitTypeInsn(CHECKCAST, OBJECT);
+    test.visitVarInsn(ASTORE, 2);
+
+    test.visitVarInsn(ALOAD, 2);
+    test.visitMethodInsn(INVOKEVIRTUAL, OBJECT, "getSelection", "()L" + SELECTION + ";", false);
+    loadConstant(test, constants, selection, SELECTION);
+    test.visitJumpInsn(IF_ACMPNE, fail);
+
+    for (FilterCriteriaInterface criterion : criteria) {
+      if (criterion instanceof AmountCriteriaFunction amountFunction) {
+        emitAmountCriteria(test, constants, amountFunction, fail);
+      } else if (criterion instanceof DateCriteriaFunction dateFunction) {
+        emitDateCriteria(test, constants, dateFunction, fail);
+      } else if (criterion instanceof TextCriteriaFunction textFunction) {
+        emitTextCriteria(test, constants, textFunction, fail);
+      } else {
+        emitDelegate(test, constants, criterion, fail);
+      }
+    }
+
+    test.visitInsn(ICONST_1);
+    test.visitInsn(IRETURN);
+    test.visitLabel(fail);
+    test.visitInsn(ICONST_0);
+    test.visitInsn(IRETURN);
+    test.visitMaxs(0, 0);
+    test.visitEnd();
+
+    emitConstantFields(classWriter, constants);
+    emitConstructor(classWriter);
+    classWriter.visitEnd();
+
+    try {
+      Object[] classData = constants.stream().map(Constant::value).toArray();
+      MethodHandles.Lookup lookup = MethodHandles.lookup()
+          .defineHiddenClassWithClassData(classWriter.toByteArray(), classData, true);
+      return (Predicate<FilterableObject>) lookup
+          .findConstructor(lookup.lookupClass(), MethodType.methodType(void.class))
+          .invoke();
+    } catch (Throwable e) {
+      throw new IllegalStateException("Could not generate filter predicate", e);
+    }
+  }
+
+  private static void emitAmountCriteria(MethodVisitor test, List<Constant> constants,
+                                         AmountCriteriaFunction function, Label fail) {
+    test.visitVarInsn(ALOAD, 2);
+    test.visitMethodInsn(INVOKEVIRTUAL, OBJECT, "getAmount", "()L" + BIG_DECIMAL + ";", false);
+    loadConstant(test, constants, function.getAmountValue(), BIG_DECIMAL);
+    test.visitMethodInsn(INVOKEVIRTUAL, BIG_DECIMAL, "compareTo", "(L" + BIG_DECIMAL + ";)I", false);
+    test.visitJumpInsn(failWhen(function.getConditionType()), fail);
+  }
+
+  private static int failWhen(AmountConditionType conditionType) {
+    return switch (conditionType) {
+      case GREATER_THAN -> IFLE;
+      case LESS_THAN -> IFGE;
+      case EQUALS -> IFNE;
+      case NOT_EQUALS -> IFEQ;
+    };
+  }
+
+  private static void emitDateCriteria(MethodVisitor test, List<Constant> constants,
+                                       DateCriteriaFunction function, Label fail) {
+    test.visitVarInsn(ALOAD, 2);
+    test.visitMethodInsn(INVOKEVIRTUAL, OBJECT, "getDate", "()L" + LOCAL_DATE + ";", false);
+    loadConstant(test, constants, function.getDateValue(), LOCAL_DATE);
+    String method = switch (function.getConditionType()) {
+      case IS, IS_NOT -> "isEqual";
+      case IS_AFTER -> "isAfter";
+      case IS_BEFORE -> "isBefore";
+    };
+    test.visitMethodInsn(INVOKEVIRTUAL, LOCAL_DATE, method, "(" + CHRONO_DATE_DESCRIPTOR + ")Z", false);
+    test.visitJumpInsn(switch (function.getConditionType()) {
+      case IS_NOT -> IFNE;
+      case IS, IS_AFTER, IS_BEFORE -> IFEQ;
+    }, fail);
+  }
+
+  private static void emitTextCriteria(MethodVisitor test, List<Constant> constants,
+                                       TextCriteriaFunction function, Label fail) {
+    if (function.getConditionType() == TextConditionType.MATCHES) {
+      // The compiled pattern and its step limit stay in the criterion
+      emitDelegate(test, constants, function, fail);
+      return;
+    }
+    TextMatchMode matchMode = function.getMatchMode();
+    boolean ignoreCase = matchMode == TextMatchMode.IGNORE_CASE;
+    test.visitVarInsn(ALOAD, 2);
+    test.visitMethodInsn(INVOKEVIRTUAL, OBJECT, "getTitle", "()L" + STRING + ";", false);
+    if (matchMode == TextMatchMode.IGNORE_CASE_AND_ACCENTS) {
+      test.visitMethodInsn(INVOKESTATIC, TEXT_MATCHING, "foldTitle", "(L" + STRING + ";)L" + STRING + ";", false);
+    }
+    loadConstant(test, constants, function.getFoldedValue(), STRING);
+    switch (function.getConditionType()) {
+      case EQUALS, NOT_EQUALS -> {
+        if (ignoreCase) {
+          test.visitMethodInsn(INVOKEVIRTUAL, STRING, "equalsIgnoreCase", "(L" + STRING + ";)Z", false);
+        } else {
+          test.visitMethodInsn(INVOKEVIRTUAL, STRING, "equals", "(Ljava/lang/Object;)Z", false);
+        }
+      }
+      case CONTAINS, NOT_CONTAINS -> {
+        if (ignoreCase) {
+          emitTextMatching(test, "containsIgnoreCase");
+        } else {
+          test.visitMethodInsn(INVOKEVIRTUAL, STRING, "contains", "(Ljava/lang/CharSequence;)Z", false);
+        }
+      }
+      case STARTS_WITH -> {
+        if (ignoreCase) {
+          emitTextMatching(test, "startsWithIgnoreCase");
+        } else {
+          test.visitMethodInsn(INVOKEVIRTUAL, STRING, "startsWith", "(L" + STRING + ";)Z", false);
+        }
+      }
+      case ENDS_WITH -> {
+        if (ignoreCase) {
+          emitTextMatching(test, "endsWithIgnoreCase");
+        } else {
+          test.visitMethodInsn(INVOKEVIRTUAL, STRING, "endsWith", "(L" + STRING + ";)Z", false);
+        }
+      }
+      case MATCHES -> throw new IllegalStateException("Regular expressions are delegated");
+    }
+    test.visitJumpInsn(function.isNegated() ? IFNE : IFEQ, fail);
+  }
+
+  private static void emitTextMatching(MethodVisitor test, String method) {
+    test.visitMethodInsn(INVOKESTATIC, TEXT_MATCHING, method, "(L" + STRING + ";L" + STRING + ";)Z", false);
+  }
+
+  private static void emitDelegate(MethodVisitor test, List<Constant> constants,
+                                   FilterCriteriaInterface criterion, Label fail) {
+    loadConstant(test, constants, criterion, CRITERIA);
+    test.visitVarInsn(ALOAD, 2);
+    test.visitMethodInsn(INVOKEINTERFACE, CRITERIA, "applyCriteria", "(L" + OBJECT + ";)Z", true);
+    test.visitJumpInsn(IFEQ, fail);
+  }
+
+  private static void loadConstant(MethodVisitor test, List<Constant> constants, Object value, String type) {
+    constants.add(new Constant(value, type));
+    test.visitFieldInsn(GETSTATIC, CLASS_NAME, fieldName(constants.size() - 1), "L" + type + ";");
+  }
+
+  private static void emitConstantFields(ClassWriter classWriter, List<Constant> constants) {
+    MethodVisitor init = classWriter.visitMethod(ACC_STATIC, "<clinit>", "()V", null, null);
+    init.visitCode();
+    init.visitMethodInsn(INVOKESTATIC, "java/lang/invoke/MethodHandles", "lookup",
+        "()Ljava/lang/invoke/MethodHandles$Lookup;", false);
+    init.visitLdcInsn("_");
+    init.visitLdcInsn(Type.getType(Object[].class));
+    init.visitMethodInsn(INVOKESTATIC, "java/lang/invoke/MethodHandles", "classData",
+        "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;)Ljava/lang/Object;", false);
+    init.visitTypeInsn(CHECKCAST, "[Ljava/lang/Object;");
+    init.visitVarInsn(ASTORE, 0);
+    for (int i = 0; i < constants.size(); i++) {
+      Constant constant = constants.get(i);
+      String descriptor = "L" + constant.type() + ";";
+      classWriter.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, fieldName(i), descriptor, null, null).visitEnd();
+      init.visitVarInsn(ALOAD, 0);
+      init.visitLdcInsn(i);
+      init.visitInsn(AALOAD);
+      init.visitTypeInsn(CHECKCAST, constant.type());
+      init.visitFieldInsn(PUTSTATIC, CLASS_NAME, fieldName(i), descriptor);
+    }
+    init.visitInsn(RETURN);
+    init.visitMaxs(0, 0);
+    init.visitEnd();
+  }
+
+  private static void emitConstructor(ClassWriter classWriter) {
+    MethodVisitor constructor = classWriter.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+    constructor.visitCode();
+    constructor.visitVarInsn(ALOAD, 0);
+    constructor.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+    constructor.visitInsn(RETURN);
+    constructor.visitMaxs(0, 0);
+    constructor.visitEnd();
+  }
+
+  private static String fieldName(int index) {
+    return "c" + index;
+  }
+
+  private record Constant(Object value, String type) {
+  }
+}
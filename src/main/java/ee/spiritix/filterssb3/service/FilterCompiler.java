@@ -0,0 +1,166 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.EvaluationMode;
+import ee.spiritix.filterssb3.constant.FilterAnalysisStatus;
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.constant.TextConditionType;
+import ee.spiritix.filterssb3.constant.TextMatchMode;
+import ee.spiritix.filterssb3.entity.AmountCriteria;
+import ee.spiritix.filterssb3.entity.DateCriteria;
+import ee.spiritix.filterssb3.entity.Filter;
+import ee.spiritix.filterssb3.entity.FilterCriteria;
+import ee.spiritix.filterssb3.entity.TextCriteria;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Builds the {@link FilterFunction} for a stored {@link Filter} directly from the typed criteria entities. The criteria
+ * are first normalised by {@link FilterAnalyzer}. In {@link EvaluationMode#COMPILED} mode they are additionally turned
+ * into a generated predicate by {@link FilterBytecodeGenerator}; the interpreted criteria list is always kept so the
+ * generated code can be switched off without reloading filters.
+ *
+ * <p>With adaptive ordering enabled, which it is not by default, the criteria are wrapped in an
+ * {@link AdaptiveCriteriaOrder}, which samples their pass rates and cost and reorders them, regenerating the predicate
+ * in compiled mode.</p>
+ */
+@Slf4j
+@Component
+public class FilterCompiler {
+
+  private final EvaluationMode evaluationMode;
+  private final boolean adaptiveOrdering;
+  private final int sampleRate;
+  private final int reorderInterval;
+  private final double reorderMargin;
+  private final int maxReorders;
+
+  public FilterCompiler(@Value("${filters.evaluation.mode:INTERPRETED}") EvaluationMode evaluationMode,
+                        @Value("${filters.evaluation.adaptive.enabled:false}") boolean adaptiveOrdering,
+                        @Value("${filters.evaluation.adaptive.sample-rate:64}") int sampleRate,
+                        @Value("${filters.evaluation.adaptive.reorder-interval:1024}") int reorderInterval,
+                        @Value("${filters.evaluation.adaptive.reorder-margin:0.1}") double reorderMargin,
+                        @Value("${filters.evaluation.adaptive.max-reorders:8}") int maxReorders) {
+    this.evaluationMode = evaluationMode;
+    this.adaptiveOrdering = adaptiveOrdering;
+    this.sampleRate = sampleRate;
+    this.reorderInterval = reorderInterval;
+    this.reorderMargin = reorderMargin;
+    this.maxReorders = maxReorders;
+  }
+
+  FilterFunction compile(Filter entity) {
+    FilterAnalyzer.Analysis analysis = analyze(entity);
+    List<FilterCriteriaInterface> criteria = analysis.criteria();
+
+    FilterFunction.FilterFunctionBuilder builder = interpreted(entity, analysis);
+    if (analysis.status() == FilterAnalysisStatus.UNSATISFIABLE) {
+      log.debug("Filter {} can never match: {}", entity.getId(), analysis.findings());
+      return builder.build();
+    }
+    if (adaptiveOrdering && criteria.size() > 1) {
+      // The adaptive order generates its own predicate for every order it picks, one here would never be used
+      builder.adaptiveOrder(new AdaptiveCriteriaOrder(entity.getSelection(), criteria, sampleRate, reorderInterval,
+          reorderMargin, maxReorders, evaluationMode == EvaluationMode.COMPILED));
+    } else if (evaluationMode == EvaluationMode.COMPILED) {
+      builder.generatedPredicate(FilterBytecodeGenerator.generate(entity.getSelection(), criteria));
+      log.debug("Generated predicate for filter {} with {} criteria", entity.getId(), criteria.size());
+    }
+    return builder.build();
+  }
+
+  /**
+   * Normalises the criteria like {@link #compile} without generating code or ordering them adaptively, for callers
+   * that only read the criteria, such as the {@link FilterIndex}.
+   */
+  FilterFunction compileInterpreted(Filter entity) {
+    return interpreted(entity, analyze(entity)).build();
+  }
+
+  /**
+   * Generated predicate for criteria an index leaves to be checked per filter, or {@code null} when they are better
+   * walked directly: in interpreted mode and when there are none.
+   */
+  Predicate<FilterableObject> compileResidual(SelectionType selection, List<FilterCriteriaInterface> criteria) {
+    if (evaluationMode != EvaluationMode.COMPILED || criteria.isEmpty()) {
+      return null;
+    }
+    return FilterBytecodeGenerator.generate(selection, criteria);
+  }
+
+  private FilterAnalyzer.Analysis analyze(Filter entity) {
+    return FilterAnalyzer.analyze(entity.getFilterCriteria().stream()
+        .map(this::mapCriteriaToFunction)
+        .toList());
+  }
+
+  private static FilterFunction.FilterFunctionBuilder interpreted(Filter entity, FilterAnalyzer.Analysis analysis) {
+    return FilterFunction.builder()
+        .selection(entity.getSelection())
+        .filterCriteria(analysis.criteria())
+        .analysis(analysis);
+  }
+
+  /**
+   * Rejects criteria that could not be evaluated, so a bad filter fails when it is saved rather than while it is
+   * applied. Regular expressions are compiled here as well, see {@link TextMatching#compile}.
+   */
+  public void validate(Filter entity) {
+    for (FilterCriteria criteria : entity.getFilterCriteria()) {
+      boolean complete;
+      if (criteria instanceof AmountCriteria amountEntity) {
+        complete = amountEntity.getConditionType() != null && amountEntity.getAmountValue() != null;
+      } else if (criteria instanceof DateCriteria dateEntity) {
+        complete = dateEntity.getConditionType() != null && dateEntity.getDateValue() != null;
+      } else if (criteria instanceof TextCriteria textEntity) {
+        complete = textEntity.getConditionType() != null && textEntity.getTextValue() != null;
+        if (complete && textEntity.getConditionType() == TextConditionType.MATCHES) {
+          validatePattern(textEntity);
+        }
+      } else {
+        throw new IllegalArgumentException("Unknown FilterCriteria type: " + criteria.getClass().getName());
+      }
+      if (!complete) {
+        throw new IllegalArgumentException(
+            "Criteria of type " + criteria.getClass().getSimpleName() + " must have a condition type and a value");
+      }
+    }
+  }
+
+  private static void validatePattern(TextCriteria textEntity) {
+    try {
+      TextMatching.compile(textEntity.getTextValue(),
+          Objects.requireNonNullElse(textEntity.getMatchMode(), TextMatchMode.EXACT));
+    } catch (PatternSyntaxException e) {
+      throw new IllegalArgumentException("Invalid regular expression '" + textEntity.getTextValue() + "': "
+          + e.getDescription());
+    }
+  }
+
+  private FilterCriteriaInterface mapCriteriaToFunction(FilterCriteria entity) {
+    if (entity instanceof AmountCriteria amountEntity) {
+      return AmountCriteriaFunction.builder()
+          .conditionType(amountEntity.getConditionType())
+          .amountValue(amountEntity.getAmountValue())
+          .build();
+    } else if (entity instanceof DateCriteria dateEntity) {
+      return DateCriteriaFunction.builder()
+          .conditionType(dateEntity.getConditionType())
+          .dateValue(dateEntity.getDateValue())
+          .build();
+    } else if (entity instanceof TextCriteria textEntity) {
+      return TextCriteriaFunction.builder()
+          .conditionType(textEntity.getConditionType())
+          .textValue(textEntity.getTextValue())
+          .matchMode(textEntity.getMatchMode())
+          .build();
+    }
+    throw new IllegalArgumentException("Unknown FilterCriteria type: " + entity.getClass().getName());
+  }
+}
@@ -0,0 +1,7 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+
+interface FilterCriteriaInterface {
+  boolean applyCriteria(FilterableObject object);
+}
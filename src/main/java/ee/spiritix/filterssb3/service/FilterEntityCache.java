@@ -0,0 +1,58 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.dto.CacheRegionStatisticsDTO;
+import ee.spiritix.filterssb3.dto.EntityCacheStatisticsDTO;
+import ee.spiritix.filterssb3.entity.Filter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Access to the Hibernate second-level cache holding {@link Filter}s, their criteria collections and the criteria.
+ * Hibernate keeps the cache current for changes made through the entities; {@link #evict(Long)} additionally drops a
+ * saved filter, so a filter written by a path that bypasses its collection is not served stale.
+ */
+@Component
+public class FilterEntityCache {
+
+  private static final String CRITERIA_COLLECTION = Filter.class.getName() + ".filterCriteria";
+
+  private final SessionFactory sessionFactory;
+
+  public FilterEntityCache(EntityManagerFactory entityManagerFactory) {
+    this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+  }
+
+  public void evict(Long filterId) {
+    sessionFactory.getCache().evictEntityData(Filter.class, filterId);
+    sessionFactory.getCache().evictCollectionData(CRITERIA_COLLECTION, filterId);
+  }
+
+  public EntityCacheStatisticsDTO getStatistics() {
+    Statistics statistics = sessionFactory.getStatistics();
+    List<CacheRegionStatisticsDTO> regions = Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+        .sorted()
+        .map(region -> {
+          CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+          return CacheRegionStatisticsDTO.builder()
+              .region(region)
+              .hits(regionStatistics.getHitCount())
+              .misses(regionStatistics.getMissCount())
+              .puts(regionStatistics.getPutCount())
+              .build();
+        })
+        .toList();
+    return EntityCacheStatisticsDTO.builder()
+        .hits(statistics.getSecondLevelCacheHitCount())
+        .misses(statistics.getSecondLevelCacheMissCount())
+        .puts(statistics.getSecondLevelCachePutCount())
+        .statements(statistics.getPrepareStatementCount())
+        .regions(regions)
+        .build();
+  }
+}
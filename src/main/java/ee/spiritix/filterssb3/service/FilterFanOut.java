@@ -0,0 +1,106 @@
+package ee.spiritix.filterssb3.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Applies a blocking task to every item of a list concurrently on the fan-out executor and returns the results in
+ * input order. At most {@code maxConcurrency} tasks run at once across all callers, so a fan-out cannot take more
+ * connections than the pool has. Each task runs in its own read-only transaction, so lazy associations can be loaded
+ * on the fan-out thread. Lists of one item run on the calling thread.
+ *
+ * <p>The caller takes a permit before it submits a task, so tasks waiting for a permit wait on the calling thread and
+ * do not hold an executor thread or queue slot.</p>
+ */
+@Component
+public class FilterFanOut {
+
+  private final ExecutorService executor;
+  private final TransactionTemplate transactionTemplate;
+  private final Semaphore permits;
+
+  public FilterFanOut(@Qualifier("filterFanOutExecutor") ExecutorService executor,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${filters.fan-out.max-concurrency:10}") int maxConcurrency) {
+    if (maxConcurrency <= 0) {
+      throw new IllegalArgumentException("Fan-out concurrency must be positive");
+    }
+    this.executor = executor;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.permits = new Semaphore(maxConcurrency);
+  }
+
+  <T, R> List<R> map(List<T> items, Function<T, R> task) {
+    if (items.size() <= 1) {
+      return items.stream().map(task).toList();
+    }
+    List<Submitted<R>> submitted = new ArrayList<>(items.size());
+    List<R> results = new ArrayList<>(items.size());
+    try {
+      for (T item : items) {
+        permits.acquire();
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<R> future;
+        try {
+          future = executor.submit(() -> run(claimed, item, task));
+        } catch (RejectedExecutionException e) {
+          permits.release();
+          throw e;
+        }
+        submitted.add(new Submitted<>(future, claimed));
+      }
+      for (Submitted<R> submittedTask : submitted) {
+        results.add(submittedTask.future().get());
+      }
+      return results;
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Fan-out task failed", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for fan-out tasks", e);
+    } finally {
+      // Tasks that have not finished are no longer needed once one failed
+      for (Submitted<R> submittedTask : submitted) {
+        if (submittedTask.claimed().compareAndSet(false, true)) {
+          // Never started, so its permit is returned here
+          permits.release();
+        }
+        submittedTask.future().cancel(true);
+      }
+    }
+  }
+
+  private <T, R> R run(AtomicBoolean claimed, T item, Function<T, R> task) {
+    if (!claimed.compareAndSet(false, true)) {
+      return null;
+    }
+    try {
+      return transactionTemplate.execute(status -> task.apply(item));
+    } finally {
+      permits.release();
+    }
+  }
+
+  /**
+   * A submitted task. Claimed by the task when it starts, or by {@link #map} when it gives up on the task first.
+   */
+  private record Submitted<R>(Future<R> future, AtomicBoolean claimed) {
+  }
+}
@@ -0,0 +1,63 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.FilterAnalysisStatus;
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Ready-to-run form of a {@link ee.spiritix.filterssb3.entity.Filter}. Instances are immutable so they can be
+ * shared between threads through the {@link CompiledFilterCache}. When a generated predicate is present it replaces
+ * the interpreted walk over {@link #filterCriteria}. When an {@link AdaptiveCriteriaOrder} is present it takes over
+ * both and evaluates the criteria in the order it learned.
+ *
+ * <p>The criteria are the ones normalised by {@link FilterAnalyzer}. A filter it found unsatisfiable has no criteria
+ * and matches nothing; evaluators check {@link #isUnsatisfiable()} to skip it without looking at any object.</p>
+ */
+@Builder
+@Getter(AccessLevel.PACKAGE)
+class FilterFunction {
+  private final SelectionType selection;
+  private final List<FilterCriteriaInterface> filterCriteria;
+  private final Predicate<FilterableObject> generatedPredicate;
+  private final AdaptiveCriteriaOrder adaptiveOrder;
+  private final FilterAnalyzer.Analysis analysis;
+
+  boolean isUnsatisfiable() {
+    return analysis != null && analysis.status() == FilterAnalysisStatus.UNSATISFIABLE;
+  }
+
+  boolean filterBySelection(FilterableObject object) {
+    return object.getSelection() == selection;
+  }
+
+  boolean matches(FilterableObject object) {
+    if (isUnsatisfiable()) {
+      return false;
+    }
+    if (adaptiveOrder != null) {
+      return filterBySelection(object) && adaptiveOrder.matches(object);
+    }
+    if (generatedPredicate != null) {
+      return generatedPredicate.test(object);
+    }
+    return matchesInterpreted(object);
+  }
+
+  boolean matchesInterpreted(FilterableObject object) {
+    if (isUnsatisfiable() || !filterBySelection(object)) {
+      return false;
+    }
+    for (FilterCriteriaInterface criteria : filterCriteria) {
+      if (!criteria.applyCriteria(object)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,150 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.dto.FilterCriteriaDTO;
+import ee.spiritix.filterssb3.dto.FilterDTO;
+import ee.spiritix.filterssb3.dto.FilterImportErrorDTO;
+import ee.spiritix.filterssb3.dto.FilterImportResultDTO;
+import ee.spiritix.filterssb3.entity.Filter;
+import ee.spiritix.filterssb3.mapper.TypeMapper;
+import ee.spiritix.filterssb3.repository.FilterRepository;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Saves many filters at once. Every filter is validated before anything is written, invalid filters are reported by
+ * their position and skipped. The valid ones are saved in chunks of {@code chunkSize}, one transaction per chunk, so
+ * Hibernate can batch the inserts of a chunk. When a chunk fails to save, its filters are retried one by one to find
+ * the failing ones.
+ */
+@Slf4j
+@Component
+public class FilterImporter {
+
+  private final FilterRepository filterRepository;
+  private final TypeMapper typeMapper;
+  private final FilterCompiler filterCompiler;
+  private final CompiledFilterCache compiledFilterCache;
+  private final StoredFilterIndex storedFilterIndex;
+  private final FilterEntityCache filterEntityCache;
+  private final TransactionTemplate transactionTemplate;
+  private final Validator validator;
+  private final int chunkSize;
+
+  public FilterImporter(FilterRepository filterRepository, TypeMapper typeMapper, FilterCompiler filterCompiler,
+                        CompiledFilterCache compiledFilterCache, StoredFilterIndex storedFilterIndex,
+                        FilterEntityCache filterEntityCache, TransactionTemplate transactionTemplate,
+                        Validator validator,
+                        @Value("${filters.import.chunk-size:500}") int chunkSize) {
+    this.filterRepository = filterRepository;
+    this.typeMapper = typeMapper;
+    this.filterCompiler = filterCompiler;
+    this.compiledFilterCache = compiledFilterCache;
+    this.storedFilterIndex = storedFilterIndex;
+    this.filterEntityCache = filterEntityCache;
+    this.transactionTemplate = transactionTemplate;
+    this.validator = validator;
+    this.chunkSize = Math.max(1, chunkSize);
+  }
+
+  public FilterImportResultDTO importFilters(List<FilterDTO> filterDtos) {
+    List<FilterImportErrorDTO> errors = new ArrayList<>();
+    Filter[] filters = new Filter[filterDtos.size()];
+    List<Integer> valid = new ArrayList<>();
+    for (int index = 0; index < filterDtos.size(); index++) {
+      FilterDTO filterDto = filterDtos.get(index);
+      try {
+        filters[index] = toValidEntity(filterDto);
+        valid.add(index);
+      } catch (IllegalArgumentException e) {
+        errors.add(error(index, filterDto, e.getMessage()));
+      }
+    }
+
+    Long[] ids = new Long[filterDtos.size()];
+    for (int start = 0; start < valid.size(); start += chunkSize) {
+      List<Integer> chunk = valid.subList(start, Math.min(start + chunkSize, valid.size()));
+      try {
+        save(chunk.stream().map(index -> filters[index]).toList());
+        chunk.forEach(index -> ids[index] = filters[index].getId());
+      } catch (DataAccessException | TransactionException e) {
+        log.warn("Saving {} imported filters failed, retrying them one by one", chunk.size(), e);
+        for (int index : chunk) {
+          // The failed attempt may already have assigned ids, so the retry starts from a freshly mapped entity
+          Filter filter = (Filter) typeMapper.mapObject(filterDtos.get(index), Filter.class);
+          try {
+            save(List.of(filter));
+            ids[index] = filter.getId();
+          } catch (DataAccessException | TransactionException retryFailure) {
+            errors.add(error(index, filterDtos.get(index), retryFailure.getMostSpecificCause().getMessage()));
+          }
+        }
+      }
+    }
+
+    errors.sort(Comparator.comparingInt(FilterImportErrorDTO::getIndex));
+    List<Long> filterIds = Arrays.stream(ids).filter(Objects::nonNull).toList();
+    log.debug("Imported {} of {} filters", filterIds.size(), filterDtos.size());
+    return FilterImportResultDTO.builder()
+        .imported(filterIds.size())
+        .failed(errors.size())
+        .filterIds(filterIds)
+        .errors(errors)
+        .build();
+  }
+
+  /**
+   * Applies the same checks as {@link FilterService#add}, plus the bean validation constraints the controller applies
+   * to a single filter. Throws {@link IllegalArgumentException} describing what is wrong with the filter.
+   */
+  private Filter toValidEntity(FilterDTO filterDto) {
+    if (filterDto == null) {
+      throw new IllegalArgumentException("Filter must not be null");
+    }
+    List<FilterCriteriaDTO> criteriaList = filterDto.getCriteriaList();
+    if (criteriaList != null && criteriaList.contains(null)) {
+      throw new IllegalArgumentException("criteriaList must not contain null");
+    }
+    String violations = Stream.<Object>concat(Stream.of(filterDto),
+            criteriaList == null ? Stream.empty() : criteriaList.stream())
+        .flatMap(object -> validator.validate(object).stream())
+        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+        .sorted()
+        .collect(Collectors.joining(", "));
+    if (!violations.isEmpty()) {
+      throw new IllegalArgumentException(violations);
+    }
+    Filter filter = (Filter) typeMapper.mapObject(filterDto, Filter.class);
+    filterCompiler.validate(filter);
+    return filter;
+  }
+
+  private void save(List<Filter> filters) {
+    transactionTemplate.executeWithoutResult(status -> filterRepository.saveAll(filters));
+    for (Filter filter : filters) {
+      compiledFilterCache.invalidate(filter.getId());
+      filterEntityCache.evict(filter.getId());
+      storedFilterIndex.filterSaved(filter);
+    }
+  }
+
+  private static FilterImportErrorDTO error(int index, FilterDTO filterDto, String message) {
+    return FilterImportErrorDTO.builder()
+        .index(index)
+        .name(filterDto == null ? null : filterDto.getName())
+        .message(message)
+        .build();
+  }
+}
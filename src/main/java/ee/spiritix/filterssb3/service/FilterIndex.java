@@ -0,0 +1,587 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.constant.TextConditionType;
+import ee.spiritix.filterssb3.constant.TextMatchMode;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+/**
+ * Inverted index over many {@link FilterFunction}s answering "which filters match this object". Per
+ * {@link SelectionType} every filter is stored under one driving criterion, the one expected to pass for the fewest
+ * objects: an equality if it has one, else a contains, else a range. Range criteria are kept in sorted arrays and
+ * equality criteria in hash maps. A lookup finds the satisfied driving criteria with a few binary searches and hash
+ * lookups, and only the filters they belong to check their other criteria. The work grows with these candidates, not
+ * with the number of filters.
+ *
+ * <p>Negated criteria (not equals, is not, not contains) pass for almost every object, so they never drive. Filters
+ * without another indexed criterion are candidates for every object of their selection type.</p>
+ *
+ * <p>Contains and not contains values are kept in one {@link AhoCorasickMatcher} per selection type, so a single
+ * pass over the title finds every value it contains: a contains criterion drives when its value is found, a not
+ * contains criterion passes when its value is not. New values are inserted into the existing trie as filters are
+ * added. Text criteria that ignore case or accents, prefixes, suffixes and regular expressions are not indexed and
+ * are checked like the other remaining criteria.</p>
+ *
+ * <p>The sorted arrays, maps and matcher are built together and not changed afterwards. Filters added or replaced
+ * after that are pending: a lookup evaluates them one by one and ignores their older entries. Once the pending filters
+ * outnumber {@value #MIN_PENDING} and a sixteenth of all filters, or {@value #MAX_PENDING}, the next lookup rebuilds
+ * everything. A rebuild still takes time linear in the number of filters, but only after that many additions.</p>
+ *
+ * <p>An object without an amount or a date matches none of the filters with a criterion on that value, where
+ * evaluating the filter by itself would fail. The lookups on a missing value are skipped.</p>
+ *
+ * <p>The remaining criteria of a filter are turned into one predicate when it is added, by the given residual
+ * compiler if it returns one and as a walk over the criteria otherwise, so a rebuild does not compile them again.</p>
+ */
+final class FilterIndex {
+
+  private static final int MIN_PENDING = 64;
+  private static final int MAX_PENDING = 1024;
+
+  private final BiFunction<SelectionType, List<FilterCriteriaInterface>, Predicate<FilterableObject>> residualCompiler;
+  private final List<Long> filterIds = new ArrayList<>();
+  private final List<FilterFunction> functions = new ArrayList<>();
+  private final List<Predicate<FilterableObject>> residuals = new ArrayList<>();
+  private final Map<Long, Integer> positions = new HashMap<>();
+  private final AhoCorasickMatcher.Builder[] textPatterns =
+      new AhoCorasickMatcher.Builder[SelectionType.values().length];
+  // Positions added or replaced since the snapshot was built
+  private final TreeSet<Integer> pending = new TreeSet<>();
+  private Snapshot snapshot;
+  private View view;
+
+  FilterIndex() {
+    this((selection, criteria) -> null);
+  }
+
+  FilterIndex(BiFunction<SelectionType, List<FilterCriteriaInterface>, Predicate<FilterableObject>> residualCompiler) {
+    this.residualCompiler = residualCompiler;
+    for (int i = 0; i < textPatterns.length; i++) {
+      textPatterns[i] = new AhoCorasickMatcher.Builder();
+    }
+  }
+
+  synchronized void add(Long filterId, FilterFunction function) {
+    Predicate<FilterableObject> residual = residual(function);
+    Integer position = positions.get(filterId);
+    if (position != null) {
+      // A saved-again filter keeps its position, so positions stay dense
+      functions.set(position, function);
+      residuals.set(position, residual);
+    } else {
+      position = filterIds.size();
+      positions.put(filterId, position);
+      filterIds.add(filterId);
+      functions.add(function);
+      residuals.add(residual);
+    }
+    AhoCorasickMatcher.Builder patterns = textPatterns[function.getSelection().ordinal()];
+    for (FilterCriteriaInterface criterion : function.getFilterCriteria()) {
+      if (criterion instanceof TextCriteriaFunction textFunction && isExact(textFunction)
+          && isContains(textFunction)) {
+        patterns.add(textFunction.getTextValue());
+      }
+    }
+    pending.add(position);
+    view = null;
+  }
+
+  synchronized int size() {
+    return filterIds.size();
+  }
+
+  List<Long> findMatchingFilterIds(FilterableObject object) {
+    return view().findMatchingFilterIds(object);
+  }
+
+  private synchronized View view() {
+    if (view == null) {
+      int pendingLimit = Math.max(MIN_PENDING, Math.min(MAX_PENDING, filterIds.size() / 16));
+      if (snapshot == null || pending.size() > pendingLimit) {
+        snapshot = new Snapshot(List.copyOf(filterIds), List.copyOf(functions), new ArrayList<>(residuals),
+            textPatterns);
+        pending.clear();
+      }
+      int[] pendingPositions = pending.stream().mapToInt(Integer::intValue).toArray();
+      Long[] pendingIds = new Long[pendingPositions.length];
+      FilterFunction[] pendingFunctions = new FilterFunction[pendingPositions.length];
+      for (int i = 0; i < pendingPositions.length; i++) {
+        pendingIds[i] = filterIds.get(pendingPositions[i]);
+        pendingFunctions[i] = functions.get(pendingPositions[i]);
+      }
+      view = new View(snapshot, pendingPositions, pendingIds, pendingFunctions);
+    }
+    return view;
+  }
+
+  /**
+   * The criteria of the function that are not indexed as one predicate, {@code null} when there are none.
+   */
+  private Predicate<FilterableObject> residual(FilterFunction function) {
+    if (function.isUnsatisfiable()) {
+      return null;
+    }
+    List<FilterCriteriaInterface> unindexed = function.getFilterCriteria().stream()
+        .filter(criterion -> !isIndexed(criterion))
+        .toList();
+    if (unindexed.isEmpty()) {
+      return null;
+    }
+    Predicate<FilterableObject> compiled = residualCompiler.apply(function.getSelection(), unindexed);
+    if (compiled != null) {
+      return compiled;
+    }
+    FilterCriteriaInterface[] criteria = unindexed.toArray(FilterCriteriaInterface[]::new);
+    return object -> {
+      for (FilterCriteriaInterface criterion : criteria) {
+        if (!criterion.applyCriteria(object)) {
+          return false;
+        }
+      }
+      return true;
+    };
+  }
+
+  private static boolean isIndexed(FilterCriteriaInterface criterion) {
+    if (criterion instanceof AmountCriteriaFunction || criterion instanceof DateCriteriaFunction) {
+      return true;
+    }
+    return criterion instanceof TextCriteriaFunction textFunction && isExact(textFunction)
+        && switch (textFunction.getConditionType()) {
+          case EQUALS, NOT_EQUALS, CONTAINS, NOT_CONTAINS -> true;
+          case STARTS_WITH, ENDS_WITH, MATCHES -> false;
+        };
+  }
+
+  private static boolean isExact(TextCriteriaFunction function) {
+    return function.getMatchMode() == TextMatchMode.EXACT;
+  }
+
+  private static boolean isContains(TextCriteriaFunction function) {
+    return switch (function.getConditionType()) {
+      case CONTAINS, NOT_CONTAINS -> true;
+      case EQUALS, NOT_EQUALS, STARTS_WITH, ENDS_WITH, MATCHES -> false;
+    };
+  }
+
+  private static boolean readsMissingValue(FilterFunction function, FilterableObject object) {
+    if (object.getAmount() != null && object.getDate() != null) {
+      return false;
+    }
+    for (FilterCriteriaInterface criterion : function.getFilterCriteria()) {
+      if (readsMissingValue(criterion, object)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean readsMissingValue(FilterCriteriaInterface criterion, FilterableObject object) {
+    return criterion instanceof AmountCriteriaFunction && object.getAmount() == null
+        || criterion instanceof DateCriteriaFunction && object.getDate() == null;
+  }
+
+  /**
+   * A snapshot together with the filters added or replaced after it, which are evaluated one by one.
+   */
+  private record View(Snapshot snapshot, int[] pendingPositions, Long[] pendingIds,
+                      FilterFunction[] pendingFunctions) {
+
+    List<Long> findMatchingFilterIds(FilterableObject object) {
+      int[] indexed = snapshot.findMatchingPositions(object);
+      List<Long> matching = new ArrayList<>();
+      int next = 0;
+      for (int i = 0; i < pendingPositions.length; i++) {
+        // Merged by position, so filters are reported in the order they were added
+        for (; next < indexed.length && indexed[next] < pendingPositions[i]; next++) {
+          matching.add(snapshot.filterIds.get(indexed[next]));
+        }
+        if (next < indexed.length && indexed[next] == pendingPositions[i]) {
+          // Replaced since the snapshot, its indexed entry is out of date
+          next++;
+        }
+        if (!readsMissingValue(pendingFunctions[i], object) && pendingFunctions[i].matches(object)) {
+          matching.add(pendingIds[i]);
+        }
+      }
+      for (; next < indexed.length; next++) {
+        matching.add(snapshot.filterIds.get(indexed[next]));
+      }
+      return matching;
+    }
+  }
+
+  /**
+   * How many objects an indexed criterion is expected to let through, lowest first, or {@link Integer#MAX_VALUE} for
+   * negated criteria, which cannot drive a lookup.
+   */
+  private static int breadth(FilterCriteriaInterface criterion) {
+    if (criterion instanceof AmountCriteriaFunction amountFunction) {
+      return switch (amountFunction.getConditionType()) {
+        case EQUALS -> 0;
+        case GREATER_THAN, LESS_THAN -> 2;
+        case NOT_EQUALS -> Integer.MAX_VALUE;
+      };
+    } else if (criterion instanceof DateCriteriaFunction dateFunction) {
+      return switch (dateFunction.getConditionType()) {
+        case IS -> 0;
+        case IS_AFTER, IS_BEFORE -> 2;
+        case IS_NOT -> Integer.MAX_VALUE;
+      };
+    }
+    return switch (((TextCriteriaFunction) criterion).getConditionType()) {
+      case EQUALS -> 0;
+      case CONTAINS -> 1;
+      case NOT_EQUALS, NOT_CONTAINS, STARTS_WITH, ENDS_WITH, MATCHES -> Integer.MAX_VALUE;
+    };
+  }
+
+  private static final class Snapshot {
+
+    private static final FilterCriteriaInterface[] NO_CRITERIA = new FilterCriteriaInterface[0];
+
+    private final List<Long> filterIds;
+    private final FilterCriteriaInterface[][] checks;
+    // Per filter, the matcher numbers of its exact not contains values
+    private final int[][] notContained;
+    private final List<Predicate<FilterableObject>> residuals;
+    private final SelectionIndex[] selections;
+
+    private Snapshot(List<Long> filterIds, List<FilterFunction> functions, List<Predicate<FilterableObject>> residuals,
+                     AhoCorasickMatcher.Builder[] textPatterns) {
+      this.filterIds = filterIds;
+      this.checks = new FilterCriteriaInterface[functions.size()][];
+      this.notContained = new int[functions.size()][];
+      this.residuals = residuals;
+      this.selections = new SelectionIndex[SelectionType.values().length];
+      for (int i = 0; i < selections.length; i++) {
+        selections[i] = new SelectionIndex();
+      }
+
+      for (int filter = 0; filter < functions.size(); filter++) {
+        FilterFunction function = functions.get(filter);
+        if (function.isUnsatisfiable()) {
+          // Left out of every selection, so it is never a candidate
+          checks[filter] = NO_CRITERIA;
+          notContained[filter] = new int[0];
+          continue;
+        }
+        SelectionIndex index = selections[function.getSelection().ordinal()];
+        AhoCorasickMatcher.Builder patterns = textPatterns[function.getSelection().ordinal()];
+        index.filterCount++;
+        List<FilterCriteriaInterface> indexed = new ArrayList<>();
+        List<Integer> notContainedPatterns = new ArrayList<>();
+        FilterCriteriaInterface driver = null;
+        for (FilterCriteriaInterface criterion : function.getFilterCriteria()) {
+          if (criterion instanceof TextCriteriaFunction textFunction && isExact(textFunction)
+              && textFunction.getConditionType() == TextConditionType.NOT_CONTAINS) {
+            notContainedPatterns.add(patterns.indexOf(textFunction.getTextValue()));
+          } else if (isIndexed(criterion)) {
+            indexed.add(criterion);
+            if (breadth(criterion) < (driver == null ? Integer.MAX_VALUE : breadth(driver))) {
+              driver = criterion;
+            }
+          }
+        }
+        if (driver == null) {
+          index.unconditional.add(filter);
+        } else {
+          index(index, filter, driver);
+          indexed.remove(driver);
+        }
+        checks[filter] = indexed.toArray(FilterCriteriaInterface[]::new);
+        notContained[filter] = notContainedPatterns.stream().mapToInt(Integer::intValue).toArray();
+      }
+      for (int i = 0; i < selections.length; i++) {
+        selections[i].freeze(textPatterns[i]);
+      }
+    }
+
+    private static void index(SelectionIndex index, int filter, FilterCriteriaInterface driver) {
+      if (driver instanceof AmountCriteriaFunction amountFunction) {
+        BigDecimal value = amountFunction.getAmountValue();
+        switch (amountFunction.getConditionType()) {
+          case GREATER_THAN -> index.amountGreater.add(new AmountEntry(value, filter));
+          case LESS_THAN -> index.amountLess.add(new AmountEntry(value, filter));
+          case EQUALS -> addTo(index.amountEquals, value.stripTrailingZeros(), filter);
+          case NOT_EQUALS -> throw new IllegalStateException("Negated criteria do not drive a lookup");
+        }
+      } else if (driver instanceof DateCriteriaFunction dateFunction) {
+        long day = dateFunction.getDateValue().toEpochDay();
+        switch (dateFunction.getConditionType()) {
+          case IS_AFTER -> index.dateAfter.add(new DateEntry(day, filter));
+          case IS_BEFORE -> index.dateBefore.add(new DateEntry(day, filter));
+          case IS -> addTo(index.dateIs, day, filter);
+          case IS_NOT -> throw new IllegalStateException("Negated criteria do not drive a lookup");
+        }
+      } else {
+        TextCriteriaFunction textFunction = (TextCriteriaFunction) driver;
+        switch (textFunction.getConditionType()) {
+          case EQUALS -> addTo(index.textEquals, textFunction.getTextValue(), filter);
+          case CONTAINS -> addTo(index.textContains, textFunction.getTextValue(), filter);
+          case NOT_EQUALS, NOT_CONTAINS, STARTS_WITH, ENDS_WITH, MATCHES ->
+              throw new IllegalStateException("Not a driving criterion");
+        }
+      }
+    }
+
+    /**
+     * Positions of the matching filters, ascending.
+     */
+    private int[] findMatchingPositions(FilterableObject object) {
+      SelectionIndex index = selections[object.getSelection().ordinal()];
+      if (index.filterCount == 0) {
+        return new int[0];
+      }
+      // Every filter has one driver, so no filter is found twice
+      Candidates candidates = new Candidates();
+      if (object.getAmount() != null) {
+        index.findAmount(object.getAmount(), candidates);
+      }
+      if (object.getDate() != null) {
+        index.findDate(object.getDate().toEpochDay(), candidates);
+      }
+      BitSet contained = index.findText(object.getTitle(), candidates);
+      candidates.addAll(index.unconditionalFilters, 0, index.unconditionalFilters.length);
+      int[] filters = candidates.sorted();
+
+      int matching = 0;
+      for (int filter : filters) {
+        if (checksPass(filter, object, contained)) {
+          filters[matching++] = filter;
+        }
+      }
+      return Arrays.copyOf(filters, matching);
+    }
+
+    private boolean checksPass(int filter, FilterableObject object, BitSet contained) {
+      for (int pattern : notContained[filter]) {
+        if (contained.get(pattern)) {
+          return false;
+        }
+      }
+      for (FilterCriteriaInterface criterion : checks[filter]) {
+        if (readsMissingValue(criterion, object) || !criterion.applyCriteria(object)) {
+          return false;
+        }
+      }
+      Predicate<FilterableObject> residual = residuals.get(filter);
+      return residual == null || residual.test(object);
+    }
+
+    private static <K> void addTo(Map<K, List<Integer>> map, K key, int filter) {
+      map.computeIfAbsent(key, ignored -> new ArrayList<>()).add(filter);
+    }
+  }
+
+  private static final class SelectionIndex {
+
+    private int filterCount;
+    private final List<Integer> unconditional = new ArrayList<>();
+    private final List<AmountEntry> amountGreater = new ArrayList<>();
+    private final List<AmountEntry> amountLess = new ArrayList<>();
+    private final Map<BigDecimal, List<Integer>> amountEquals = new HashMap<>();
+    private final List<DateEntry> dateAfter = new ArrayList<>();
+    private final List<DateEntry> dateBefore = new ArrayList<>();
+    private final Map<Long, List<Integer>> dateIs = new HashMap<>();
+    private final Map<String, List<Integer>> textEquals = new HashMap<>();
+    private final Map<String, List<Integer>> textContains = new HashMap<>();
+
+    private int[] unconditionalFilters;
+    private BigDecimal[] amountGreaterValues;
+    private int[] amountGreaterFilters;
+    private BigDecimal[] amountLessValues;
+    private int[] amountLessFilters;
+    private long[] dateAfterValues;
+    private int[] dateAfterFilters;
+    private long[] dateBeforeValues;
+    private int[] dateBeforeFilters;
+    private Map<BigDecimal, int[]> amountEqualsFilters;
+    private Map<Long, int[]> dateIsFilters;
+    private Map<String, int[]> textEqualsFilters;
+    private AhoCorasickMatcher textMatcher;
+    private int[][] containsFilters;
+
+    private void freeze(AhoCorasickMatcher.Builder textPatterns) {
+      unconditionalFilters = toArray(unconditional);
+
+      amountGreater.sort(Comparator.comparing(AmountEntry::value));
+      amountGreaterValues = amountGreater.stream().map(AmountEntry::value).toArray(BigDecimal[]::new);
+      amountGreaterFilters = amountGreater.stream().mapToInt(AmountEntry::filter).toArray();
+      amountLess.sort(Comparator.comparing(AmountEntry::value));
+      amountLessValues = amountLess.stream().map(AmountEntry::value).toArray(BigDecimal[]::new);
+      amountLessFilters = amountLess.stream().mapToInt(AmountEntry::filter).toArray();
+
+      dateAfter.sort(Comparator.comparingLong(DateEntry::day));
+      dateAfterValues = dateAfter.stream().mapToLong(DateEntry::day).toArray();
+      dateAfterFilters = dateAfter.stream().mapToInt(DateEntry::filter).toArray();
+      dateBefore.sort(Comparator.comparingLong(DateEntry::day));
+      dateBeforeValues = dateBefore.stream().mapToLong(DateEntry::day).toArray();
+      dateBeforeFilters = dateBefore.stream().mapToInt(DateEntry::filter).toArray();
+
+      amountEqualsFilters = toArrays(amountEquals);
+      dateIsFilters = toArrays(dateIs);
+      textEqualsFilters = toArrays(textEquals);
+
+      textMatcher = textPatterns.build();
+      containsFilters = byPattern(textContains, textPatterns, textMatcher.getPatternCount());
+    }
+
+    private void findAmount(BigDecimal amount, Candidates candidates) {
+      // Greater-than thresholds below the amount and less-than thresholds above it are satisfied
+      candidates.addAll(amountGreaterFilters, 0, countBelow(amountGreaterValues, amount));
+      candidates.addAll(amountLessFilters, countAtOrBelow(amountLessValues, amount), amountLessFilters.length);
+      if (!amountEqualsFilters.isEmpty()) {
+        candidates.addAll(amountEqualsFilters.get(amount.stripTrailingZeros()));
+      }
+    }
+
+    private void findDate(long day, Candidates candidates) {
+      candidates.addAll(dateAfterFilters, 0, countBelow(dateAfterValues, day));
+      candidates.addAll(dateBeforeFilters, countAtOrBelow(dateBeforeValues, day), dateBeforeFilters.length);
+      if (!dateIsFilters.isEmpty()) {
+        candidates.addAll(dateIsFilters.get(day));
+      }
+    }
+
+    /**
+     * Adds the filters driven by the title and returns the numbers of the matcher values it contains.
+     */
+    private BitSet findText(String title, Candidates candidates) {
+      candidates.addAll(textEqualsFilters.get(title));
+      BitSet contained = new BitSet(textMatcher.getPatternCount());
+      if (textMatcher.getPatternCount() > 0) {
+        textMatcher.match(title, contained);
+      }
+      for (int pattern = contained.nextSetBit(0); pattern >= 0; pattern = contained.nextSetBit(pattern + 1)) {
+        candidates.addAll(containsFilters[pattern]);
+      }
+      return contained;
+    }
+
+    private static int countBelow(BigDecimal[] sorted, BigDecimal value) {
+      int low = 0;
+      int high = sorted.length;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (sorted[middle].compareTo(value) < 0) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
+
+    private static int countAtOrBelow(BigDecimal[] sorted, BigDecimal value) {
+      int low = 0;
+      int high = sorted.length;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (sorted[middle].compareTo(value) <= 0) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
+
+    private static int countBelow(long[] sorted, long value) {
+      int low = 0;
+      int high = sorted.length;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (sorted[middle] < value) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
+
+    private static int countAtOrBelow(long[] sorted, long value) {
+      int low = 0;
+      int high = sorted.length;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (sorted[middle] <= value) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
+
+    private static <K> Map<K, int[]> toArrays(Map<K, List<Integer>> map) {
+      Map<K, int[]> arrays = new HashMap<>();
+      map.forEach((key, filters) -> arrays.put(key, toArray(filters)));
+      return arrays;
+    }
+
+    private static int[][] byPattern(Map<String, List<Integer>> map, AhoCorasickMatcher.Builder patterns,
+                                     int patternCount) {
+      // Patterns no longer used by any filter keep an empty slot
+      int[][] filters = new int[patternCount][];
+      map.forEach((value, valueFilters) -> filters[patterns.indexOf(value)] = toArray(valueFilters));
+      return filters;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+      return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+  }
+
+  /**
+   * Positions of the filters a lookup found, growing with them rather than with the index.
+   */
+  private static final class Candidates {
+
+    private int[] filters = new int[16];
+    private int size;
+
+    void addAll(int[] found) {
+      if (found != null) {
+        addAll(found, 0, found.length);
+      }
+    }
+
+    void addAll(int[] found, int from, int to) {
+      int count = to - from;
+      if (count <= 0) {
+        return;
+      }
+      if (size + count > filters.length) {
+        filters = Arrays.copyOf(filters, Math.max(filters.length * 2, size + count));
+      }
+      System.arraycopy(found, from, filters, size, count);
+      size += count;
+    }
+
+    int[] sorted() {
+      int[] sorted = Arrays.copyOf(filters, size);
+      Arrays.sort(sorted);
+      return sorted;
+    }
+  }
+
+  private record AmountEntry(BigDecimal value, int filter) {
+  }
+
+  private record DateEntry(long day, int filter) {
+  }
+}
@@ -0,0 +1,185 @@
+package ee.spiritix.filterssb3.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import ee.spiritix.filterssb3.dto.FilterDTO;
+import ee.spiritix.filterssb3.entity.Filter;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Micrometer meters of filter evaluation. Callers measure the time themselves and pass it in, so nothing is wrapped
+ * and the evaluation loop stays as it is. The evaluation timers publish a latency histogram; they are looked up once
+ * per filter and kept for at most {@code maxFilterTags} filters, the number
+ * {@link ee.spiritix.filterssb3.config.FilterMetricsConfig} gives a series. Mapping timers are registered once.
+ *
+ * <p>Criterion pass rates come from a sample: one in {@code sampleRate} objects of an evaluated list is run through
+ * every criterion of the filter separately, instead of stopping at the first rejection, while it is evaluated.</p>
+ *
+ * <p>Regular expression searches given up at {@link TextMatching#MAX_REGEX_STEPS} count as no match; they are
+ * counted by {@link TextMatching} wherever the search ran and read from there.</p>
+ */
+@Component
+public class FilterMetrics {
+
+  static final String EVALUATION = "filters.evaluation";
+  static final String OBJECTS = "filters.evaluation.objects";
+  static final String CRITERIA = "filters.criteria.evaluations";
+  static final String REPOSITORY_LOOKUP = "filters.repository.lookup";
+  static final String MAPPING = "filters.mapping";
+  static final String REGEX_STEP_LIMIT = "filters.regex.step.limit";
+
+  private final MeterRegistry meterRegistry;
+  private final int sampleRate;
+  private final Counter objectsIn;
+  private final Counter objectsOut;
+  private final Timer repositoryLookup;
+  private final Timer entityMapping;
+  private final Timer dtoMapping;
+  private final Cache<Long, Timer> evaluationTimers;
+  // Indexed by criterion type, then 0 for rejected and 1 for passed
+  private final Counter[][] criteria;
+
+  public FilterMetrics(MeterRegistry meterRegistry,
+                       @Value("${filters.metrics.criteria-sample-rate:64}") int sampleRate,
+                       @Value("${filters.metrics.max-filter-tags:100}") int maxFilterTags) {
+    this.meterRegistry = meterRegistry;
+    this.sampleRate = Math.max(1, sampleRate);
+    this.evaluationTimers = Caffeine.newBuilder()
+        .maximumSize(maxFilterTags)
+        .executor(Runnable::run)
+        .build();
+    this.objectsIn = Counter.builder(OBJECTS)
+        .description("Objects evaluated against a filter")
+        .tag("direction", "in")
+        .register(meterRegistry);
+    this.objectsOut = Counter.builder(OBJECTS)
+        .description("Objects evaluated against a filter")
+        .tag("direction", "out")
+        .register(meterRegistry);
+    this.repositoryLookup = Timer.builder(REPOSITORY_LOOKUP)
+        .description("Time to load a filter with its criteria from the repository")
+        .register(meterRegistry);
+    this.entityMapping = mappingTimer(Filter.class);
+    this.dtoMapping = mappingTimer(FilterDTO.class);
+    FunctionCounter.builder(REGEX_STEP_LIMIT, TextMatching.class, ignored -> TextMatching.stepLimitHits())
+        .description("Regular expression searches given up at the step limit and counted as no match")
+        .register(meterRegistry);
+    String[] types = {"amount", "date", "text"};
+    this.criteria = new Counter[types.length][];
+    for (int type = 0; type < types.length; type++) {
+      criteria[type] = new Counter[]{criterionCounter(types[type], "reject"), criterionCounter(types[type], "pass")};
+    }
+  }
+
+  public void recordEvaluation(Long filterId, int objectsIn, int objectsOut, long nanos) {
+    evaluationTimers.get(filterId, this::evaluationTimer).record(nanos, TimeUnit.NANOSECONDS);
+    this.objectsIn.increment(objectsIn);
+    this.objectsOut.increment(objectsOut);
+  }
+
+  public void recordRepositoryLookup(long nanos) {
+    repositoryLookup.record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void recordMapping(Class<?> targetClass, long nanos) {
+    Timer timer;
+    if (targetClass == Filter.class) {
+      timer = entityMapping;
+    } else if (targetClass == FilterDTO.class) {
+      timer = dtoMapping;
+    } else {
+      timer = mappingTimer(targetClass);
+    }
+    timer.record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * The filter for evaluating one list, sequentially. Every {@code sampleRate}-th object is matched by running all
+   * criteria and recording their outcomes, the others by the filter itself, so no object is evaluated twice. Objects
+   * of another selection are not sampled, their criteria are never evaluated.
+   */
+  Predicate<FilterableObject> sampling(FilterFunction filterFunction) {
+    return new SamplingFilter(filterFunction, ThreadLocalRandom.current().nextInt(sampleRate));
+  }
+
+  private boolean sample(FilterFunction filterFunction, FilterableObject object) {
+    if (!filterFunction.filterBySelection(object)) {
+      return false;
+    }
+    boolean matches = true;
+    for (FilterCriteriaInterface criterion : filterFunction.getFilterCriteria()) {
+      boolean passed = criterion.applyCriteria(object);
+      int type = typeOf(criterion);
+      if (type >= 0) {
+        criteria[type][passed ? 1 : 0].increment();
+      }
+      matches &= passed;
+    }
+    return matches;
+  }
+
+  private Timer evaluationTimer(Long filterId) {
+    return Timer.builder(EVALUATION)
+        .description("Time to evaluate a list of objects against one filter")
+        .tag("filter", String.valueOf(filterId))
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
+
+  private Timer mappingTimer(Class<?> targetClass) {
+    return Timer.builder(MAPPING)
+        .description("Time to map between filter entities and DTOs")
+        .tag("target", targetClass.getSimpleName())
+        .register(meterRegistry);
+  }
+
+  private Counter criterionCounter(String type, String result) {
+    return Counter.builder(CRITERIA)
+        .description("Sampled criterion evaluations, by criterion type and result")
+        .tag("type", type)
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  private static int typeOf(FilterCriteriaInterface criterion) {
+    if (criterion instanceof AmountCriteriaFunction) {
+      return 0;
+    } else if (criterion instanceof DateCriteriaFunction) {
+      return 1;
+    } else if (criterion instanceof TextCriteriaFunction) {
+      return 2;
+    }
+    return -1;
+  }
+
+  private final class SamplingFilter implements Predicate<FilterableObject> {
+
+    private final FilterFunction filterFunction;
+    private int untilSample;
+
+    private SamplingFilter(FilterFunction filterFunction, int untilSample) {
+      this.filterFunction = filterFunction;
+      this.untilSample = untilSample;
+    }
+
+    @Override
+    public boolean test(FilterableObject object) {
+      if (untilSample > 0) {
+        untilSample--;
+        return filterFunction.matches(object);
+      }
+      untilSample = sampleRate - 1;
+      return sample(filterFunction, object);
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.RankBy;
+import ee.spiritix.filterssb3.constant.ResultMode;
+import ee.spiritix.filterssb3.dto.FilterResultDTO;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * Reduces the objects matching a filter to a {@link FilterResultDTO} without collecting all of them. Objects are
+ * pulled from an iterator one at a time, so the input can be a request body that is still being read. Counting keeps
+ * no objects at all, {@code EXISTS} and {@code LIMIT} stop reading as soon as the answer is known, and {@code TOP}
+ * keeps at most {@code limit} objects in a min-heap whose head is the weakest one kept.
+ */
+final class FilterResults {
+
+  private FilterResults() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  static FilterResultDTO count(Iterator<FilterableObject> objects, Predicate<FilterableObject> filter) {
+    long evaluated = 0;
+    long count = 0;
+    while (objects.hasNext()) {
+      evaluated++;
+      if (filter.test(objects.next())) {
+        count++;
+      }
+    }
+    return FilterResultDTO.builder().mode(ResultMode.COUNT).evaluated(evaluated).count(count).build();
+  }
+
+  static FilterResultDTO exists(Iterator<FilterableObject> objects, Predicate<FilterableObject> filter) {
+    long evaluated = 0;
+    boolean exists = false;
+    while (!exists && objects.hasNext()) {
+      evaluated++;
+      exists = filter.test(objects.next());
+    }
+    return FilterResultDTO.builder().mode(ResultMode.EXISTS).evaluated(evaluated).exists(exists).build();
+  }
+
+  static FilterResultDTO limit(Iterator<FilterableObject> objects, Predicate<FilterableObject> filter, int limit) {
+    long evaluated = 0;
+    List<FilterableObject> matching = new ArrayList<>(Math.min(limit, 64));
+    while (matching.size() < limit && objects.hasNext()) {
+      evaluated++;
+      FilterableObject object = objects.next();
+      if (filter.test(object)) {
+        matching.add(object);
+      }
+    }
+    return FilterResultDTO.builder()
+        .mode(ResultMode.LIMIT)
+        .evaluated(evaluated)
+        .count((long) matching.size())
+        .objects(matching)
+        .build();
+  }
+
+  /**
+   * Keeps the {@code limit} matching objects with the largest amount or latest date, returned best first. Ties keep
+   * the input order, so the result is the same as sorting all matches and taking the first {@code limit}. Objects
+   * without an amount or date rank below all others.
+   */
+  static FilterResultDTO top(Iterator<FilterableObject> objects, Predicate<FilterableObject> filter, int limit,
+                             RankBy rankBy) {
+    Comparator<FilterableObject> byKey = switch (rankBy) {
+      case AMOUNT -> Comparator.comparing(FilterableObject::getAmount, nullsFirst());
+      case DATE -> Comparator.comparing(FilterableObject::getDate, nullsFirst());
+    };
+    Comparator<Ranked> ranking = Comparator.comparing(Ranked::object, byKey.reversed())
+        .thenComparingLong(Ranked::position);
+    PriorityQueue<Ranked> heap = new PriorityQueue<>(Math.min(limit, 64), ranking.reversed());
+
+    long evaluated = 0;
+    long count = 0;
+    while (objects.hasNext()) {
+      FilterableObject object = objects.next();
+      long position = evaluated++;
+      if (!filter.test(object)) {
+        continue;
+      }
+      count++;
+      if (heap.size() < limit) {
+        heap.add(new Ranked(object, position));
+      } else if (byKey.compare(object, heap.peek().object()) > 0) {
+        // A later object only displaces the weakest one when it is strictly better, ties go to the earlier one
+        heap.poll();
+        heap.add(new Ranked(object, position));
+      }
+    }
+
+    List<FilterableObject> top = heap.stream()
+        .sorted(ranking)
+        .map(Ranked::object)
+        .toList();
+    return FilterResultDTO.builder()
+        .mode(ResultMode.TOP)
+        .evaluated(evaluated)
+        .count(count)
+        .objects(top)
+        .build();
+  }
+
+  private static <T extends Comparable<? super T>> Comparator<T> nullsFirst() {
+    return Comparator.nullsFirst(Comparator.naturalOrder());
+  }
+
+  private record Ranked(FilterableObject object, long position) {
+  }
+}
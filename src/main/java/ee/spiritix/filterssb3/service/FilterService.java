@@ -1,146 +1,314 @@
 package ee.spiritix.filterssb3.service;
 
-import ee.spiritix.filterssb3.constant.AmountConditionType;
-import ee.spiritix.filterssb3.constant.DateConditionType;
-import ee.spiritix.filterssb3.constant.SelectionType;
-import ee.spiritix.filterssb3.constant.TextConditionType;
+import ee.spiritix.filterssb3.constant.RankBy;
+import ee.spiritix.filterssb3.constant.ResultMode;
+import ee.spiritix.filterssb3.dto.CacheStatisticsDTO;
+import ee.spiritix.filterssb3.dto.EntityCacheStatisticsDTO;
+import ee.spiritix.filterssb3.dto.FilterAnalysisDTO;
 import ee.spiritix.filterssb3.dto.FilterDTO;
-import ee.spiritix.filterssb3.entity.AmountCriteria;
-import ee.spiritix.filterssb3.entity.DateCriteria;
+import ee.spiritix.filterssb3.dto.FilterImportResultDTO;
+import ee.spiritix.filterssb3.dto.FilterPageDTO;
+import ee.spiritix.filterssb3.dto.FilterResultDTO;
+import ee.spiritix.filterssb3.dto.FilterStatisticsDTO;
 import ee.spiritix.filterssb3.entity.Filter;
-import ee.spiritix.filterssb3.entity.FilterCriteria;
-import ee.spiritix.filterssb3.entity.TextCriteria;
 import ee.spiritix.filterssb3.external.model.FilterableObject;
 import ee.spiritix.filterssb3.mapper.TypeMapper;
 import ee.spiritix.filterssb3.repository.FilterRepository;
-import lombok.Builder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
-import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class FilterService {
 
+  static final int MAX_PAGE_SIZE = 1000;
+  static final int MAX_RESULT_LIMIT = 10_000;
+
   private final FilterRepository filterRepository;
   private final TypeMapper typeMapper;
+  private final CompiledFilterCache compiledFilterCache;
+  private final FilterCompiler filterCompiler;
+  private final ParallelFilterEvaluator parallelFilterEvaluator;
+  private final StoredFilterIndex storedFilterIndex;
+  private final FilterImporter filterImporter;
+  private final FilterEntityCache filterEntityCache;
+  private final FilterMetrics filterMetrics;
+  private final FilterFanOut filterFanOut;
+  private final TransactionTemplate transactionTemplate;
 
   public List<FilterDTO> getAllFilters() {
-    return typeMapper.mapList(filterRepository.findAll(), FilterDTO.class);
+    List<Filter> filters = filterRepository.findAll();
+    long start = System.nanoTime();
+    List<FilterDTO> filterDtos = typeMapper.mapList(filters, FilterDTO.class);
+    filterMetrics.recordMapping(FilterDTO.class, System.nanoTime() - start);
+    return filterDtos;
+  }
+
+  /**
+   * Returns the filters with an id greater than {@code after}, ordered by id. The page's criteria are fetched with
+   * the filters in one query; pass the returned {@code nextAfter} to get the following page.
+   */
+  public FilterPageDTO getFilterPage(Long after, int size) {
+    if (size < 1 || size > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+    }
+    List<Long> ids = filterRepository.findIdsAfter(after == null ? 0 : after, PageRequest.of(0, size));
+    List<Filter> filters = ids.isEmpty() ? List.of() : filterRepository.findAllWithCriteriaByIdIn(ids);
+    return FilterPageDTO.builder()
+        .filters(typeMapper.mapList(filters, FilterDTO.class))
+        .nextAfter(ids.size() < size ? null : ids.get(ids.size() - 1))
+        .build();
+  }
+
+  /**
+   * Lazily walks all filters page by page, so only one page is held in memory at a time.
+   */
+  public Stream<FilterDTO> streamAllFilters(int pageSize) {
+    return Stream.iterate(getFilterPage(null, pageSize), Objects::nonNull,
+            page -> page.getNextAfter() == null ? null : getFilterPage(page.getNextAfter(), pageSize))
+        .flatMap(page -> page.getFilters().stream());
   }
 
   public FilterDTO add(FilterDTO filterDto) {
     if (filterDto.getCriteriaList() == null || filterDto.getCriteriaList().isEmpty()) {
       throw new IllegalArgumentException("Filter must have at least one criteria");
     }
+    long start = System.nanoTime();
     Filter filter = (Filter) typeMapper.mapObject(filterDto, Filter.class);
-    return (FilterDTO) typeMapper.mapObject(filterRepository.save(filter), FilterDTO.class);
+    filterMetrics.recordMapping(Filter.class, System.nanoTime() - start);
+    filterCompiler.validate(filter);
+    Filter savedFilter = filterRepository.save(filter);
+    // Every write path must drop the compiled form, otherwise evaluation keeps using the stale criteria
+    compiledFilterCache.invalidate(savedFilter.getId());
+    filterEntityCache.evict(savedFilter.getId());
+    storedFilterIndex.filterSaved(savedFilter);
+    start = System.nanoTime();
+    FilterDTO savedFilterDto = (FilterDTO) typeMapper.mapObject(savedFilter, FilterDTO.class);
+    filterMetrics.recordMapping(FilterDTO.class, System.nanoTime() - start);
+    return savedFilterDto;
+  }
+
+  /**
+   * Saves many filters at once, see {@link FilterImporter}. Invalid filters are reported in the result instead of
+   * failing the whole import.
+   */
+  public FilterImportResultDTO importFilters(List<FilterDTO> filterDtos) {
+    return filterImporter.importFilters(filterDtos);
   }
 
   public List<FilterableObject> filterObjectsUsingFilterWithId(List<FilterableObject> objectsList, Long filterId) {
-    Filter filter = filterRepository.findById(filterId).orElseThrow();
-    FilterFunction filterFunction = mapEntityToFunction(filter);
+    FilterFunction filterFunction = getFilterFunction(filterId);
+    if (filterFunction.isUnsatisfiable()) {
+      filterMetrics.recordEvaluation(filterId, objectsList.size(), 0, 0);
+      return List.of();
+    }
 
-    return objectsList.stream()
-        .filter(filterFunction::filterBySelection)
-        .filter(filterableObject -> filterFunction.filterCriteria.stream()
-            .allMatch(filterCriteriaInterFace -> filterCriteriaInterFace.applyCriteria(filterableObject)))
+    long start = System.nanoTime();
+    List<FilterableObject> matching = objectsList.stream()
+        .filter(filterMetrics.sampling(filterFunction))
         .toList();
+    filterMetrics.recordEvaluation(filterId, objectsList.size(), matching.size(), System.nanoTime() - start);
+    return matching;
   }
 
-  private FilterFunction mapEntityToFunction(Filter entity) {
-    return FilterFunction.builder()
-        .selection(entity.getSelection())
-        .filterCriteria(entity.getFilterCriteria().stream()
-            .map(this::mapCriteriaToFunction)
-            .toList())
-        .build();
+  /**
+   * Applies a filter and returns only what {@code mode} asks for instead of the list of all matching objects.
+   * {@code limit} is the number of objects returned by {@link ResultMode#LIMIT} and {@link ResultMode#TOP}, and
+   * {@code rankBy} is the key {@code TOP} ranks them by. See {@link FilterResults}.
+   */
+  public FilterResultDTO evaluate(List<FilterableObject> objectsList, Long filterId, ResultMode mode, int limit,
+                                  RankBy rankBy) {
+    return evaluate(objectsList.iterator(), filterId, mode, limit, rankBy);
   }
 
-  private FilterCriteriaInterface mapCriteriaToFunction(FilterCriteria entity) {
-    if (entity instanceof AmountCriteria amountEntity) {
-      return AmountCriteriaFunction.builder()
-          .conditionType(AmountConditionType.valueOf(amountEntity.getConditionType().getValue().toUpperCase()))
-          .amountValue(amountEntity.getAmountValue())
-          .build();
-    } else if (entity instanceof DateCriteria dateEntity) {
-      return DateCriteriaFunction.builder()
-          .conditionType(DateConditionType.valueOf(dateEntity.getConditionType().getValue().toUpperCase()))
-          .dateValue(dateEntity.getDateValue())
-          .build();
-    } else if (entity instanceof TextCriteria textEntity) {
-      return TextCriteriaFunction.builder()
-          .conditionType(TextConditionType.valueOf(textEntity.getConditionType().getValue().toUpperCase()))
-          .textValue(textEntity.getTextValue())
-          .build();
+  /**
+   * Same as {@link #evaluate(List, Long, ResultMode, int, RankBy)}, but reads the objects from an iterator and stops
+   * reading once the result is known.
+   */
+  public FilterResultDTO evaluate(Iterator<FilterableObject> objects, Long filterId, ResultMode mode, int limit,
+                                  RankBy rankBy) {
+    Objects.requireNonNull(mode, "mode must not be null");
+    if ((mode == ResultMode.LIMIT || mode == ResultMode.TOP) && (limit < 1 || limit > MAX_RESULT_LIMIT)) {
+      throw new IllegalArgumentException("Limit must be between 1 and " + MAX_RESULT_LIMIT);
     }
-    throw new IllegalArgumentException("Unknown FilterCriteria type: " + entity.getClass().getName());
-  }
+    if (mode == ResultMode.TOP) {
+      Objects.requireNonNull(rankBy, "rankBy must not be null");
+    }
+    Predicate<FilterableObject> filter = getFilterPredicate(filterId);
 
-  @Builder
-  private static class FilterFunction {
-    private SelectionType selection;
-    private List<FilterCriteriaInterface> filterCriteria;
+    long start = System.nanoTime();
+    FilterResultDTO result = switch (mode) {
+      case COUNT -> FilterResults.count(objects, filter);
+      case EXISTS -> FilterResults.exists(objects, filter);
+      case LIMIT -> FilterResults.limit(objects, filter, limit);
+      case TOP -> FilterResults.top(objects, filter, limit, rankBy);
+    };
+    filterMetrics.recordEvaluation(filterId, saturatedInt(result.getEvaluated()), saturatedInt(matched(result)),
+        System.nanoTime() - start);
+    return result;
+  }
 
-    private boolean filterBySelection(FilterableObject object) {
-      return object.getSelection() == selection;
+  /**
+   * Evaluates all given filters against every object in a single pass. Bit {@code i} of an object's result is set
+   * when the object matches the filter at position {@code i} of {@code filterIds}. Filters missing from the compiled
+   * cache are loaded concurrently, each once however often its id is given.
+   */
+  public List<BitSet> matchFiltersWithIds(List<FilterableObject> objectsList, List<Long> filterIds) {
+    Map<Long, FilterFunction> functionsById = new HashMap<>();
+    List<Long> missing = new ArrayList<>();
+    for (Long filterId : new LinkedHashSet<>(filterIds)) {
+      FilterFunction cached = compiledFilterCache.getIfPresent(filterId);
+      if (cached != null) {
+        functionsById.put(filterId, cached);
+      } else {
+        missing.add(filterId);
+      }
+    }
+    List<FilterFunction> loaded = filterFanOut.map(missing, this::getFilterFunction);
+    for (int i = 0; i < missing.size(); i++) {
+      functionsById.put(missing.get(i), loaded.get(i));
     }
+
+    List<FilterFunction> filterFunctions = filterIds.stream().map(functionsById::get).toList();
+    MultiFilterEvaluator evaluator = new MultiFilterEvaluator(filterFunctions);
+    log.debug("Matching {} filters using {} shared probes", filterFunctions.size(), evaluator.getProbeCount());
+
+    return objectsList.stream()
+        .map(evaluator::evaluate)
+        .toList();
   }
 
-  private interface FilterCriteriaInterface {
-    boolean applyCriteria(FilterableObject object);
+  /**
+   * Finds the ids of all stored filters the object matches, using the shared index instead of evaluating every
+   * filter.
+   */
+  public List<Long> findMatchingFilterIds(FilterableObject object) {
+    return storedFilterIndex.findMatchingFilterIds(object);
   }
 
-  @Builder
-  private static class AmountCriteriaFunction implements FilterCriteriaInterface {
-    private AmountConditionType conditionType;
-    private BigDecimal amountValue;
+  /**
+   * Resolves the compiled filter eagerly, so a missing filter fails before any object is read.
+   */
+  public Predicate<FilterableObject> getFilterPredicate(Long filterId) {
+    FilterFunction filterFunction = getFilterFunction(filterId);
+    return filterFunction.isUnsatisfiable() ? object -> false : filterFunction::matches;
+  }
 
-    @Override
-    public boolean applyCriteria(FilterableObject object) {
-      return switch (conditionType) {
-        case GREATER_THAN -> object.getAmount().compareTo(amountValue) > 0;
-        case LESS_THAN -> object.getAmount().compareTo(amountValue) < 0;
-        case EQUALS -> object.getAmount().compareTo(amountValue) == 0;
-        case NOT_EQUALS -> object.getAmount().compareTo(amountValue) != 0;
-      };
+  /**
+   * Same result as {@link #filterObjectsUsingFilterWithId(List, Long)}, but lists above the configured threshold are
+   * split into chunks and evaluated on the filter evaluation pool.
+   */
+  public List<FilterableObject> filterObjectsUsingFilterWithIdParallel(List<FilterableObject> objectsList,
+                                                                       Long filterId) {
+    FilterFunction filterFunction = getFilterFunction(filterId);
+    if (filterFunction.isUnsatisfiable()) {
+      return List.of();
     }
+    return parallelFilterEvaluator.filter(objectsList, filterFunction);
   }
 
-  @Builder
-  private static class DateCriteriaFunction implements FilterCriteriaInterface {
-    private DateConditionType conditionType;
-    private LocalDate dateValue;
+  /**
+   * Same result as {@link #filterObjectsUsingFilterWithId(List, Long)}, but the objects are first transposed into a
+   * {@link FilterableObjectBatch} and every criterion is evaluated as a pass over a single column.
+   */
+  public List<FilterableObject> filterObjectsUsingFilterWithIdColumnar(List<FilterableObject> objectsList,
+                                                                       Long filterId) {
+    FilterFunction filterFunction = getFilterFunction(filterId);
+    if (filterFunction.isUnsatisfiable()) {
+      return List.of();
+    }
+    long[] matches = ColumnarFilterEvaluator.evaluate(filterFunction, FilterableObjectBatch.of(objectsList));
+    return ColumnarFilterEvaluator.select(objectsList, matches);
+  }
 
-    @Override
-    public boolean applyCriteria(FilterableObject object) {
-      return switch (conditionType) {
-        case IS -> object.getDate().isEqual(dateValue);
-        case IS_NOT -> !object.getDate().isEqual(dateValue);
-        case IS_AFTER -> object.getDate().isAfter(dateValue);
-        case IS_BEFORE -> object.getDate().isBefore(dateValue);
-      };
+  /**
+   * Evaluates a filter over an already columnar batch and returns the indexes of the matching rows.
+   */
+  public BitSet filterBatchUsingFilterWithId(FilterableObjectBatch batch, Long filterId) {
+    FilterFunction filterFunction = getFilterFunction(filterId);
+    return BitSet.valueOf(ColumnarFilterEvaluator.evaluate(filterFunction, batch));
+  }
+
+  /**
+   * Returns the order the criteria of a filter are currently evaluated in, with the sampled pass rate and cost of
+   * each criterion.
+   */
+  public FilterStatisticsDTO getFilterStatistics(Long filterId) {
+    AdaptiveCriteriaOrder adaptiveOrder = getFilterFunction(filterId).getAdaptiveOrder();
+    if (adaptiveOrder == null) {
+      return FilterStatisticsDTO.builder()
+          .filterId(filterId)
+          .criteria(List.of())
+          .build();
     }
+    return FilterStatisticsDTO.builder()
+        .filterId(filterId)
+        .adaptive(true)
+        .samples(adaptiveOrder.getSamples())
+        .criteria(adaptiveOrder.getStatistics())
+        .build();
   }
 
-  @Builder
-  private static class TextCriteriaFunction implements FilterCriteriaInterface {
-    private TextConditionType conditionType;
-    private String textValue;
+  /**
+   * Returns how the criteria of a filter were normalised when it was compiled, and whether it can match at all.
+   */
+  public FilterAnalysisDTO getFilterAnalysis(Long filterId) {
+    FilterAnalyzer.Analysis analysis = getFilterFunction(filterId).getAnalysis();
+    return FilterAnalysisDTO.builder()
+        .filterId(filterId)
+        .status(analysis.status())
+        .criteria(analysis.criteria().stream().map(FilterAnalyzer::describe).toList())
+        .findings(analysis.findings())
+        .build();
+  }
 
-    @Override
-    public boolean applyCriteria(FilterableObject object) {
-      return switch (conditionType) {
-        case EQUALS -> object.getTitle().equals(textValue);
-        case CONTAINS -> object.getTitle().contains(textValue);
-        case NOT_CONTAINS -> !object.getTitle().contains(textValue);
-        case NOT_EQUALS -> !object.getTitle().equals(textValue);
-      };
+  public CacheStatisticsDTO getCacheStatistics() {
+    return compiledFilterCache.getStatistics();
+  }
+
+  public EntityCacheStatisticsDTO getEntityCacheStatistics() {
+    return filterEntityCache.getStatistics();
+  }
+
+  private FilterFunction getFilterFunction(Long filterId) {
+    return compiledFilterCache.get(filterId, this::loadFilterFunction);
+  }
+
+  private FilterFunction loadFilterFunction(Long filterId) {
+    // Callers such as the reactive endpoints run outside a request's session, and the criteria are lazy
+    return transactionTemplate.execute(status -> {
+      long start = System.nanoTime();
+      Filter filter = filterRepository.findById(filterId).orElseThrow();
+      // Touch the criteria so the lookup time includes loading them
+      filter.getFilterCriteria().size();
+      filterMetrics.recordRepositoryLookup(System.nanoTime() - start);
+      return filterCompiler.compile(filter);
+    });
+  }
+
+  private static long matched(FilterResultDTO result) {
+    if (result.getCount() != null) {
+      return result.getCount();
     }
+    return Boolean.TRUE.equals(result.getExists()) ? 1 : 0;
+  }
+
+  private static int saturatedInt(long value) {
+    return (int) Math.min(value, Integer.MAX_VALUE);
   }
 }
@@ -0,0 +1,93 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Column-oriented form of a list of {@link FilterableObject}s. Amounts are stored as {@code long} values scaled by
+ * {@link #AMOUNT_SCALE}; rows whose amount does not fit keep the original value in {@link #exactAmounts} and have
+ * {@link #NOT_REPRESENTABLE} in {@link #scaledAmounts}. Dates are stored as epoch days and selections as ordinals.
+ */
+@Getter
+public final class FilterableObjectBatch {
+
+  public static final int AMOUNT_SCALE = ScaledAmounts.SCALE;
+  public static final long NOT_REPRESENTABLE = ScaledAmounts.NOT_REPRESENTABLE;
+
+  private final int size;
+  private final long[] scaledAmounts;
+  private final BigDecimal[] exactAmounts;
+  private final long[] epochDays;
+  private final byte[] selections;
+  private final String[] titles;
+  @Getter(AccessLevel.NONE)
+  private volatile String[] foldedTitles;
+
+  public FilterableObjectBatch(long[] scaledAmounts, BigDecimal[] exactAmounts, long[] epochDays, byte[] selections,
+                               String[] titles) {
+    int rows = scaledAmounts.length;
+    if (exactAmounts.length != rows || epochDays.length != rows || selections.length != rows
+        || titles.length != rows) {
+      throw new IllegalArgumentException("All columns of a batch must have the same length");
+    }
+    this.size = rows;
+    this.scaledAmounts = scaledAmounts;
+    this.exactAmounts = exactAmounts;
+    this.epochDays = epochDays;
+    this.selections = selections;
+    this.titles = titles;
+  }
+
+  public static FilterableObjectBatch of(List<FilterableObject> objects) {
+    int rows = objects.size();
+    long[] scaledAmounts = new long[rows];
+    BigDecimal[] exactAmounts = new BigDecimal[rows];
+    long[] epochDays = new long[rows];
+    byte[] selections = new byte[rows];
+    String[] titles = new String[rows];
+
+    for (int i = 0; i < rows; i++) {
+      FilterableObject object = objects.get(i);
+      scaledAmounts[i] = ScaledAmounts.toScaledLong(object.getAmount());
+      if (scaledAmounts[i] == NOT_REPRESENTABLE) {
+        exactAmounts[i] = object.getAmount();
+      }
+      epochDays[i] = object.getDate().toEpochDay();
+      selections[i] = (byte) object.getSelection().ordinal();
+      titles[i] = object.getTitle();
+    }
+    return new FilterableObjectBatch(scaledAmounts, exactAmounts, epochDays, selections, titles);
+  }
+
+  /**
+   * The titles folded for matching that ignores case and accents, computed on first use.
+   */
+  public String[] getFoldedTitles() {
+    String[] folded = foldedTitles;
+    if (folded == null) {
+      folded = new String[size];
+      for (int i = 0; i < size; i++) {
+        folded[i] = TextMatching.foldTitle(titles[i]);
+      }
+      foldedTitles = folded;
+    }
+    return folded;
+  }
+
+  public BigDecimal amount(int row) {
+    return scaledAmounts[row] == NOT_REPRESENTABLE
+        ? exactAmounts[row]
+        : ScaledAmounts.toBigDecimal(scaledAmounts[row]);
+  }
+
+  public FilterableObject row(int row) {
+    return new FilterableObject(amount(row), titles[row], LocalDate.ofEpochDay(epochDays[row]),
+        SelectionType.values()[selections[row]]);
+  }
+}
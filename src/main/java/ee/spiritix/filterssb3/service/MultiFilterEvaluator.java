@@ -0,0 +1,236 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.constant.TextMatchMode;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Evaluates many filters against one object in a single pass. Criteria of all filters are reduced to shared probes:
+ * every distinct amount threshold or date is compared once, every distinct text value or regular expression is
+ * searched once, and each criterion only checks whether the probe result is one it accepts. Probes are evaluated
+ * lazily, so a probe is skipped when every filter using it was already rejected.
+ *
+ * <p>Instances keep per-object scratch state and must not be shared between threads.</p>
+ */
+final class MultiFilterEvaluator {
+
+  private static final int ACCEPT_LESS = 1;
+  private static final int ACCEPT_EQUAL = 1 << 1;
+  private static final int ACCEPT_GREATER = 1 << 2;
+  private static final int ACCEPT_TRUE = ACCEPT_GREATER;
+  private static final int ACCEPT_FALSE = ACCEPT_EQUAL;
+
+  private final int filterCount;
+  private final int[][] filtersBySelection;
+  private final int[][] probesByFilter;
+  private final int[][] acceptedByFilter;
+  private final List<Probe> probes;
+
+  private final int[] evaluatedAt;
+  private final int[] results;
+  private int stamp;
+
+  MultiFilterEvaluator(List<FilterFunction> functions) {
+    this.filterCount = functions.size();
+    this.probesByFilter = new int[filterCount][];
+    this.acceptedByFilter = new int[filterCount][];
+    this.filtersBySelection = new int[SelectionType.values().length][];
+
+    Map<Probe, Integer> probeIndexes = new HashMap<>();
+    this.probes = new ArrayList<>();
+    List<List<Integer>> selectionFilters = new ArrayList<>();
+    for (int i = 0; i < SelectionType.values().length; i++) {
+      selectionFilters.add(new ArrayList<>());
+    }
+
+    for (int filter = 0; filter < filterCount; filter++) {
+      FilterFunction function = functions.get(filter);
+      // An unsatisfiable filter is in no selection, so it is never evaluated
+      if (!function.isUnsatisfiable()) {
+        selectionFilters.get(function.getSelection().ordinal()).add(filter);
+      }
+      List<FilterCriteriaInterface> criteria = function.getFilterCriteria();
+      probesByFilter[filter] = new int[criteria.size()];
+      acceptedByFilter[filter] = new int[criteria.size()];
+      for (int c = 0; c < criteria.size(); c++) {
+        FilterCriteriaInterface criterion = criteria.get(c);
+        Probe probe = probeFor(criterion);
+        probesByFilter[filter][c] = probeIndexes.computeIfAbsent(probe, key -> {
+          probes.add(probe);
+          return probes.size() - 1;
+        });
+        acceptedByFilter[filter][c] = acceptedResults(criterion);
+      }
+    }
+    for (int i = 0; i < filtersBySelection.length; i++) {
+      filtersBySelection[i] = selectionFilters.get(i).stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    this.evaluatedAt = new int[probes.size()];
+    this.results = new int[probes.size()];
+  }
+
+  int getProbeCount() {
+    return probes.size();
+  }
+
+  BitSet evaluate(FilterableObject object) {
+    BitSet matches = new BitSet(filterCount);
+    // A new stamp invalidates all probe results of the previous object without clearing the arrays
+    if (++stamp == 0) {
+      Arrays.fill(evaluatedAt, 0);
+      stamp = 1;
+    }
+    for (int filter : filtersBySelection[object.getSelection().ordinal()]) {
+      if (matchesAll(filter, object)) {
+        matches.set(filter);
+      }
+    }
+    return matches;
+  }
+
+  private boolean matchesAll(int filter, FilterableObject object) {
+    int[] filterProbes = probesByFilter[filter];
+    int[] accepted = acceptedByFilter[filter];
+    for (int c = 0; c < filterProbes.length; c++) {
+      int probe = filterProbes[c];
+      if (evaluatedAt[probe] != stamp) {
+        results[probe] = 1 << (probes.get(probe).evaluate(object) + 1);
+        evaluatedAt[probe] = stamp;
+      }
+      if ((results[probe] & accepted[c]) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static Probe probeFor(FilterCriteriaInterface criterion) {
+    if (criterion instanceof AmountCriteriaFunction amountFunction) {
+      return new AmountProbe(amountFunction.getAmountValue().stripTrailingZeros());
+    } else if (criterion instanceof DateCriteriaFunction dateFunction) {
+      return new DateProbe(dateFunction.getDateValue());
+    } else if (criterion instanceof TextCriteriaFunction textFunction) {
+      return switch (textFunction.getConditionType()) {
+        case EQUALS, NOT_EQUALS -> new TextEqualsProbe(textFunction.getFoldedValue(), textFunction.getMatchMode());
+        case CONTAINS, NOT_CONTAINS ->
+            new TextContainsProbe(textFunction.getFoldedValue(), textFunction.getMatchMode());
+        case STARTS_WITH -> new TextStartsWithProbe(textFunction.getFoldedValue(), textFunction.getMatchMode());
+        case ENDS_WITH -> new TextEndsWithProbe(textFunction.getFoldedValue(), textFunction.getMatchMode());
+        case MATCHES -> new TextMatchesProbe(textFunction.getTextValue(), textFunction.getMatchMode(),
+            textFunction.getPattern());
+      };
+    }
+    return new CriteriaProbe(criterion);
+  }
+
+  private static int acceptedResults(FilterCriteriaInterface criterion) {
+    if (criterion instanceof AmountCriteriaFunction amountFunction) {
+      return switch (amountFunction.getConditionType()) {
+        case GREATER_THAN -> ACCEPT_GREATER;
+        case LESS_THAN -> ACCEPT_LESS;
+        case EQUALS -> ACCEPT_EQUAL;
+        case NOT_EQUALS -> ACCEPT_LESS | ACCEPT_GREATER;
+      };
+    } else if (criterion instanceof DateCriteriaFunction dateFunction) {
+      return switch (dateFunction.getConditionType()) {
+        case IS -> ACCEPT_EQUAL;
+        case IS_NOT -> ACCEPT_LESS | ACCEPT_GREATER;
+        case IS_AFTER -> ACCEPT_GREATER;
+        case IS_BEFORE -> ACCEPT_LESS;
+      };
+    } else if (criterion instanceof TextCriteriaFunction textFunction) {
+      return textFunction.isNegated() ? ACCEPT_FALSE : ACCEPT_TRUE;
+    }
+    return ACCEPT_TRUE;
+  }
+
+  /**
+   * A shared piece of work whose result is -1, 0 or 1. Boolean probes return 1 for {@code true} and 0 for
+   * {@code false}. Probes are value objects, so equal probes of different filters collapse into one; unknown
+   * criteria are only shared when they are the same instance.
+   */
+  private interface Probe {
+    int evaluate(FilterableObject object);
+  }
+
+  private record AmountProbe(BigDecimal value) implements Probe {
+    @Override
+    public int evaluate(FilterableObject object) {
+      return object.getAmount().compareTo(value);
+    }
+  }
+
+  private record DateProbe(LocalDate value) implements Probe {
+    @Override
+    public int evaluate(FilterableObject object) {
+      return Integer.signum(object.getDate().compareTo(value));
+    }
+  }
+
+  private record TextEqualsProbe(String value, TextMatchMode matchMode) implements Probe {
+    @Override
+    public int evaluate(FilterableObject object) {
+      return TextMatching.equals(TextMatching.title(object, matchMode), value, matchMode) ? 1 : 0;
+    }
+  }
+
+  private record TextContainsProbe(String value, TextMatchMode matchMode) implements Probe {
+    @Override
+    public int evaluate(FilterableObject object) {
+      return TextMatching.contains(TextMatching.title(object, matchMode), value, matchMode) ? 1 : 0;
+    }
+  }
+
+  private record TextStartsWithProbe(String value, TextMatchMode matchMode) implements Probe {
+    @Override
+    public int evaluate(FilterableObject object) {
+      return TextMatching.startsWith(TextMatching.title(object, matchMode), value, matchMode) ? 1 : 0;
+    }
+  }
+
+  private record TextEndsWithProbe(String value, TextMatchMode matchMode) implements Probe {
+    @Override
+    public int evaluate(FilterableObject object) {
+      return TextMatching.endsWith(TextMatching.title(object, matchMode), value, matchMode) ? 1 : 0;
+    }
+  }
+
+  /**
+   * Equal by the regular expression and match mode, which determine the compiled pattern. {@link Pattern} itself
+   * only has identity equality.
+   */
+  private record TextMatchesProbe(String regex, TextMatchMode matchMode, Pattern pattern) implements Probe {
+    @Override
+    public int evaluate(FilterableObject object) {
+      return TextMatching.find(pattern, TextMatching.title(object, matchMode)) ? 1 : 0;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof TextMatchesProbe probe && regex.equals(probe.regex) && matchMode == probe.matchMode;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * regex.hashCode() + matchMode.hashCode();
+    }
+  }
+
+  private record CriteriaProbe(FilterCriteriaInterface criterion) implements Probe {
+    @Override
+    public int evaluate(FilterableObject object) {
+      return criterion.applyCriteria(object) ? 1 : 0;
+    }
+  }
+}
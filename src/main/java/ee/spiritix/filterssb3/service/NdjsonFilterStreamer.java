@@ -0,0 +1,94 @@
+package ee.spiritix.filterssb3.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Filters a newline-delimited JSON stream of {@link FilterableObject}s record by record. Only the record being
+ * evaluated is held in memory, matching records are flushed to the output as soon as they are evaluated. Also writes
+ * any lazily produced stream of records as newline-delimited JSON, and reads such a stream back, at once or lazily.
+ */
+@Slf4j
+@Component
+public class NdjsonFilterStreamer {
+
+  private final ObjectReader objectReader;
+  private final ObjectMapper objectMapper;
+
+  public NdjsonFilterStreamer(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+    this.objectReader = objectMapper.readerFor(FilterableObject.class);
+  }
+
+  public long filter(InputStream input, OutputStream output, Predicate<FilterableObject> filter) throws IOException {
+    long evaluated = 0;
+    long matched = 0;
+    try (MappingIterator<FilterableObject> objects = objectReader.readValues(input);
+         JsonGenerator generator = objectMapper.createGenerator(output)) {
+      configure(generator);
+      while (objects.hasNextValue()) {
+        FilterableObject object = objects.nextValue();
+        evaluated++;
+        if (filter.test(object)) {
+          generator.writeObject(object);
+          generator.writeRaw('\n');
+          // Matches can be far apart in a long input, so each one reaches the client without waiting for the next
+          generator.flush();
+          matched++;
+        }
+      }
+    }
+    log.debug("Streamed {} of {} objects", matched, evaluated);
+    return matched;
+  }
+
+  public long write(Stream<?> records, OutputStream output) throws IOException {
+    long written = 0;
+    try (JsonGenerator generator = objectMapper.createGenerator(output)) {
+      configure(generator);
+      Iterator<?> iterator = records.iterator();
+      while (iterator.hasNext()) {
+        generator.writeObject(iterator.next());
+        generator.writeRaw('\n');
+        written++;
+      }
+      generator.flush();
+    } finally {
+      records.close();
+    }
+    log.debug("Streamed {} records", written);
+    return written;
+  }
+
+  private static void configure(JsonGenerator generator) {
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    // Records are separated by the newline written after each one, not by the default space before the next
+    generator.setRootValueSeparator(null);
+  }
+
+  public <T> List<T> readAll(InputStream input, Class<T> type) throws IOException {
+    try (MappingIterator<T> records = iterate(input, type)) {
+      return records.readAll();
+    }
+  }
+
+  /**
+   * Reads the records one at a time as the returned iterator is advanced. The caller closes the iterator.
+   */
+  public <T> MappingIterator<T> iterate(InputStream input, Class<T> type) throws IOException {
+    return objectMapper.readerFor(type).readValues(input);
+  }
+}
@@ -0,0 +1,82 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Evaluates large object lists on the filter evaluation {@link ForkJoinPool}. The list is split into chunks aligned
+ * to 64 rows, every chunk writes its matches into its own words of a shared bitmap, and the matching objects are
+ * collected afterwards in input order. Lists below the threshold are filtered on the calling thread.
+ */
+@Component
+public class ParallelFilterEvaluator {
+
+  private final ForkJoinPool pool;
+  private final int threshold;
+  private final int chunkSize;
+
+  public ParallelFilterEvaluator(@Qualifier("filterEvaluationPool") ForkJoinPool pool,
+                                 @Value("${filters.evaluation.parallel.threshold:10000}") int threshold,
+                                 @Value("${filters.evaluation.parallel.chunk-size:4096}") int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size must be positive");
+    }
+    this.pool = pool;
+    this.threshold = threshold;
+    // Chunks must not share bitmap words, otherwise concurrent writes could lose bits
+    this.chunkSize = (chunkSize + 63) & ~63;
+  }
+
+  List<FilterableObject> filter(List<FilterableObject> objects, FilterFunction function) {
+    if (objects.size() < threshold) {
+      return objects.stream()
+          .filter(function::matches)
+          .toList();
+    }
+    long[] matches = new long[(objects.size() + 63) >>> 6];
+    pool.invoke(new ChunkTask(objects, function, matches, chunkSize, 0, objects.size()));
+    return ColumnarFilterEvaluator.select(objects, matches);
+  }
+
+  private static final class ChunkTask extends RecursiveAction {
+
+    private final List<FilterableObject> objects;
+    private final FilterFunction function;
+    private final long[] matches;
+    private final int chunkSize;
+    private final int from;
+    private final int to;
+
+    private ChunkTask(List<FilterableObject> objects, FilterFunction function, long[] matches, int chunkSize,
+                      int from, int to) {
+      this.objects = objects;
+      this.function = function;
+      this.matches = matches;
+      this.chunkSize = chunkSize;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= chunkSize) {
+        for (int i = from; i < to; i++) {
+          if (function.matches(objects.get(i))) {
+            matches[i >>> 6] |= 1L << i;
+          }
+        }
+        return;
+      }
+      int chunks = (to - from + chunkSize - 1) / chunkSize;
+      int middle = from + (chunks / 2) * chunkSize;
+      invokeAll(new ChunkTask(objects, function, matches, chunkSize, from, middle),
+          new ChunkTask(objects, function, matches, chunkSize, middle, to));
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package ee.spiritix.filterssb3.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Predicate;
+
+/**
+ * Filters reactive streams of {@link FilterableObject}s with the same compiled filters as {@link FilterService}.
+ * Objects are requested from upstream in batches of at most {@code prefetch} and only as fast as the subscriber
+ * consumes the matches, so a slow consumer never makes the whole feed pile up in memory.
+ *
+ * <p>Loading a filter and reading a request body block, so both run on the bounded elastic scheduler instead of the
+ * subscriber's thread.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "filters.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveFilterService {
+
+  private final FilterService filterService;
+  private final NdjsonFilterStreamer ndjsonFilterStreamer;
+  private final int prefetch;
+
+  public ReactiveFilterService(FilterService filterService, NdjsonFilterStreamer ndjsonFilterStreamer,
+                               @Value("${filters.reactive.prefetch:256}") int prefetch) {
+    this.filterService = filterService;
+    this.ndjsonFilterStreamer = ndjsonFilterStreamer;
+    this.prefetch = Math.max(1, prefetch);
+  }
+
+  public Flux<FilterableObject> filter(Long filterId, Flux<FilterableObject> objects) {
+    return Mono.fromCallable(() -> filterService.getFilterPredicate(filterId))
+        .subscribeOn(Schedulers.boundedElastic())
+        .flatMapMany(filter -> filter(filter, objects));
+  }
+
+  public Flux<FilterableObject> filter(Predicate<FilterableObject> filter, Flux<FilterableObject> objects) {
+    return objects.limitRate(prefetch).filter(filter);
+  }
+
+  /**
+   * Reads newline-delimited JSON objects from {@code input} as they are requested. The stream is closed when the
+   * returned flux completes, fails or is cancelled.
+   */
+  public Flux<FilterableObject> read(InputStream input) {
+    return Flux.using(
+            () -> ndjsonFilterStreamer.iterate(input, FilterableObject.class),
+            objects -> Flux.fromIterable(() -> objects),
+            ReactiveFilterService::close)
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+
+  private static void close(MappingIterator<FilterableObject> objects) {
+    try {
+      objects.close();
+    } catch (IOException e) {
+      log.warn("Could not close the object stream", e);
+    }
+  }
+}
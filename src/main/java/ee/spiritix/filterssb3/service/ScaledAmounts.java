@@ -0,0 +1,46 @@
+package ee.spiritix.filterssb3.service;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between {@link BigDecimal} amounts and {@code long} values scaled to the {@code DECIMAL(19, 2)}
+ * precision of {@code amount_value}. Values that cannot be represented exactly are reported as
+ * {@link #NOT_REPRESENTABLE} and have to be compared as {@link BigDecimal}s.
+ */
+final class ScaledAmounts {
+
+  static final int SCALE = 2;
+  static final long NOT_REPRESENTABLE = Long.MIN_VALUE;
+
+  private ScaledAmounts() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  /**
+   * The value scaled to {@link #SCALE}, or {@link #NOT_REPRESENTABLE} when it has more decimals or does not fit in a
+   * {@code long}. The conversion allocates, so it is done once per value, as for the columns of
+   * {@link FilterableObjectBatch} and the bounds of {@link AmountCriteriaFunction}, and not per comparison.
+   */
+  static long toScaledLong(BigDecimal value) {
+    if (value.scale() > SCALE && value.stripTrailingZeros().scale() > SCALE) {
+      return NOT_REPRESENTABLE;
+    }
+    return toLong(value.setScale(SCALE, RoundingMode.UNNECESSARY));
+  }
+
+  static long toScaledLong(BigDecimal value, RoundingMode roundingMode) {
+    return toLong(value.setScale(SCALE, roundingMode));
+  }
+
+  static BigDecimal toBigDecimal(long scaledValue) {
+    return BigDecimal.valueOf(scaledValue, SCALE);
+  }
+
+  private static long toLong(BigDecimal scaled) {
+    BigInteger unscaled = scaled.unscaledValue();
+    // Long.MIN_VALUE itself doubles as the marker, so it is reported as not representable too
+    return unscaled.bitLength() < Long.SIZE ? unscaled.longValue() : NOT_REPRESENTABLE;
+  }
+}
@@ -0,0 +1,186 @@
+package ee.spiritix.filterssb3.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import ee.spiritix.filterssb3.constant.ObjectChangeType;
+import ee.spiritix.filterssb3.dto.MembershipDeltaDTO;
+import ee.spiritix.filterssb3.dto.ObjectChangeDTO;
+import ee.spiritix.filterssb3.dto.SubscriptionDTO;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Standing filters: a subscription keeps the ids of the objects that currently match its filter, and every batch of
+ * object changes is answered with only the ids that entered or left that set. Objects themselves are not kept, so the
+ * state of a subscription is at most {@code maxMembers} ids. A batch that would grow it beyond that is rejected as a
+ * whole.
+ *
+ * <p>Every batch is evaluated with the filter as it is stored at that time, taken from the compiled filter cache, so
+ * a filter saved again applies to the next batch. Membership already decided is not re-evaluated. Subscriptions that
+ * are not used for {@code idleTimeout} expire, whether or not new ones are created.</p>
+ */
+@Slf4j
+@Component
+public class StandingFilterService {
+
+  private final FilterService filterService;
+  private final int maxSubscriptions;
+  private final int maxMembers;
+  private final Cache<String, Subscription> subscriptions;
+
+  public StandingFilterService(FilterService filterService,
+                               @Value("${filters.subscriptions.max-subscriptions:1000}") int maxSubscriptions,
+                               @Value("${filters.subscriptions.max-members:100000}") int maxMembers,
+                               @Value("${filters.subscriptions.idle-timeout:30m}") Duration idleTimeout) {
+    if (maxSubscriptions <= 0 || maxMembers <= 0) {
+      throw new IllegalArgumentException("Subscription limits must be positive");
+    }
+    this.filterService = filterService;
+    this.maxSubscriptions = maxSubscriptions;
+    this.maxMembers = maxMembers;
+    this.subscriptions = Caffeine.newBuilder()
+        .expireAfterAccess(idleTimeout)
+        // Expire on the calling thread, so the size checked against the limit is current
+        .executor(Runnable::run)
+        .removalListener((String id, Subscription subscription, RemovalCause cause) -> {
+          if (cause == RemovalCause.EXPIRED) {
+            log.debug("Dropped idle subscription {}", id);
+          }
+        })
+        .build();
+  }
+
+  public SubscriptionDTO subscribe(Long filterId) {
+    // Fails for a missing filter before a subscription exists
+    filterService.getFilterPredicate(filterId);
+    Subscription subscription = new Subscription(UUID.randomUUID().toString(), filterId);
+    synchronized (subscriptions) {
+      subscriptions.cleanUp();
+      if (subscriptions.estimatedSize() >= maxSubscriptions) {
+        throw new IllegalStateException("Too many subscriptions, the limit is " + maxSubscriptions);
+      }
+      subscriptions.put(subscription.id, subscription);
+    }
+    log.debug("Subscribed {} to filter {}", subscription.id, filterId);
+    return toDto(subscription);
+  }
+
+  public SubscriptionDTO getSubscription(String subscriptionId) {
+    Subscription subscription = get(subscriptionId);
+    synchronized (subscription) {
+      return toDto(subscription);
+    }
+  }
+
+  public void unsubscribe(String subscriptionId) {
+    if (subscriptions.asMap().remove(subscriptionId) == null) {
+      throw new NoSuchElementException("Subscription " + subscriptionId + " not found");
+    }
+  }
+
+  public MembershipDeltaDTO applyChanges(String subscriptionId, List<ObjectChangeDTO> changes) {
+    changes.forEach(StandingFilterService::validate);
+    Subscription subscription = get(subscriptionId);
+    Predicate<FilterableObject> filter = filterService.getFilterPredicate(subscription.filterId);
+    synchronized (subscription) {
+      // Membership of every changed object before the batch, so the delta is the net effect of the whole batch
+      Map<String, Boolean> before = new LinkedHashMap<>();
+      try {
+        for (ObjectChangeDTO change : changes) {
+          String objectId = change.getObjectId();
+          boolean member = change.getType() != ObjectChangeType.DELETE
+              && filter.test(change.getObject());
+          boolean wasMember = member
+              ? !subscription.members.add(objectId)
+              : subscription.members.remove(objectId);
+          before.putIfAbsent(objectId, wasMember);
+        }
+        if (subscription.members.size() > maxMembers) {
+          throw new IllegalStateException("Subscription " + subscriptionId + " would exceed " + maxMembers
+              + " matching objects");
+        }
+      } catch (RuntimeException e) {
+        rollBack(subscription, before);
+        throw e;
+      }
+
+      List<String> entered = new ArrayList<>();
+      List<String> left = new ArrayList<>();
+      before.forEach((objectId, wasMember) -> {
+        boolean member = subscription.members.contains(objectId);
+        if (member && !wasMember) {
+          entered.add(objectId);
+        } else if (!member && wasMember) {
+          left.add(objectId);
+        }
+      });
+      return MembershipDeltaDTO.builder()
+          .subscriptionId(subscriptionId)
+          .entered(entered)
+          .left(left)
+          .members(subscription.members.size())
+          .build();
+    }
+  }
+
+  private Subscription get(String subscriptionId) {
+    Subscription subscription = subscriptions.getIfPresent(subscriptionId);
+    if (subscription == null) {
+      throw new NoSuchElementException("Subscription " + subscriptionId + " not found");
+    }
+    return subscription;
+  }
+
+  private static void rollBack(Subscription subscription, Map<String, Boolean> before) {
+    before.forEach((objectId, wasMember) -> {
+      if (wasMember) {
+        subscription.members.add(objectId);
+      } else {
+        subscription.members.remove(objectId);
+      }
+    });
+  }
+
+  private static void validate(ObjectChangeDTO change) {
+    if (change == null || change.getType() == null || change.getObjectId() == null) {
+      throw new IllegalArgumentException("Every change needs a type and an objectId");
+    }
+    if (change.getType() != ObjectChangeType.DELETE && change.getObject() == null) {
+      throw new IllegalArgumentException("Change of " + change.getObjectId() + " has no object");
+    }
+  }
+
+  private static SubscriptionDTO toDto(Subscription subscription) {
+    return SubscriptionDTO.builder()
+        .id(subscription.id)
+        .filterId(subscription.filterId)
+        .members(subscription.members.size())
+        .build();
+  }
+
+  private static final class Subscription {
+
+    private final String id;
+    private final Long filterId;
+    private final Set<String> members = new HashSet<>();
+
+    private Subscription(String id, Long filterId) {
+      this.id = id;
+      this.filterId = filterId;
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.entity.Filter;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import ee.spiritix.filterssb3.repository.FilterRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Keeps a {@link FilterIndex} over every stored filter. The index is loaded from the repository on first use and
+ * afterwards kept current by adding saved filters incrementally.
+ *
+ * <p>Filters are only normalised for the index, not compiled; in compiled mode code is generated just for the criteria
+ * the index cannot answer itself.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StoredFilterIndex {
+
+  private final FilterRepository filterRepository;
+  private final FilterCompiler filterCompiler;
+  private final TransactionTemplate transactionTemplate;
+
+  private volatile FilterIndex index;
+
+  public List<Long> findMatchingFilterIds(FilterableObject object) {
+    return index().findMatchingFilterIds(object);
+  }
+
+  /**
+   * Adds or replaces a saved filter. Until the index is first used there is nothing to update, the filter is picked
+   * up by the initial load. Synchronized with the load, so a filter saved while it runs is not lost.
+   */
+  public synchronized void filterSaved(Filter filter) {
+    if (index != null) {
+      index.add(filter.getId(), filterCompiler.compileInterpreted(filter));
+    }
+  }
+
+  private FilterIndex index() {
+    FilterIndex current = index;
+    if (current == null) {
+      synchronized (this) {
+        current = index;
+        if (current == null) {
+          current = load();
+          index = current;
+        }
+      }
+    }
+    return current;
+  }
+
+  private FilterIndex load() {
+    FilterIndex loaded = new FilterIndex(filterCompiler::compileResidual);
+    // Criteria are lazy, so they have to be read while the session is open
+    transactionTemplate.executeWithoutResult(status -> filterRepository.findAll()
+        .forEach(filter -> loaded.add(filter.getId(), filterCompiler.compileInterpreted(filter))));
+    log.debug("Indexed {} stored filters", loaded.size());
+    return loaded;
+  }
+}
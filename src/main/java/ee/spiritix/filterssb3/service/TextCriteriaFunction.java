@@ -0,0 +1,61 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.TextConditionType;
+import ee.spiritix.filterssb3.constant.TextMatchMode;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.regex.Pattern;
+
+@Getter(AccessLevel.PACKAGE)
+class TextCriteriaFunction implements FilterCriteriaInterface {
+  private final TextConditionType conditionType;
+  private final String textValue;
+  private final TextMatchMode matchMode;
+  // The value folded for the match mode when the filter is compiled, titles are matched against it
+  private final String foldedValue;
+  // Compiled with the filter for MATCHES, so it is cached with the compiled filter; null for the other conditions
+  private final Pattern pattern;
+
+  @Builder
+  TextCriteriaFunction(TextConditionType conditionType, String textValue, TextMatchMode matchMode) {
+    this.conditionType = conditionType;
+    this.textValue = textValue;
+    this.matchMode = matchMode == null ? TextMatchMode.EXACT : matchMode;
+    if (conditionType == TextConditionType.MATCHES) {
+      this.foldedValue = textValue;
+      this.pattern = TextMatching.compile(textValue, this.matchMode);
+    } else {
+      this.foldedValue = TextMatching.fold(textValue, this.matchMode);
+      this.pattern = null;
+    }
+  }
+
+  @Override
+  public boolean applyCriteria(FilterableObject object) {
+    return matchesTitle(TextMatching.title(object, matchMode)) != isNegated();
+  }
+
+  /**
+   * Checks the title, as {@link TextMatching#title} returns it for the match mode, against the condition without its
+   * negation: not equals checks equality and not contains checks containment.
+   */
+  boolean matchesTitle(String title) {
+    return switch (conditionType) {
+      case EQUALS, NOT_EQUALS -> TextMatching.equals(title, foldedValue, matchMode);
+      case CONTAINS, NOT_CONTAINS -> TextMatching.contains(title, foldedValue, matchMode);
+      case STARTS_WITH -> TextMatching.startsWith(title, foldedValue, matchMode);
+      case ENDS_WITH -> TextMatching.endsWith(title, foldedValue, matchMode);
+      case MATCHES -> TextMatching.find(pattern, title);
+    };
+  }
+
+  boolean isNegated() {
+    return switch (conditionType) {
+      case NOT_EQUALS, NOT_CONTAINS -> true;
+      case EQUALS, CONTAINS, STARTS_WITH, ENDS_WITH, MATCHES -> false;
+    };
+  }
+}
@@ -0,0 +1,311 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.TextMatchMode;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Text comparison for each {@link TextMatchMode}. The criterion value is folded once with {@link #fold}, titles never
+ * are for {@link TextMatchMode#IGNORE_CASE}: they are compared with {@link String#equalsIgnoreCase} and
+ * {@link String#regionMatches(boolean, int, String, int, int)}, which fold one character at a time without
+ * allocating. For {@link TextMatchMode#IGNORE_CASE_AND_ACCENTS} the title has to be decomposed by {@link #foldTitle}
+ * and is then compared exactly. A single object is folded for each criterion that needs it, titles that are already
+ * lower case ASCII without copying; a {@link FilterableObjectBatch} folds each title once for all criteria.
+ *
+ * <p>Regular expressions are compiled once per criterion by {@link #compile} and searched for with {@link #find}.
+ * Patterns with the usual causes of catastrophic backtracking are rejected when compiled: a repeated group that
+ * itself repeats or holds an alternation, and more than one unbounded run of any character. Any other pattern may read
+ * at most {@link #MAX_REGEX_STEPS} characters of a title; a search that needs more is given up and counts as no match.
+ * The limit counts characters rather than time, so a title gets the same answer from every evaluator and on every
+ * run. Searches given up are counted, see {@link #stepLimitHits()}.</p>
+ */
+final class TextMatching {
+
+  static final int MAX_REGEX_STEPS = 1_000_000;
+
+  private static final int REGEX_FLAGS_IGNORE_CASE = Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+
+  private static final LongAdder STEP_LIMIT_HITS = new LongAdder();
+
+  private TextMatching() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  static String fold(String value, TextMatchMode mode) {
+    return switch (mode) {
+      case EXACT -> value;
+      case IGNORE_CASE -> foldCase(value);
+      case IGNORE_CASE_AND_ACCENTS -> foldTitle(value);
+    };
+  }
+
+  /**
+   * The title in the form {@link #equals} and {@link #contains} expect for {@code mode}.
+   */
+  static String title(FilterableObject object, TextMatchMode mode) {
+    return mode == TextMatchMode.IGNORE_CASE_AND_ACCENTS ? foldTitle(object.getTitle()) : object.getTitle();
+  }
+
+  /**
+   * Decomposes the text into base letters and combining marks, drops the marks and folds every remaining code point
+   * to the lower case of its upper case, so an accented capital matches its plain lower case letter. Letters without
+   * a decomposition, such as the Danish o with stroke, are only case folded. ASCII text that is already lower case is
+   * returned as is.
+   */
+  static String foldTitle(String text) {
+    boolean lowerAscii = true;
+    for (int i = 0; i < text.length() && lowerAscii; i++) {
+      char c = text.charAt(i);
+      lowerAscii = c < 0x80 && (c < 'A' || c > 'Z');
+    }
+    if (lowerAscii) {
+      return text;
+    }
+    String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+    StringBuilder folded = new StringBuilder(decomposed.length());
+    decomposed.codePoints()
+        .filter(codePoint -> Character.getType(codePoint) != Character.NON_SPACING_MARK)
+        .map(codePoint -> Character.toLowerCase(Character.toUpperCase(codePoint)))
+        .forEach(folded::appendCodePoint);
+    return folded.toString();
+  }
+
+  static boolean equals(String title, String folded, TextMatchMode mode) {
+    return switch (mode) {
+      case EXACT, IGNORE_CASE_AND_ACCENTS -> title.equals(folded);
+      case IGNORE_CASE -> title.equalsIgnoreCase(folded);
+    };
+  }
+
+  static boolean contains(String title, String folded, TextMatchMode mode) {
+    return switch (mode) {
+      case EXACT, IGNORE_CASE_AND_ACCENTS -> title.contains(folded);
+      case IGNORE_CASE -> containsIgnoreCase(title, folded);
+    };
+  }
+
+  static boolean startsWith(String title, String folded, TextMatchMode mode) {
+    return switch (mode) {
+      case EXACT, IGNORE_CASE_AND_ACCENTS -> title.startsWith(folded);
+      case IGNORE_CASE -> startsWithIgnoreCase(title, folded);
+    };
+  }
+
+  static boolean endsWith(String title, String folded, TextMatchMode mode) {
+    return switch (mode) {
+      case EXACT, IGNORE_CASE_AND_ACCENTS -> title.endsWith(folded);
+      case IGNORE_CASE -> endsWithIgnoreCase(title, folded);
+    };
+  }
+
+  static boolean startsWithIgnoreCase(String title, String folded) {
+    return title.regionMatches(true, 0, folded, 0, folded.length());
+  }
+
+  static boolean endsWithIgnoreCase(String title, String folded) {
+    // A negative offset never matches, so a title shorter than the value is rejected
+    return title.regionMatches(true, title.length() - folded.length(), folded, 0, folded.length());
+  }
+
+  /**
+   * Compiles a regular expression for {@code mode}. Ignoring case the pattern is case insensitive for all of Unicode;
+   * ignoring accents as well it is searched for in the folded title, so the accents are removed from the pattern too.
+   *
+   * @throws IllegalArgumentException when the pattern is invalid or can backtrack catastrophically
+   */
+  static Pattern compile(String regex, TextMatchMode mode) {
+    String backtracking = backtracking(regex);
+    if (backtracking != null) {
+      throw new IllegalArgumentException("Regular expression '" + regex + "' " + backtracking);
+    }
+    return switch (mode) {
+      case EXACT -> Pattern.compile(regex);
+      case IGNORE_CASE -> Pattern.compile(regex, REGEX_FLAGS_IGNORE_CASE);
+      case IGNORE_CASE_AND_ACCENTS -> Pattern.compile(stripAccents(regex), REGEX_FLAGS_IGNORE_CASE);
+    };
+  }
+
+  /**
+   * Whether the pattern occurs anywhere in the title, reading at most {@link #MAX_REGEX_STEPS} characters.
+   */
+  static boolean find(Pattern pattern, String title) {
+    try {
+      return pattern.matcher(new BoundedText(title)).find();
+    } catch (StepLimitExceeded e) {
+      STEP_LIMIT_HITS.increment();
+      return false;
+    }
+  }
+
+  /**
+   * How many searches were given up at {@link #MAX_REGEX_STEPS} since start-up, by any evaluator.
+   */
+  static long stepLimitHits() {
+    return STEP_LIMIT_HITS.sum();
+  }
+
+  /**
+   * Searches for a case folded value without folding the title. Only positions whose first character folds to the
+   * first character of the value are compared further.
+   */
+  static boolean containsIgnoreCase(String title, String folded) {
+    int length = folded.length();
+    if (length == 0) {
+      return true;
+    }
+    // Both sides folded, so a position is only skipped when regionMatches would reject it too
+    char first = foldCase(folded.charAt(0));
+    // A surrogate is compared as part of its code point, so leave it to regionMatches
+    boolean checkFirst = !Character.isSurrogate(first);
+    for (int i = 0, last = title.length() - length; i <= last; i++) {
+      if ((!checkFirst || foldCase(title.charAt(i)) == first) && title.regionMatches(true, i, folded, 0, length)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Folds every code point to the lower case of its upper case, the equivalence
+   * {@link String#equalsIgnoreCase} uses. Returns the value itself when nothing changes.
+   */
+  static String foldCase(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (Character.isSurrogate(c) || foldCase(c) != c) {
+        StringBuilder folded = new StringBuilder(value.length()).append(value, 0, i);
+        value.codePoints()
+            .skip(value.codePointCount(0, i))
+            .map(codePoint -> Character.toLowerCase(Character.toUpperCase(codePoint)))
+            .forEach(folded::appendCodePoint);
+        return folded.toString();
+      }
+    }
+    return value;
+  }
+
+  private static char foldCase(char c) {
+    return Character.toLowerCase(Character.toUpperCase(c));
+  }
+
+  private static String stripAccents(String regex) {
+    String decomposed = Normalizer.normalize(regex, Normalizer.Form.NFD);
+    StringBuilder stripped = new StringBuilder(decomposed.length());
+    decomposed.codePoints()
+        .filter(codePoint -> Character.getType(codePoint) != Character.NON_SPACING_MARK)
+        .forEach(stripped::appendCodePoint);
+    return stripped.toString();
+  }
+
+  /**
+   * Looks for the pattern shapes that backtrack catastrophically on a failed search: a group followed by {@code *},
+   * {@code +} or {@code {n,}} whose body also contains one of them, such as {@code (a+)+} or {@code (\w+\s?)*}, or
+   * an alternation, such as {@code (a|aa)+}, and more than one unbounded run of any character, such as
+   * {@code .*a.*b}, which tries every split of the title between the runs. Escaped characters and character classes
+   * are skipped.
+   *
+   * @return why the pattern is rejected, or {@code null} when it is not
+   */
+  private static String backtracking(String regex) {
+    // Per open group: whether its body repeats, whether it holds an alternation
+    Deque<boolean[]> groups = new ArrayDeque<>();
+    int wildcardRuns = 0;
+    boolean inClass = false;
+    for (int i = 0; i < regex.length(); i++) {
+      char c = regex.charAt(i);
+      boolean repeated = i + 1 < regex.length() && isRepetition(regex, i + 1);
+      if (c == '\\') {
+        i++;
+      } else if (inClass) {
+        inClass = c != ']';
+      } else if (c == '[') {
+        inClass = true;
+      } else if (c == '(') {
+        groups.push(new boolean[2]);
+      } else if (c == ')' && !groups.isEmpty()) {
+        boolean[] body = groups.pop();
+        if (repeated && body[0]) {
+          return "repeats a group that itself repeats, which can take exponential time";
+        }
+        if (repeated && body[1]) {
+          return "repeats a group with an alternation, which can take exponential time";
+        }
+        if (!groups.isEmpty()) {
+          groups.peek()[0] |= body[0];
+          groups.peek()[1] |= body[1];
+        }
+      } else if (c == '|' && !groups.isEmpty()) {
+        groups.peek()[1] = true;
+      } else if (isRepetition(regex, i) && !groups.isEmpty()) {
+        groups.peek()[0] = true;
+      } else if (c == '.' && repeated && ++wildcardRuns > 1) {
+        return "has more than one unbounded run of any character, which can take polynomial time";
+      }
+    }
+    return null;
+  }
+
+  private static boolean isRepetition(String regex, int index) {
+    char c = regex.charAt(index);
+    if (c == '*' || c == '+') {
+      return true;
+    }
+    if (c != '{') {
+      return false;
+    }
+    int end = regex.indexOf('}', index);
+    // {n} repeats a fixed number of times, {n,} and {n,m} let the engine choose
+    return end > 0 && regex.substring(index, end).contains(",");
+  }
+
+  /**
+   * The title as the regex engine reads it, counting every character read.
+   */
+  private static final class BoundedText implements CharSequence {
+
+    private final String text;
+    private int steps = MAX_REGEX_STEPS;
+
+    private BoundedText(String text) {
+      this.text = text;
+    }
+
+    @Override
+    public char charAt(int index) {
+      if (--steps < 0) {
+        throw StepLimitExceeded.INSTANCE;
+      }
+      return text.charAt(index);
+    }
+
+    @Override
+    public int length() {
+      return text.length();
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return text.subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+      return text;
+    }
+  }
+
+  private static final class StepLimitExceeded extends RuntimeException {
+
+    private static final StepLimitExceeded INSTANCE = new StepLimitExceeded();
+
+    private StepLimitExceeded() {
+      // Thrown for control flow only, so without a stack trace
+      super(null, null, false, false);
+    }
+  }
+}
@@ -0,0 +1,11 @@
+-- liquibase formatted sql
+
+-- Sequences for Filter and FilterCriteria ids. Hibernate reserves 50 ids per call, so the increment must match the
+-- allocationSize of the entities. Unlike identity columns they let Hibernate batch inserts.
+CREATE SEQUENCE filter_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE filter_criteria_seq START WITH 1 INCREMENT BY 50;
+
+-- Continue after the ids already handed out by the identity columns. Hibernate's pooled optimizer takes the value it
+-- reads from a sequence as the last id of its block of 50, so the first value must be 50 past the largest id.
+ALTER SEQUENCE filter_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM filter);
+ALTER SEQUENCE filter_criteria_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM filter_criteria);
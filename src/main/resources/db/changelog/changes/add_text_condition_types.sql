@@ -0,0 +1,8 @@
+-- liquibase formatted sql
+
+-- Text criteria can also check a prefix, a suffix or a regular expression (STARTS_WITH, ENDS_WITH, MATCHES).
+-- Regular expressions are stored in text_value, which keeps its limit of 500 characters.
+ALTER TABLE filter_criteria ADD CONSTRAINT chk_text_condition_type CHECK (
+    text_condition_type IS NULL
+    OR text_condition_type IN ('EQUALS', 'CONTAINS', 'NOT_CONTAINS', 'NOT_EQUALS', 'STARTS_WITH', 'ENDS_WITH',
+                               'MATCHES'));
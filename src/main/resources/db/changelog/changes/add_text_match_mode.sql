@@ -0,0 +1,8 @@
+-- liquibase formatted sql
+
+-- How text criteria compare titles: EXACT, IGNORE_CASE or IGNORE_CASE_AND_ACCENTS. Existing criteria stay exact.
+ALTER TABLE filter_criteria ADD COLUMN text_match_mode VARCHAR(50);
+
+UPDATE filter_criteria
+SET text_match_mode = 'EXACT'
+WHERE filter_type = 'Title';
@@ -0,0 +1,31 @@
+-- liquibase formatted sql
+
+-- Move the criteria subtype columns into filter_criteria (single-table inheritance).
+-- Each subtype keeps its own condition column, because the condition types are different enums.
+ALTER TABLE filter_criteria ADD COLUMN amount_condition_type VARCHAR(100);
+ALTER TABLE filter_criteria ADD COLUMN amount_value DECIMAL(19, 2);
+ALTER TABLE filter_criteria ADD COLUMN date_condition_type VARCHAR(100);
+ALTER TABLE filter_criteria ADD COLUMN date_value DATE;
+ALTER TABLE filter_criteria ADD COLUMN text_condition_type VARCHAR(100);
+ALTER TABLE filter_criteria ADD COLUMN text_value VARCHAR(500);
+
+-- Copy existing criteria from the subtype tables
+UPDATE filter_criteria
+SET amount_condition_type = (SELECT a.condition_type FROM amount_criteria a WHERE a.id = filter_criteria.id),
+    amount_value          = (SELECT a.amount_value FROM amount_criteria a WHERE a.id = filter_criteria.id)
+WHERE filter_type = 'Amount';
+
+UPDATE filter_criteria
+SET date_condition_type = (SELECT d.condition_type FROM date_criteria d WHERE d.id = filter_criteria.id),
+    date_value          = (SELECT d.date_value FROM date_criteria d WHERE d.id = filter_criteria.id)
+WHERE filter_type = 'Date';
+
+UPDATE filter_criteria
+SET text_condition_type = (SELECT t.condition_type FROM text_criteria t WHERE t.id = filter_criteria.id),
+    text_value          = (SELECT t.text_value FROM text_criteria t WHERE t.id = filter_criteria.id)
+WHERE filter_type = 'Title';
+
+-- Drop the subtype tables
+DROP TABLE amount_criteria;
+DROP TABLE date_criteria;
+DROP TABLE text_criteria;
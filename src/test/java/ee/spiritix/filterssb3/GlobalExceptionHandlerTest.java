@@ -36,4 +36,17 @@ class GlobalExceptionHandlerTest {
             .content(malformedJson))
         .andExpect(status().isBadRequest());
   }
-}
\ No newline at end of file
+
+  @Test
+  void shouldReturnBadRequest_WhenConditionTypeIsUnknown() throws Exception {
+    String unknownConditionJson = """
+        {"name": "Filter", "selection": "S1", "criteriaList": [
+          {"filterType": "Amount", "conditionType": "between", "value": 10}
+        ]}""";
+
+    mockMvc.perform(post("/api/filters")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(unknownConditionJson))
+        .andExpect(status().isBadRequest());
+  }
+}
@@ -2,37 +2,55 @@ package ee.spiritix.filterssb3.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import ee.spiritix.filterssb3.constant.AmountConditionType;
+import ee.spiritix.filterssb3.constant.RankBy;
+import ee.spiritix.filterssb3.constant.ResultMode;
 import ee.spiritix.filterssb3.constant.SelectionType;
 import ee.spiritix.filterssb3.dto.AmountCriteriaDTO;
 import ee.spiritix.filterssb3.dto.DateCriteriaDTO;
 import ee.spiritix.filterssb3.dto.FilterDTO;
+import ee.spiritix.filterssb3.dto.FilterImportErrorDTO;
+import ee.spiritix.filterssb3.dto.FilterImportResultDTO;
+import ee.spiritix.filterssb3.dto.FilterResultDTO;
 import ee.spiritix.filterssb3.dto.TextCriteriaDTO;
 import ee.spiritix.filterssb3.entity.AmountCriteria;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
 import ee.spiritix.filterssb3.service.FilterService;
+import ee.spiritix.filterssb3.service.NdjsonFilterStreamer;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
 
 import static ee.spiritix.filterssb3.constant.FilterCriteriaTypes.AMOUNT;
 import static ee.spiritix.filterssb3.constant.FilterCriteriaTypes.DATE;
 import static ee.spiritix.filterssb3.constant.FilterCriteriaTypes.TEXT;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(FilterController.class)
+@Import(NdjsonFilterStreamer.class)
 class FilterControllerTest {
 
   @Autowired
@@ -217,4 +235,73 @@ class FilterControllerTest {
         .andExpect(status().isCreated())
         .andExpect(jsonPath("$.criteriaList", hasSize(2)));
   }
-}
\ No newline at end of file
+
+  @Test
+  void apply_ShouldStreamOnlyMatchingObjects() throws Exception {
+    when(filterService.getFilterPredicate(1L))
+        .thenReturn(object -> object.getAmount().compareTo(BigDecimal.valueOf(150)) > 0);
+    String objects = """
+        {"amount":100,"title":"Apple Product","date":"2024-01-01","selection":"S1"}
+        {"amount":200,"title":"Banana Item","date":"2024-01-02","selection":"S1"}
+        """;
+
+    MvcResult result = mockMvc.perform(post("/api/filters/1/apply")
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .content(objects))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().string(containsString("\"title\":\"Banana Item\"")))
+        .andExpect(content().string(not(containsString("Apple Product"))));
+  }
+
+  @Test
+  void importFilters_ShouldReadNdjsonAndReturnPerItemErrors() throws Exception {
+    when(filterService.importFilters(argThat(filters -> filters.size() == 2)))
+        .thenReturn(FilterImportResultDTO.builder()
+            .imported(1)
+            .failed(1)
+            .filterIds(List.of(7L))
+            .errors(List.of(FilterImportErrorDTO.builder().index(1).message("name must not be empty").build()))
+            .build());
+    String filters = """
+        {"name":"A","selection":"S1","criteriaList":[{"filterType":"Title","conditionType":"contains","value":"A"}]}
+        {"selection":"S1","criteriaList":[{"filterType":"Amount","conditionType":"greater_than","value":1}]}
+        """;
+
+    mockMvc.perform(post("/api/filters/import")
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .content(filters))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.imported", is(1)))
+        .andExpect(jsonPath("$.errors[0].index", is(1)));
+  }
+
+  @Test
+  void evaluate_ShouldReturnCountWithoutObjects() throws Exception {
+    when(filterService.evaluate(any(Iterator.class), eq(1L), eq(ResultMode.COUNT), eq(50), eq(RankBy.AMOUNT)))
+        .thenAnswer(invocation -> {
+          Iterator<FilterableObject> objects = invocation.getArgument(0);
+          long evaluated = 0;
+          for (; objects.hasNext(); objects.next()) {
+            evaluated++;
+          }
+          return FilterResultDTO.builder().mode(ResultMode.COUNT).evaluated(evaluated).count(1L).build();
+        });
+    String objects = """
+        {"amount":100,"title":"Apple Product","date":"2024-01-01","selection":"S1"}
+        {"amount":200,"title":"Banana Item","date":"2024-01-02","selection":"S1"}
+        """;
+
+    mockMvc.perform(post("/api/filters/1/evaluate")
+            .param("mode", "COUNT")
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .content(objects))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.evaluated", is(2)))
+        .andExpect(jsonPath("$.count", is(1)))
+        .andExpect(jsonPath("$.objects").doesNotExist());
+  }
+}
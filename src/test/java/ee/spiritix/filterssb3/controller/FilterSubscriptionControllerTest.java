@@ -0,0 +1,100 @@
+package ee.spiritix.filterssb3.controller;
+
+import ee.spiritix.filterssb3.dto.MembershipDeltaDTO;
+import ee.spiritix.filterssb3.dto.SubscriptionDTO;
+import ee.spiritix.filterssb3.service.StandingFilterService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(FilterSubscriptionController.class)
+class FilterSubscriptionControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private StandingFilterService standingFilterService;
+
+  @Test
+  void subscribe_ShouldReturnCreatedSubscription() throws Exception {
+    when(standingFilterService.subscribe(1L))
+        .thenReturn(SubscriptionDTO.builder().id("sub-1").filterId(1L).members(0).build());
+
+    mockMvc.perform(post("/api/subscriptions").param("filterId", "1"))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.id", is("sub-1")))
+        .andExpect(jsonPath("$.filterId", is(1)));
+  }
+
+  @Test
+  void applyChanges_ShouldReturnDelta() throws Exception {
+    when(standingFilterService.applyChanges(eq("sub-1"), argThat(changes -> changes.size() == 2)))
+        .thenReturn(MembershipDeltaDTO.builder()
+            .subscriptionId("sub-1")
+            .entered(List.of("a"))
+            .left(List.of())
+            .members(1)
+            .build());
+    String changes = """
+        [
+          {"type":"INSERT","objectId":"a",
+           "object":{"amount":200,"title":"Banana Item","date":"2024-01-02","selection":"S1"}},
+          {"type":"DELETE","objectId":"b"}
+        ]
+        """;
+
+    mockMvc.perform(post("/api/subscriptions/sub-1/changes")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(changes))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.entered", contains("a")))
+        .andExpect(jsonPath("$.left", hasSize(0)))
+        .andExpect(jsonPath("$.members", is(1)));
+  }
+
+  @Test
+  void getSubscription_ShouldReturnNotFound_WhenUnknown() throws Exception {
+    when(standingFilterService.getSubscription("missing"))
+        .thenThrow(new NoSuchElementException("Subscription missing not found"));
+
+    mockMvc.perform(get("/api/subscriptions/missing"))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  void unsubscribe_ShouldReturnNoContent() throws Exception {
+    mockMvc.perform(delete("/api/subscriptions/sub-1"))
+        .andExpect(status().isNoContent());
+  }
+
+  @Test
+  void applyChanges_ShouldReturnConflict_WhenLimitReached() throws Exception {
+    doThrow(new IllegalStateException("Subscription sub-1 would exceed 3 matching objects"))
+        .when(standingFilterService).applyChanges(eq("sub-1"), argThat(changes -> true));
+
+    mockMvc.perform(post("/api/subscriptions/sub-1/changes")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[]"))
+        .andExpect(status().isConflict());
+  }
+}
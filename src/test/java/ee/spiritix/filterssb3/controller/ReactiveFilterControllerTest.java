@@ -0,0 +1,67 @@
+package ee.spiritix.filterssb3.controller;
+
+import ee.spiritix.filterssb3.service.FilterService;
+import ee.spiritix.filterssb3.service.NdjsonFilterStreamer;
+import ee.spiritix.filterssb3.service.ReactiveFilterService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ReactiveFilterController.class)
+@Import({ReactiveFilterService.class, NdjsonFilterStreamer.class})
+class ReactiveFilterControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private FilterService filterService;
+
+  @Test
+  void apply_ShouldStreamOnlyMatchingObjects() throws Exception {
+    when(filterService.getFilterPredicate(1L))
+        .thenReturn(object -> object.getAmount().compareTo(BigDecimal.valueOf(150)) > 0);
+    String objects = """
+        {"amount":100,"title":"Apple Product","date":"2024-01-01","selection":"S1"}
+        {"amount":200,"title":"Banana Item","date":"2024-01-02","selection":"S1"}
+        """;
+
+    MvcResult result = mockMvc.perform(post("/api/filters/1/apply/reactive")
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .accept(MediaType.APPLICATION_NDJSON)
+            .content(objects))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().string(containsString("\"title\":\"Banana Item\"")))
+        .andExpect(content().string(not(containsString("Apple Product"))));
+  }
+
+  @Test
+  void apply_ShouldReturnBadRequest_WhenFilterInvalid() throws Exception {
+    when(filterService.getFilterPredicate(2L)).thenThrow(new IllegalArgumentException("Filter not found"));
+
+    mockMvc.perform(post("/api/filters/2/apply/reactive")
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .content("{}"))
+        .andExpect(status().isBadRequest());
+  }
+}
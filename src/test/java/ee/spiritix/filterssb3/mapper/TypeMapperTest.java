@@ -4,6 +4,7 @@ import ee.spiritix.filterssb3.constant.AmountConditionType;
 import ee.spiritix.filterssb3.constant.DateConditionType;
 import ee.spiritix.filterssb3.constant.SelectionType;
 import ee.spiritix.filterssb3.constant.TextConditionType;
+import ee.spiritix.filterssb3.constant.TextMatchMode;
 import ee.spiritix.filterssb3.dto.AmountCriteriaDTO;
 import ee.spiritix.filterssb3.dto.DateCriteriaDTO;
 import ee.spiritix.filterssb3.dto.FilterDTO;
@@ -232,6 +233,7 @@ class TypeMapperTest {
         .filterType(TEXT)
         .conditionType("contains")
         .value("test value")
+        .matchMode("ignore_case")
         .build();
 
     FilterDTO dto = FilterDTO.builder()
@@ -248,6 +250,7 @@ class TypeMapperTest {
     TextCriteria mappedCriteria = (TextCriteria) entity.getFilterCriteria().get(0);
     assertThat(mappedCriteria.getTextValue()).isEqualTo("test value");
     assertThat(mappedCriteria.getConditionType()).isEqualTo(TextConditionType.CONTAINS);
+    assertThat(mappedCriteria.getMatchMode()).isEqualTo(TextMatchMode.IGNORE_CASE);
   }
 
   @Test
@@ -309,6 +312,7 @@ class TypeMapperTest {
         .filter(filter)
         .conditionType(TextConditionType.EQUALS)
         .textValue("test")
+        .matchMode(TextMatchMode.IGNORE_CASE_AND_ACCENTS)
         .build();
 
     filter.setFilterCriteria(List.of(textCriteria));
@@ -323,6 +327,7 @@ class TypeMapperTest {
     assertThat(mappedCriteria.getFilterType()).isEqualTo(TEXT);
     assertThat(mappedCriteria.getConditionType()).isEqualTo("equals");
     assertThat(mappedCriteria.getValue()).isEqualTo("test");
+    assertThat(mappedCriteria.getMatchMode()).isEqualTo("ignore_case_and_accents");
   }
 
   @Test
@@ -448,6 +453,35 @@ class TypeMapperTest {
     assertThat(entity.getFilterCriteria()).isNotNull();
   }
 
+  @Test
+  void mapDtoToEntity_ShouldLinkCriteriaToFilter() {
+    TextCriteriaDTO textCriteria = TextCriteriaDTO.builder()
+        .filterType(TEXT)
+        .conditionType("contains")
+        .value("test")
+        .build();
+
+    FilterDTO dto = FilterDTO.builder()
+        .name("Linked Filter")
+        .selection(S1)
+        .criteriaList(List.of(textCriteria))
+        .build();
+
+    Filter entity = (Filter) typeMapper.mapObject(dto, Filter.class);
+
+    assertThat(entity.getFilterCriteria().get(0).getFilter()).isSameAs(entity);
+  }
+
+  @Test
+  void mapObject_ShouldRejectUnsupportedTargetClass() {
+    FilterDTO dto = FilterDTO.builder()
+        .name("Test Filter")
+        .selection(S1)
+        .build();
+
+    assertThrows(IllegalArgumentException.class, () -> typeMapper.mapObject(dto, FilterDTO.class));
+  }
+
   @Test
   void addCriteria_ShouldEstablishBidirectionalRelationship() {
     Filter filter = new Filter();
@@ -8,13 +8,16 @@ import ee.spiritix.filterssb3.entity.AmountCriteria;
 import ee.spiritix.filterssb3.entity.DateCriteria;
 import ee.spiritix.filterssb3.entity.Filter;
 import ee.spiritix.filterssb3.entity.TextCriteria;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 import static ee.spiritix.filterssb3.constant.SelectionType.S1;
@@ -173,4 +176,49 @@ class FilterRepositoryTest {
     Filter deletedFilter = entityManager.find(Filter.class, filterId);
     assertThat(deletedFilter).isNull();
   }
+
+  @Test
+  void findIdsAfter_ShouldReturnNextKeysetPage() {
+    List<Long> ids = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      Filter filter = new Filter();
+      filter.setName("Filter " + i);
+      filter.setSelection(S1);
+      ids.add(entityManager.persistAndFlush(filter).getId());
+    }
+
+    assertThat(filterRepository.findIdsAfter(0, PageRequest.of(0, 2))).containsExactly(ids.get(0), ids.get(1));
+    assertThat(filterRepository.findIdsAfter(ids.get(1), PageRequest.of(0, 2))).containsExactly(ids.get(2), ids.get(3));
+    assertThat(filterRepository.findIdsAfter(ids.get(3), PageRequest.of(0, 2))).containsExactly(ids.get(4));
+  }
+
+  @Test
+  void findAllWithCriteriaByIdIn_ShouldFetchCriteriaWithFilters() {
+    List<Long> ids = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      Filter filter = new Filter();
+      filter.setName("Filter " + i);
+      filter.setSelection(S1);
+      filter.getFilterCriteria().add(TextCriteria.builder()
+          .filter(filter)
+          .conditionType(TextConditionType.CONTAINS)
+          .textValue("test " + i)
+          .build());
+      filter.getFilterCriteria().add(AmountCriteria.builder()
+          .filter(filter)
+          .conditionType(AmountConditionType.GREATER_THAN)
+          .amountValue(BigDecimal.valueOf(i))
+          .build());
+      ids.add(entityManager.persistAndFlush(filter).getId());
+    }
+    entityManager.clear();
+
+    List<Filter> filters = filterRepository.findAllWithCriteriaByIdIn(ids.subList(0, 2));
+
+    assertThat(filters).extracting(Filter::getId).containsExactly(ids.get(0), ids.get(1));
+    assertThat(filters).allSatisfy(filter -> {
+      assertThat(Hibernate.isInitialized(filter.getFilterCriteria())).isTrue();
+      assertThat(filter.getFilterCriteria()).hasSize(2);
+    });
+  }
 }
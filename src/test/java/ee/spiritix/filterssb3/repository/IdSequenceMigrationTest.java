@@ -0,0 +1,88 @@
+package ee.spiritix.filterssb3.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the migrations on a database that already has rows from the identity columns, as an existing installation does
+class IdSequenceMigrationTest {
+
+  private static final int ALLOCATION_SIZE = 50;
+
+  private Connection connection;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    connection = DriverManager.getConnection("jdbc:h2:mem:id-sequence-migration", "sa", "");
+    migrate("add-initial-schema.sql");
+    migrate("add_initial_tables.sql");
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("DROP ALL OBJECTS");
+    }
+    connection.close();
+  }
+
+  @Test
+  @DisplayName("Should start the first block of ids after the seeded rows")
+  void migrate_ShouldNotReuseSeededIds() throws SQLException {
+    execute("INSERT INTO filter (name, selection) VALUES ('First', 'S1'), ('Second', 'S2')");
+    execute("INSERT INTO filter (id, name, selection) VALUES (75, 'Imported', 'S3')");
+    for (int id = 1; id <= 3; id++) {
+      execute("INSERT INTO filter_criteria (filter_type, filter_id) VALUES ('Title', 1)");
+      execute("INSERT INTO text_criteria (id, condition_type, text_value) VALUES (" + id + ", 'CONTAINS', 'a')");
+    }
+
+    migrate("move_criteria_to_single_table.sql");
+    migrate("add_id_sequences.sql");
+
+    assertThat(firstPooledId("filter_seq")).isGreaterThan(75);
+    assertThat(firstPooledId("filter_criteria_seq")).isGreaterThan(3);
+  }
+
+  @Test
+  @DisplayName("Should start at 1 when there are no rows")
+  void migrate_ShouldStartAtOne_WhenEmpty() throws SQLException {
+    migrate("move_criteria_to_single_table.sql");
+    migrate("add_id_sequences.sql");
+
+    assertThat(firstPooledId("filter_seq")).isEqualTo(1);
+    assertThat(firstPooledId("filter_criteria_seq")).isEqualTo(1);
+  }
+
+  /**
+   * The first id Hibernate's pooled optimizer hands out: the sequence value is the last id of a block of
+   * {@link #ALLOCATION_SIZE}.
+   */
+  private long firstPooledId(String sequence) throws SQLException {
+    try (Statement statement = connection.createStatement();
+         ResultSet resultSet = statement.executeQuery("SELECT NEXT VALUE FOR " + sequence)) {
+      resultSet.next();
+      return resultSet.getLong(1) - ALLOCATION_SIZE + 1;
+    }
+  }
+
+  private void migrate(String changes) {
+    ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/changelog/changes/" + changes));
+  }
+
+  private void execute(String sql) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(sql);
+    }
+  }
+}
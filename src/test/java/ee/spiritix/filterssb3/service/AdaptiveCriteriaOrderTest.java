@@ -0,0 +1,105 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.AmountConditionType;
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.dto.CriterionStatisticsDTO;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveCriteriaOrderTest {
+
+  private static final FilterCriteriaInterface ALWAYS = object -> true;
+  private static final AmountCriteriaFunction ABOVE_90 = AmountCriteriaFunction.builder()
+      .conditionType(AmountConditionType.GREATER_THAN)
+      .amountValue(BigDecimal.valueOf(90))
+      .build();
+
+  @Test
+  @DisplayName("Should move the criterion that rejects most objects to the front")
+  void matches_ShouldReorderBySelectivity() {
+    AdaptiveCriteriaOrder order = order(1, 100, 0, 8, false);
+    assertThat(order.getOrder()).containsExactly(0, 1);
+
+    for (int i = 0; i < 100; i++) {
+      assertThat(order.matches(object(i))).isEqualTo(i > 90);
+    }
+
+    assertThat(order.getOrder()).containsExactly(1, 0);
+    assertThat(order.getSamples()).isEqualTo(100);
+    List<CriterionStatisticsDTO> statistics = order.getStatistics();
+    assertThat(statistics).extracting(CriterionStatisticsDTO::getPosition).containsExactly(1, 0);
+    assertThat(statistics.get(0).getCriterion()).isEqualTo("amount greater_than 90");
+    assertThat(statistics.get(0).getEvaluations()).isEqualTo(100);
+    assertThat(statistics.get(0).getPassRate()).isEqualTo(0.09);
+    assertThat(statistics.get(1).getPassRate()).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("Should keep results unchanged after reordering a generated predicate")
+  void matches_ShouldKeepResultsWithGeneratedPredicate() {
+    AdaptiveCriteriaOrder order = order(2, 10, 0, 8, true);
+
+    for (int round = 0; round < 5; round++) {
+      for (int i = 0; i < 100; i++) {
+        assertThat(order.matches(object(i))).isEqualTo(i > 90);
+      }
+    }
+    assertThat(order.getOrder()).containsExactly(1, 0);
+  }
+
+  @Test
+  @DisplayName("Should keep the current order when the new one does not save enough")
+  void matches_ShouldKeepOrder_WhenGainBelowMargin() {
+    // Moving the selective criterion first saves at most 91% of the cost of the other criterion, never 95% of both
+    AdaptiveCriteriaOrder order = order(1, 100, 0.95, 8, false);
+
+    for (int i = 0; i < 1000; i++) {
+      assertThat(order.matches(object(i % 100))).isEqualTo(i % 100 > 90);
+    }
+
+    assertThat(order.getOrder()).containsExactly(0, 1);
+    assertThat(order.getSamples()).isEqualTo(1000);
+  }
+
+  @Test
+  @DisplayName("Should stop reordering after the maximum number of changes")
+  void matches_ShouldKeepOrder_WhenReordersExhausted() {
+    AdaptiveCriteriaOrder order = order(1, 100, 0, 0, false);
+
+    for (int i = 0; i < 1000; i++) {
+      assertThat(order.matches(object(i % 100))).isEqualTo(i % 100 > 90);
+    }
+
+    assertThat(order.getOrder()).containsExactly(0, 1);
+  }
+
+  @Test
+  @DisplayName("Should not report rates for criteria that were never sampled")
+  void getStatistics_ShouldReportEmptyRatesBeforeSampling() {
+    AdaptiveCriteriaOrder order = order(64, 100, 0, 8, false);
+
+    assertThat(order.getStatistics())
+        .allSatisfy(statistics -> {
+          assertThat(statistics.getEvaluations()).isZero();
+          assertThat(statistics.getPassRate()).isNull();
+          assertThat(statistics.getAverageNanos()).isNull();
+        });
+  }
+
+  private static AdaptiveCriteriaOrder order(int sampleRate, int reorderInterval, double reorderMargin,
+                                             int maxReorders, boolean generated) {
+    return new AdaptiveCriteriaOrder(SelectionType.S1, List.of(ALWAYS, ABOVE_90), sampleRate, reorderInterval,
+        reorderMargin, maxReorders, generated);
+  }
+
+  private static FilterableObject object(int amount) {
+    return new FilterableObject(BigDecimal.valueOf(amount), "Item", LocalDate.of(2024, 1, 1), SelectionType.S1);
+  }
+}
@@ -0,0 +1,73 @@
+package ee.spiritix.filterssb3.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AhoCorasickMatcherTest {
+
+  private final Random random = new Random(3);
+
+  @Test
+  @DisplayName("Should report exactly the patterns String.contains finds")
+  void match_ShouldAgreeWithContains() {
+    AhoCorasickMatcher.Builder builder = new AhoCorasickMatcher.Builder();
+    List<String> patterns = new ArrayList<>();
+    for (int round = 0; round < 20; round++) {
+      // Patterns are added between builds, as the filter index does when filters are saved
+      for (int i = 0; i < 10; i++) {
+        String pattern = randomText(4);
+        if (builder.indexOf(pattern) < 0) {
+          patterns.add(pattern);
+        }
+        assertThat(builder.add(pattern)).isEqualTo(patterns.indexOf(pattern));
+      }
+      AhoCorasickMatcher matcher = builder.build();
+
+      for (int i = 0; i < 200; i++) {
+        String text = randomText(20);
+        BitSet expected = new BitSet();
+        for (int pattern = 0; pattern < patterns.size(); pattern++) {
+          if (text.contains(patterns.get(pattern))) {
+            expected.set(pattern);
+          }
+        }
+        BitSet matched = new BitSet();
+        matcher.match(text, matched);
+        assertThat(matched).isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Should report overlapping and nested patterns")
+  void match_ShouldReportOverlappingPatterns() {
+    AhoCorasickMatcher.Builder builder = new AhoCorasickMatcher.Builder();
+    builder.add("he");
+    builder.add("she");
+    builder.add("his");
+    builder.add("hers");
+    builder.add("");
+    AhoCorasickMatcher matcher = builder.build();
+
+    BitSet matched = new BitSet();
+    matcher.match("ushers", matched);
+
+    assertThat(matched.stream().toArray()).containsExactly(0, 1, 3, 4);
+  }
+
+  private String randomText(int maxLength) {
+    StringBuilder text = new StringBuilder();
+    int length = random.nextInt(maxLength + 1);
+    for (int i = 0; i < length; i++) {
+      text.append((char) ('a' + random.nextInt(3)));
+    }
+    return text.toString();
+  }
+}
@@ -0,0 +1,142 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.AmountConditionType;
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AmountCriteriaFunctionTest {
+
+  private static final BigDecimal MAX_CENTS = BigDecimal.valueOf(Long.MAX_VALUE, 2);
+  private static final BigDecimal MIN_CENTS = BigDecimal.valueOf(Long.MIN_VALUE, 2);
+
+  private final Random random = new Random(19);
+
+  @Test
+  @DisplayName("Should compare like BigDecimal.compareTo for random amounts and thresholds, also in cents")
+  void applyCriteria_ShouldMatchCompareTo() {
+    for (int round = 0; round < 2_000; round++) {
+      AmountConditionType conditionType =
+          AmountConditionType.values()[random.nextInt(AmountConditionType.values().length)];
+      BigDecimal threshold = randomAmount();
+      AmountCriteriaFunction function = function(conditionType, threshold);
+      List<FilterableObject> objects = new ArrayList<>();
+      List<FilterableObject> expected = new ArrayList<>();
+
+      for (int i = 0; i < 50; i++) {
+        // Amounts next to the threshold are where rounding it to cents would go wrong
+        BigDecimal amount = random.nextInt(4) == 0
+            ? threshold.add(BigDecimal.valueOf(random.nextInt(3) - 1, random.nextInt(4)))
+            : randomAmount();
+        FilterableObject object = object(amount);
+        boolean matches = expected(conditionType, amount.compareTo(threshold));
+        objects.add(object);
+        if (matches) {
+          expected.add(object);
+        }
+
+        assertThat(function.applyCriteria(object))
+            .as("%s %s against %s", amount, conditionType, threshold)
+            .isEqualTo(matches);
+      }
+
+      FilterFunction filter = FilterFunction.builder().selection(SelectionType.S1).filterCriteria(List.of(function))
+          .build();
+      long[] matches = ColumnarFilterEvaluator.evaluate(filter, FilterableObjectBatch.of(objects));
+      assertThat(ColumnarFilterEvaluator.select(objects, matches))
+          .as("%s against %s in cents", conditionType, threshold)
+          .containsExactlyElementsOf(expected);
+    }
+  }
+
+  @Test
+  @DisplayName("Should scale amounts with at most two decimals that fit in a long")
+  void toScaledLong_ShouldScaleRepresentableAmounts() {
+    assertThat(ScaledAmounts.toScaledLong(new BigDecimal("15.5"))).isEqualTo(1550L);
+    assertThat(ScaledAmounts.toScaledLong(new BigDecimal("15.500"))).isEqualTo(1550L);
+    assertThat(ScaledAmounts.toScaledLong(new BigDecimal("1E+3"))).isEqualTo(100_000L);
+    assertThat(ScaledAmounts.toScaledLong(new BigDecimal("15.505"))).isEqualTo(ScaledAmounts.NOT_REPRESENTABLE);
+    assertThat(ScaledAmounts.toScaledLong(MAX_CENTS)).isEqualTo(Long.MAX_VALUE);
+    assertThat(ScaledAmounts.toScaledLong(MIN_CENTS)).isEqualTo(ScaledAmounts.NOT_REPRESENTABLE);
+    assertThat(ScaledAmounts.toScaledLong(MAX_CENTS.add(BigDecimal.ONE))).isEqualTo(ScaledAmounts.NOT_REPRESENTABLE);
+  }
+
+  @Test
+  @DisplayName("Should keep a threshold between two cents on the side that preserves the comparison")
+  void applyCriteria_ShouldHandleThresholdBetweenCents() {
+    BigDecimal threshold = new BigDecimal("10.005");
+
+    assertThat(function(AmountConditionType.GREATER_THAN, threshold).applyCriteria(object("10.01"))).isTrue();
+    assertThat(function(AmountConditionType.GREATER_THAN, threshold).applyCriteria(object("10.00"))).isFalse();
+    assertThat(function(AmountConditionType.LESS_THAN, threshold).applyCriteria(object("10.00"))).isTrue();
+    assertThat(function(AmountConditionType.LESS_THAN, threshold).applyCriteria(object("10.01"))).isFalse();
+    assertThat(function(AmountConditionType.EQUALS, threshold).applyCriteria(object("10.005"))).isTrue();
+    assertThat(function(AmountConditionType.EQUALS, threshold).applyCriteria(object("10.00"))).isFalse();
+    assertThat(function(AmountConditionType.NOT_EQUALS, threshold).applyCriteria(object("10.01"))).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should fall back to BigDecimal when the threshold does not fit in cents")
+  void applyCriteria_ShouldFallBack_WhenThresholdOutOfRange() {
+    AmountCriteriaFunction function = function(AmountConditionType.LESS_THAN, MAX_CENTS.add(BigDecimal.ONE));
+
+    assertThat(function.getCentsBound()).isEqualTo(ScaledAmounts.NOT_REPRESENTABLE);
+    assertThat(function.applyCriteria(object(MAX_CENTS))).isTrue();
+    assertThat(function.applyCriteria(object(MAX_CENTS.add(BigDecimal.TEN)))).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should compare the current amount after it was replaced")
+  void applyCriteria_ShouldUseNewAmount_WhenAmountReplaced() {
+    AmountCriteriaFunction function = function(AmountConditionType.GREATER_THAN, BigDecimal.TEN);
+    FilterableObject object = object("5");
+
+    assertThat(function.applyCriteria(object)).isFalse();
+    object.setAmount(new BigDecimal("15.5"));
+    assertThat(function.applyCriteria(object)).isTrue();
+  }
+
+  private BigDecimal randomAmount() {
+    return switch (random.nextInt(8)) {
+      case 0 -> BigDecimal.valueOf(random.nextLong(), random.nextInt(4));
+      case 1 -> new BigDecimal(new BigInteger(64 + random.nextInt(16), random), random.nextInt(4))
+          .multiply(BigDecimal.valueOf(random.nextBoolean() ? 1 : -1));
+      case 2 -> MAX_CENTS.subtract(BigDecimal.valueOf(random.nextInt(3), random.nextInt(3)));
+      case 3 -> MIN_CENTS.add(BigDecimal.valueOf(random.nextInt(3), random.nextInt(3)));
+      case 4 -> BigDecimal.valueOf(random.nextInt(2_001) - 1_000, random.nextInt(3) + 3);
+      case 5 -> BigDecimal.valueOf(random.nextInt(2_001) - 1_000, -random.nextInt(3));
+      default -> BigDecimal.valueOf(random.nextInt(2_001) - 1_000, random.nextInt(3));
+    };
+  }
+
+  private static boolean expected(AmountConditionType conditionType, int comparison) {
+    return switch (conditionType) {
+      case GREATER_THAN -> comparison > 0;
+      case LESS_THAN -> comparison < 0;
+      case EQUALS -> comparison == 0;
+      case NOT_EQUALS -> comparison != 0;
+    };
+  }
+
+  private static AmountCriteriaFunction function(AmountConditionType conditionType, BigDecimal value) {
+    return AmountCriteriaFunction.builder().conditionType(conditionType).amountValue(value).build();
+  }
+
+  private static FilterableObject object(String amount) {
+    return object(new BigDecimal(amount));
+  }
+
+  private static FilterableObject object(BigDecimal amount) {
+    return new FilterableObject(amount, "title", LocalDate.of(2024, 1, 1), SelectionType.S1);
+  }
+}
@@ -0,0 +1,133 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.AmountConditionType;
+import ee.spiritix.filterssb3.constant.DateConditionType;
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.constant.TextConditionType;
+import ee.spiritix.filterssb3.constant.TextMatchMode;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColumnarFilterEvaluatorTest {
+
+  private static final LocalDate BASE_DATE = LocalDate.of(2024, 1, 1);
+  private static final String[] WORDS =
+      {"Apple", "Banana", "Item", "Product", "Apple Product", "", "APPLE", "\u00c4pple", "product"};
+
+  private final Random random = new Random(7);
+
+  @Test
+  @DisplayName("Should select the same objects as the row-wise evaluation")
+  void evaluate_ShouldMatchRowWiseEvaluation() {
+    for (int round = 0; round < 100; round++) {
+      List<FilterableObject> objects = randomObjects(random.nextInt(300));
+      FilterableObjectBatch batch = FilterableObjectBatch.of(objects);
+
+      for (int i = 0; i < 20; i++) {
+        FilterFunction function = FilterFunction.builder()
+            .selection(SelectionType.values()[random.nextInt(SelectionType.values().length)])
+            .filterCriteria(randomCriteria(random.nextInt(4)))
+            .build();
+
+        List<FilterableObject> expected = objects.stream().filter(function::matches).toList();
+        List<FilterableObject> actual =
+            ColumnarFilterEvaluator.select(objects, ColumnarFilterEvaluator.evaluate(function, batch));
+
+        assertThat(actual).containsExactlyElementsOf(expected);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Should keep amounts that do not fit a scaled long exact")
+  void of_ShouldKeepExactAmounts_WhenNotRepresentable() {
+    BigDecimal huge = new BigDecimal("1e30");
+    BigDecimal fine = new BigDecimal("0.001");
+    FilterableObjectBatch batch = FilterableObjectBatch.of(List.of(
+        new FilterableObject(huge, "a", BASE_DATE, SelectionType.S1),
+        new FilterableObject(fine, "b", BASE_DATE, SelectionType.S1),
+        new FilterableObject(new BigDecimal("12.5"), "c", BASE_DATE, SelectionType.S1)));
+
+    assertThat(batch.getScaledAmounts()).containsExactly(
+        FilterableObjectBatch.NOT_REPRESENTABLE, FilterableObjectBatch.NOT_REPRESENTABLE, 1250L);
+    assertThat(batch.amount(0)).isEqualTo(huge);
+    assertThat(batch.amount(1)).isEqualTo(fine);
+    assertThat(batch.amount(2)).isEqualByComparingTo("12.50");
+  }
+
+  @Test
+  @DisplayName("Should compare dates at the ends of the supported range")
+  void evaluate_ShouldMatchRowWiseEvaluation_ForExtremeDates() {
+    List<FilterableObject> objects = List.of(
+        new FilterableObject(BigDecimal.ONE, "a", LocalDate.MAX, SelectionType.S1),
+        new FilterableObject(BigDecimal.ONE, "b", LocalDate.MIN, SelectionType.S1),
+        new FilterableObject(BigDecimal.ONE, "c", BASE_DATE, SelectionType.S1));
+    FilterableObjectBatch batch = FilterableObjectBatch.of(objects);
+
+    assertThat(batch.row(0).getDate()).isEqualTo(LocalDate.MAX);
+    for (DateConditionType conditionType : DateConditionType.values()) {
+      for (LocalDate date : List.of(LocalDate.MAX, LocalDate.MIN, BASE_DATE)) {
+        DateCriteriaFunction criterion =
+            DateCriteriaFunction.builder().conditionType(conditionType).dateValue(date).build();
+        FilterFunction function =
+            FilterFunction.builder().selection(SelectionType.S1).filterCriteria(List.of(criterion)).build();
+
+        assertThat(ColumnarFilterEvaluator.select(objects, ColumnarFilterEvaluator.evaluate(function, batch)))
+            .as("%s %s", conditionType, date)
+            .containsExactlyElementsOf(objects.stream().filter(function::matches).toList());
+      }
+    }
+  }
+
+  private List<FilterableObject> randomObjects(int count) {
+    List<FilterableObject> objects = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      objects.add(new FilterableObject(
+          randomAmount(),
+          WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)],
+          BASE_DATE.plusDays(random.nextInt(10)),
+          SelectionType.values()[random.nextInt(SelectionType.values().length)]));
+    }
+    return objects;
+  }
+
+  private List<FilterCriteriaInterface> randomCriteria(int count) {
+    List<FilterCriteriaInterface> criteria = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      criteria.add(switch (random.nextInt(4)) {
+        case 0 -> AmountCriteriaFunction.builder()
+            .conditionType(AmountConditionType.values()[random.nextInt(AmountConditionType.values().length)])
+            .amountValue(randomAmount())
+            .build();
+        case 1 -> DateCriteriaFunction.builder()
+            .conditionType(DateConditionType.values()[random.nextInt(DateConditionType.values().length)])
+            .dateValue(BASE_DATE.plusDays(random.nextInt(10)))
+            .build();
+        case 2 -> TextCriteriaFunction.builder()
+            .conditionType(TextConditionType.values()[random.nextInt(TextConditionType.values().length)])
+            .textValue(WORDS[random.nextInt(WORDS.length)])
+            .matchMode(TextMatchMode.values()[random.nextInt(TextMatchMode.values().length)])
+            .build();
+        default -> object -> object.getTitle().length() > 8;
+      });
+    }
+    return criteria;
+  }
+
+  private BigDecimal randomAmount() {
+    return switch (random.nextInt(10)) {
+      case 0 -> new BigDecimal("1e30").add(BigDecimal.valueOf(random.nextInt(3)));
+      case 1 -> BigDecimal.valueOf(random.nextInt(400), 3 + random.nextInt(2));
+      default -> BigDecimal.valueOf(random.nextInt(400), random.nextInt(3));
+    };
+  }
+}
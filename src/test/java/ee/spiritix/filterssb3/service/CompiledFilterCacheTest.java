@@ -0,0 +1,155 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.dto.CacheStatisticsDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompiledFilterCacheTest {
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  private final Function<Long, FilterFunction> loader = filterId -> {
+    loads.incrementAndGet();
+    return FilterFunction.builder()
+        .selection(SelectionType.S1)
+        .filterCriteria(List.of())
+        .build();
+  };
+
+  @Test
+  @DisplayName("Should load a filter once and serve repeated lookups from the cache")
+  void get_ShouldReturnCachedFunction_OnRepeatedLookups() {
+    CompiledFilterCache cache = new CompiledFilterCache(10, Duration.ofMinutes(10));
+
+    FilterFunction first = cache.get(1L, loader);
+    FilterFunction second = cache.get(1L, loader);
+
+    assertThat(second).isSameAs(first);
+    assertThat(loads.get()).isEqualTo(1);
+    CacheStatisticsDTO statistics = cache.getStatistics();
+    assertThat(statistics.getHits()).isEqualTo(1);
+    assertThat(statistics.getMisses()).isEqualTo(1);
+    assertThat(statistics.getSize()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should keep at most the configured number of filters")
+  void get_ShouldEvict_WhenMaxSizeExceeded() {
+    CompiledFilterCache cache = new CompiledFilterCache(2, Duration.ofMinutes(10));
+
+    for (long filterId = 1; filterId <= 5; filterId++) {
+      cache.get(filterId, loader);
+    }
+
+    assertThat(loads.get()).isEqualTo(5);
+    assertThat(cache.getStatistics().getEvictions()).isEqualTo(3);
+    assertThat(cache.getStatistics().getSize()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should load a filter once for concurrent misses")
+  void get_ShouldLoadOnce_ForConcurrentMisses() throws Exception {
+    CompiledFilterCache cache = new CompiledFilterCache(10, Duration.ofMinutes(10));
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Function<Long, FilterFunction> slowLoader = filterId -> {
+      loading.countDown();
+      await(release);
+      return loader.apply(filterId);
+    };
+
+    try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+      List<Future<FilterFunction>> results = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        results.add(executor.submit(() -> cache.get(1L, slowLoader)));
+      }
+      loading.await();
+      release.countDown();
+      FilterFunction first = results.get(0).get();
+      for (Future<FilterFunction> result : results) {
+        assertThat(result.get()).isSameAs(first);
+      }
+    }
+    assertThat(loads.get()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should not keep a filter that was invalidated while it was loading")
+  void invalidate_ShouldDropFilterLoadedConcurrently() throws Exception {
+    CompiledFilterCache cache = new CompiledFilterCache(10, Duration.ofMinutes(10));
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Function<Long, FilterFunction> slowLoader = filterId -> {
+      loading.countDown();
+      await(release);
+      return loader.apply(filterId);
+    };
+
+    try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+      Future<FilterFunction> stale = executor.submit(() -> cache.get(1L, slowLoader));
+      loading.await();
+      Future<?> invalidated = executor.submit(() -> cache.invalidate(1L));
+      release.countDown();
+      stale.get();
+      invalidated.get();
+    }
+    cache.get(1L, loader);
+
+    assertThat(loads.get()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should reload a filter after its entry has expired")
+  void get_ShouldReload_WhenEntryExpired() {
+    CompiledFilterCache cache = new CompiledFilterCache(10, Duration.ZERO);
+
+    cache.get(1L, loader);
+    cache.get(1L, loader);
+
+    assertThat(loads.get()).isEqualTo(2);
+    assertThat(cache.getStatistics().getHits()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should reload a filter after it has been invalidated")
+  void invalidate_ShouldForceReload() {
+    CompiledFilterCache cache = new CompiledFilterCache(10, Duration.ofMinutes(10));
+
+    cache.get(1L, loader);
+    cache.invalidate(1L);
+    cache.get(1L, loader);
+    cache.invalidateAll();
+    cache.get(1L, loader);
+
+    assertThat(loads.get()).isEqualTo(3);
+  }
+
+  @Test
+  void constructor_ShouldRejectNonPositiveSize() {
+    Duration ttl = Duration.ofMinutes(1);
+    assertThrows(IllegalArgumentException.class, () -> new CompiledFilterCache(0, ttl));
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+}
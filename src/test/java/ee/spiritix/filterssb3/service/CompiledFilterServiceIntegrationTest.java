@@ -0,0 +1,11 @@
+package ee.spiritix.filterssb3.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Runs every {@link FilterServiceIntegrationTest} case against generated predicates to prove they return the same
+ * results as the interpreted evaluation.
+ */
+@SpringBootTest(properties = "filters.evaluation.mode=COMPILED")
+class CompiledFilterServiceIntegrationTest extends FilterServiceIntegrationTest {
+}
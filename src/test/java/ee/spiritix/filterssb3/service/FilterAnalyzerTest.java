@@ -0,0 +1,192 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.AmountConditionType;
+import ee.spiritix.filterssb3.constant.DateConditionType;
+import ee.spiritix.filterssb3.constant.FilterAnalysisStatus;
+import ee.spiritix.filterssb3.constant.TextConditionType;
+import ee.spiritix.filterssb3.constant.TextMatchMode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FilterAnalyzerTest {
+
+  @Test
+  @DisplayName("Should find an empty amount interval unsatisfiable")
+  void analyze_ShouldDetectEmptyAmountInterval() {
+    FilterAnalyzer.Analysis analysis = FilterAnalyzer.analyze(List.of(
+        amount(AmountConditionType.GREATER_THAN, "100"),
+        amount(AmountConditionType.LESS_THAN, "50")));
+
+    assertThat(analysis.status()).isEqualTo(FilterAnalysisStatus.UNSATISFIABLE);
+    assertThat(analysis.criteria()).isEmpty();
+    assertThat(analysis.findings()).singleElement().asString().contains("greater than 100", "less than 50");
+  }
+
+  @Test
+  @DisplayName("Should merge amount bounds into one interval")
+  void analyze_ShouldMergeAmountBounds() {
+    FilterAnalyzer.Analysis analysis = FilterAnalyzer.analyze(List.of(
+        amount(AmountConditionType.GREATER_THAN, "10"),
+        amount(AmountConditionType.GREATER_THAN, "20"),
+        amount(AmountConditionType.LESS_THAN, "90"),
+        amount(AmountConditionType.NOT_EQUALS, "5"),
+        amount(AmountConditionType.NOT_EQUALS, "50"),
+        amount(AmountConditionType.LESS_THAN, "80.0")));
+
+    assertThat(analysis.status()).isEqualTo(FilterAnalysisStatus.SATISFIABLE);
+    assertThat(analysis.criteria()).extracting(FilterAnalyzer::describe)
+        .containsExactly("amount greater_than 20", "amount less_than 80.0", "amount not_equals 50");
+  }
+
+  @Test
+  @DisplayName("Should find two different dates unsatisfiable")
+  void analyze_ShouldDetectConflictingDates() {
+    FilterAnalyzer.Analysis analysis = FilterAnalyzer.analyze(List.of(
+        date(DateConditionType.IS, LocalDate.of(2024, 1, 1)),
+        date(DateConditionType.IS, LocalDate.of(2024, 1, 2))));
+
+    assertThat(analysis.status()).isEqualTo(FilterAnalysisStatus.UNSATISFIABLE);
+  }
+
+  @Test
+  @DisplayName("Should reduce a one day interval to that day")
+  void analyze_ShouldReduceOneDayInterval() {
+    FilterAnalyzer.Analysis analysis = FilterAnalyzer.analyze(List.of(
+        date(DateConditionType.IS_AFTER, LocalDate.of(2024, 1, 1)),
+        date(DateConditionType.IS_BEFORE, LocalDate.of(2024, 1, 3))));
+
+    assertThat(analysis.criteria()).extracting(FilterAnalyzer::describe).containsExactly("date is 2024-01-02");
+  }
+
+  @Test
+  @DisplayName("Should find a date interval unsatisfiable when every day in it is excluded")
+  void analyze_ShouldDetectExcludedDateInterval() {
+    FilterAnalyzer.Analysis analysis = FilterAnalyzer.analyze(List.of(
+        date(DateConditionType.IS_AFTER, LocalDate.of(2024, 1, 1)),
+        date(DateConditionType.IS_BEFORE, LocalDate.of(2024, 1, 4)),
+        date(DateConditionType.IS_NOT, LocalDate.of(2024, 1, 2)),
+        date(DateConditionType.IS_NOT, LocalDate.of(2024, 1, 3))));
+
+    assertThat(analysis.status()).isEqualTo(FilterAnalysisStatus.UNSATISFIABLE);
+  }
+
+  @Test
+  @DisplayName("Should drop text criteria implied by the others")
+  void analyze_ShouldDropRedundantTextCriteria() {
+    FilterAnalyzer.Analysis analysis = FilterAnalyzer.analyze(List.of(
+        text(TextConditionType.CONTAINS, "apple"),
+        text(TextConditionType.CONTAINS, "apple pie"),
+        text(TextConditionType.NOT_CONTAINS, "cherry"),
+        text(TextConditionType.NOT_CONTAINS, "cherry tart"),
+        text(TextConditionType.NOT_EQUALS, "banana")));
+
+    assertThat(analysis.criteria()).extracting(FilterAnalyzer::describe)
+        .containsExactly("text contains 'apple pie'", "text not_contains 'cherry'");
+  }
+
+  @Test
+  @DisplayName("Should find contains and not contains of the same text unsatisfiable")
+  void analyze_ShouldDetectContainsConflict() {
+    FilterAnalyzer.Analysis analysis = FilterAnalyzer.analyze(List.of(
+        text(TextConditionType.CONTAINS, "apple pie"),
+        text(TextConditionType.NOT_CONTAINS, "pie")));
+
+    assertThat(analysis.status()).isEqualTo(FilterAnalysisStatus.UNSATISFIABLE);
+  }
+
+  @Test
+  @DisplayName("Should find a filter whose criteria are always true")
+  void analyze_ShouldDetectTautology() {
+    FilterAnalyzer.Analysis analysis = FilterAnalyzer.analyze(List.of(text(TextConditionType.CONTAINS, "")));
+
+    assertThat(analysis.status()).isEqualTo(FilterAnalysisStatus.ALWAYS_TRUE);
+    assertThat(analysis.criteria()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should keep the position of the first criterion of each type")
+  void analyze_ShouldKeepTypeOrder() {
+    FilterAnalyzer.Analysis analysis = FilterAnalyzer.analyze(List.of(
+        text(TextConditionType.CONTAINS, "apple"),
+        amount(AmountConditionType.GREATER_THAN, "1"),
+        text(TextConditionType.CONTAINS, "pie"),
+        date(DateConditionType.IS_BEFORE, LocalDate.of(2024, 1, 1))));
+
+    assertThat(analysis.status()).isEqualTo(FilterAnalysisStatus.SATISFIABLE);
+    assertThat(analysis.criteria()).extracting(FilterAnalyzer::describe).containsExactly(
+        "text contains 'apple'", "text contains 'pie'", "amount greater_than 1", "date is_before 2024-01-01");
+  }
+
+  @Test
+  @DisplayName("Should relate text criteria that ignore case through their folded values")
+  void analyze_ShouldNormalizeTextCriteriaPerMatchMode() {
+    FilterAnalyzer.Analysis analysis = FilterAnalyzer.analyze(List.of(
+        text(TextConditionType.CONTAINS, "Apple", TextMatchMode.IGNORE_CASE),
+        text(TextConditionType.CONTAINS, "APPLE PIE", TextMatchMode.IGNORE_CASE),
+        text(TextConditionType.CONTAINS, "apple", TextMatchMode.EXACT)));
+
+    assertThat(analysis.criteria()).extracting(FilterAnalyzer::describe)
+        .containsExactly("text contains 'apple'", "text contains 'APPLE PIE' ignoring case");
+  }
+
+  @Test
+  @DisplayName("Should check criteria of other match modes against an exact equals")
+  void analyze_ShouldDetectConflictWithExactEquals() {
+    FilterAnalyzer.Analysis analysis = FilterAnalyzer.analyze(List.of(
+        text(TextConditionType.EQUALS, "Cr\u00e8me Br\u00fbl\u00e9e", TextMatchMode.EXACT),
+        text(TextConditionType.NOT_CONTAINS, "CREME", TextMatchMode.IGNORE_CASE_AND_ACCENTS)));
+
+    assertThat(analysis.status()).isEqualTo(FilterAnalysisStatus.UNSATISFIABLE);
+  }
+
+  @Test
+  @DisplayName("Should keep the longest prefix and move regular expressions last")
+  void analyze_ShouldMergePrefixes() {
+    FilterAnalyzer.Analysis analysis = FilterAnalyzer.analyze(List.of(
+        text(TextConditionType.MATCHES, "p.e$"),
+        text(TextConditionType.STARTS_WITH, "app"),
+        text(TextConditionType.STARTS_WITH, "apple"),
+        text(TextConditionType.CONTAINS, "ppl"),
+        text(TextConditionType.ENDS_WITH, "pie")));
+
+    assertThat(analysis.criteria()).extracting(FilterAnalyzer::describe).containsExactly(
+        "text starts_with 'apple'", "text ends_with 'pie'", "text matches 'p.e$'");
+  }
+
+  @Test
+  @DisplayName("Should find different prefixes or a pattern missing the equal text unsatisfiable")
+  void analyze_ShouldDetectPrefixAndPatternConflicts() {
+    FilterAnalyzer.Analysis prefixes = FilterAnalyzer.analyze(List.of(
+        text(TextConditionType.STARTS_WITH, "apple"),
+        text(TextConditionType.STARTS_WITH, "banana")));
+    FilterAnalyzer.Analysis pattern = FilterAnalyzer.analyze(List.of(
+        text(TextConditionType.EQUALS, "apple pie"),
+        text(TextConditionType.MATCHES, "^b")));
+
+    assertThat(prefixes.status()).isEqualTo(FilterAnalysisStatus.UNSATISFIABLE);
+    assertThat(prefixes.findings()).containsExactly("text cannot start with both 'apple' and 'banana'");
+    assertThat(pattern.status()).isEqualTo(FilterAnalysisStatus.UNSATISFIABLE);
+  }
+
+  private static AmountCriteriaFunction amount(AmountConditionType conditionType, String value) {
+    return AmountCriteriaFunction.builder().conditionType(conditionType).amountValue(new BigDecimal(value)).build();
+  }
+
+  private static DateCriteriaFunction date(DateConditionType conditionType, LocalDate value) {
+    return DateCriteriaFunction.builder().conditionType(conditionType).dateValue(value).build();
+  }
+
+  private static TextCriteriaFunction text(TextConditionType conditionType, String value) {
+    return text(conditionType, value, TextMatchMode.EXACT);
+  }
+
+  private static TextCriteriaFunction text(TextConditionType conditionType, String value, TextMatchMode matchMode) {
+    return TextCriteriaFunction.builder().conditionType(conditionType).textValue(value).matchMode(matchMode).build();
+  }
+}
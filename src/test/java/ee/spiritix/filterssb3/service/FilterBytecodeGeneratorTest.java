@@ -0,0 +1,102 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.AmountConditionType;
+import ee.spiritix.filterssb3.constant.DateConditionType;
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.constant.TextConditionType;
+import ee.spiritix.filterssb3.constant.TextMatchMode;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FilterBytecodeGeneratorTest {
+
+  private static final LocalDate BASE_DATE = LocalDate.of(2024, 1, 1);
+  private static final String[] WORDS =
+      {"Apple", "Banana", "Item", "Product", "Apple Product", "", "APPLE", "\u00c4pple", "product"};
+
+  private final Random random = new Random(42);
+
+  @Test
+  @DisplayName("Should match the interpreted evaluation for random filters and objects")
+  void generate_ShouldMatchInterpretedEvaluation() {
+    List<FilterableObject> objects = randomObjects(500);
+
+    for (int i = 0; i < 300; i++) {
+      SelectionType selection = randomSelection();
+      List<FilterCriteriaInterface> criteria = randomCriteria(random.nextInt(5));
+      FilterFunction interpreted = FilterFunction.builder()
+          .selection(selection)
+          .filterCriteria(criteria)
+          .build();
+      Predicate<FilterableObject> generated = FilterBytecodeGenerator.generate(selection, criteria);
+
+      for (FilterableObject object : objects) {
+        assertThat(generated.test(object))
+            .as("object %s", object)
+            .isEqualTo(interpreted.matches(object));
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Should delegate to criteria without a dedicated code shape")
+  void generate_ShouldDelegateUnknownCriteria() {
+    FilterCriteriaInterface longTitle = object -> object.getTitle().length() > 10;
+    Predicate<FilterableObject> generated = FilterBytecodeGenerator.generate(SelectionType.S1, List.of(longTitle));
+
+    assertThat(generated.test(new FilterableObject(BigDecimal.ONE, "Apple Product", BASE_DATE, SelectionType.S1)))
+        .isTrue();
+    assertThat(generated.test(new FilterableObject(BigDecimal.ONE, "Apple", BASE_DATE, SelectionType.S1)))
+        .isFalse();
+    assertThat(generated.test(new FilterableObject(BigDecimal.ONE, "Apple Product", BASE_DATE, SelectionType.S2)))
+        .isFalse();
+  }
+
+  private List<FilterableObject> randomObjects(int count) {
+    List<FilterableObject> objects = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      objects.add(new FilterableObject(
+          BigDecimal.valueOf(random.nextInt(400), random.nextInt(3)),
+          WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)],
+          BASE_DATE.plusDays(random.nextInt(10)),
+          randomSelection()));
+    }
+    return objects;
+  }
+
+  private List<FilterCriteriaInterface> randomCriteria(int count) {
+    List<FilterCriteriaInterface> criteria = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      criteria.add(switch (random.nextInt(3)) {
+        case 0 -> AmountCriteriaFunction.builder()
+            .conditionType(AmountConditionType.values()[random.nextInt(AmountConditionType.values().length)])
+            .amountValue(BigDecimal.valueOf(random.nextInt(400), random.nextInt(3)))
+            .build();
+        case 1 -> DateCriteriaFunction.builder()
+            .conditionType(DateConditionType.values()[random.nextInt(DateConditionType.values().length)])
+            .dateValue(BASE_DATE.plusDays(random.nextInt(10)))
+            .build();
+        default -> TextCriteriaFunction.builder()
+            .conditionType(TextConditionType.values()[random.nextInt(TextConditionType.values().length)])
+            .textValue(WORDS[random.nextInt(WORDS.length)])
+            .matchMode(TextMatchMode.values()[random.nextInt(TextMatchMode.values().length)])
+            .build();
+      });
+    }
+    return criteria;
+  }
+
+  private SelectionType randomSelection() {
+    return SelectionType.values()[random.nextInt(SelectionType.values().length)];
+  }
+}
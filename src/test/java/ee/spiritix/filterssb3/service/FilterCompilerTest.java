@@ -0,0 +1,134 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.AmountConditionType;
+import ee.spiritix.filterssb3.constant.DateConditionType;
+import ee.spiritix.filterssb3.constant.EvaluationMode;
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.constant.TextConditionType;
+import ee.spiritix.filterssb3.entity.AmountCriteria;
+import ee.spiritix.filterssb3.entity.DateCriteria;
+import ee.spiritix.filterssb3.entity.Filter;
+import ee.spiritix.filterssb3.entity.FilterCriteria;
+import ee.spiritix.filterssb3.entity.TextCriteria;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FilterCompilerTest {
+
+  private final FilterCompiler filterCompiler = new FilterCompiler(EvaluationMode.INTERPRETED, false, 64, 1024, 0.1, 8);
+
+  @Test
+  void compile_ShouldUseEntityConditionTypes() {
+    Filter filter = filter(
+        AmountCriteria.builder().conditionType(AmountConditionType.GREATER_THAN).amountValue(BigDecimal.TEN).build(),
+        DateCriteria.builder().conditionType(DateConditionType.IS_BEFORE).dateValue(LocalDate.of(2024, 1, 1)).build(),
+        TextCriteria.builder().conditionType(TextConditionType.NOT_CONTAINS).textValue("test").build());
+
+    FilterFunction function = filterCompiler.compile(filter);
+
+    assertThat(function.getSelection()).isEqualTo(SelectionType.S1);
+    assertThat(function.getFilterCriteria()).hasSize(3);
+    assertThat(((AmountCriteriaFunction) function.getFilterCriteria().get(0)).getConditionType())
+        .isEqualTo(AmountConditionType.GREATER_THAN);
+    assertThat(((DateCriteriaFunction) function.getFilterCriteria().get(1)).getConditionType())
+        .isEqualTo(DateConditionType.IS_BEFORE);
+    assertThat(((TextCriteriaFunction) function.getFilterCriteria().get(2)).getConditionType())
+        .isEqualTo(TextConditionType.NOT_CONTAINS);
+  }
+
+  @Test
+  void compileInterpreted_ShouldNotGenerateCode() {
+    FilterCompiler compiledMode = new FilterCompiler(EvaluationMode.COMPILED, true, 64, 1024, 0.1, 8);
+    Filter filter = filter(
+        AmountCriteria.builder().conditionType(AmountConditionType.GREATER_THAN).amountValue(BigDecimal.TEN).build(),
+        TextCriteria.builder().conditionType(TextConditionType.STARTS_WITH).textValue("test").build());
+
+    FilterFunction function = compiledMode.compileInterpreted(filter);
+
+    assertThat(function.getFilterCriteria()).hasSize(2);
+    assertThat(function.getGeneratedPredicate()).isNull();
+    assertThat(function.getAdaptiveOrder()).isNull();
+    assertThat(compiledMode.compileResidual(SelectionType.S1, function.getFilterCriteria().subList(1, 2))).isNotNull();
+    assertThat(compiledMode.compileResidual(SelectionType.S1, List.of())).isNull();
+    assertThat(filterCompiler.compileResidual(SelectionType.S1, function.getFilterCriteria())).isNull();
+  }
+
+  @Test
+  void compile_ShouldGeneratePredicateOnlyWithoutAdaptiveOrder() {
+    FilterCompiler adaptive = new FilterCompiler(EvaluationMode.COMPILED, true, 64, 1024, 0.1, 8);
+    AmountCriteria amount =
+        AmountCriteria.builder().conditionType(AmountConditionType.GREATER_THAN).amountValue(BigDecimal.TEN).build();
+    TextCriteria text = TextCriteria.builder().conditionType(TextConditionType.STARTS_WITH).textValue("test").build();
+
+    FilterFunction reordered = adaptive.compile(filter(amount, text));
+    FilterFunction single = adaptive.compile(filter(amount));
+
+    assertThat(reordered.getAdaptiveOrder()).isNotNull();
+    assertThat(reordered.getGeneratedPredicate()).isNull();
+    assertThat(single.getAdaptiveOrder()).isNull();
+    assertThat(single.getGeneratedPredicate()).isNotNull();
+  }
+
+  @Test
+  void validate_ShouldAcceptCompleteCriteria() {
+    Filter filter = filter(
+        TextCriteria.builder().conditionType(TextConditionType.EQUALS).textValue("test").build());
+
+    assertThatCode(() -> filterCompiler.validate(filter)).doesNotThrowAnyException();
+  }
+
+  @Test
+  void validate_ShouldRejectMissingConditionType() {
+    Filter filter = filter(AmountCriteria.builder().amountValue(BigDecimal.TEN).build());
+
+    assertThatThrownBy(() -> filterCompiler.validate(filter))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("AmountCriteria");
+  }
+
+  @Test
+  void validate_ShouldRejectMissingValue() {
+    Filter filter = filter(DateCriteria.builder().conditionType(DateConditionType.IS).build());
+
+    assertThatThrownBy(() -> filterCompiler.validate(filter))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void validate_ShouldRejectInvalidOrBacktrackingPatterns() {
+    Filter invalid = filter(pattern("(apple"));
+    Filter nested = filter(pattern("(a+)+b"));
+    Filter alternation = filter(pattern("(a|aa)+b"));
+    Filter valid = filter(pattern("^app.e$"));
+
+    assertThatThrownBy(() -> filterCompiler.validate(invalid))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("Invalid regular expression '(apple'");
+    assertThatThrownBy(() -> filterCompiler.validate(nested))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("repeats a group");
+    assertThatThrownBy(() -> filterCompiler.validate(alternation))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("alternation");
+    assertThatCode(() -> filterCompiler.validate(valid)).doesNotThrowAnyException();
+  }
+
+  private static TextCriteria pattern(String regex) {
+    return TextCriteria.builder().conditionType(TextConditionType.MATCHES).textValue(regex).build();
+  }
+
+  private static Filter filter(FilterCriteria... criteria) {
+    Filter filter = new Filter();
+    filter.setName("Test Filter");
+    filter.setSelection(SelectionType.S1);
+    filter.setFilterCriteria(List.of(criteria));
+    return filter;
+  }
+}
@@ -0,0 +1,101 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.dto.AmountCriteriaDTO;
+import ee.spiritix.filterssb3.dto.FilterDTO;
+import ee.spiritix.filterssb3.dto.TextCriteriaDTO;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static ee.spiritix.filterssb3.constant.FilterCriteriaTypes.AMOUNT;
+import static ee.spiritix.filterssb3.constant.FilterCriteriaTypes.TEXT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not transactional: every load has to run in its own session to reach the second-level cache
+@SpringBootTest(properties = "filters.cache.entity-statistics=true")
+class FilterEntityCacheTest {
+
+  @Autowired
+  private FilterService filterService;
+
+  @Autowired
+  private FilterEntityCache filterEntityCache;
+
+  @Autowired
+  private CompiledFilterCache compiledFilterCache;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+  private Long filterId;
+
+  private final List<FilterableObject> objects = List.of(
+      new FilterableObject(BigDecimal.valueOf(200), "Apple Product", LocalDate.now(), SelectionType.S1),
+      new FilterableObject(BigDecimal.valueOf(50), "Apple Special", LocalDate.now(), SelectionType.S1));
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    filterId = filterService.add(FilterDTO.builder()
+        .name("Cached Filter")
+        .selection(SelectionType.S1)
+        .criteriaList(List.of(
+            AmountCriteriaDTO.builder()
+                .filterType(AMOUNT)
+                .conditionType("greater_than")
+                .value(BigDecimal.valueOf(100))
+                .build(),
+            TextCriteriaDTO.builder()
+                .filterType(TEXT)
+                .conditionType("contains")
+                .value("Apple")
+                .build()))
+        .build()).getId();
+  }
+
+  @Test
+  @DisplayName("Should load a filter and its criteria without SQL once they are cached")
+  void filterLoad_ShouldBeServedFromSecondLevelCache() {
+    assertThat(apply()).hasSize(1);
+
+    statistics.clear();
+    assertThat(apply()).hasSize(1);
+
+    assertThat(statistics.getPrepareStatementCount()).isZero();
+    assertThat(filterEntityCache.getStatistics().getHits()).isGreaterThanOrEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("Should reload a filter from the database after it is evicted")
+  void evict_ShouldDropCachedFilter() {
+    apply();
+
+    filterEntityCache.evict(filterId);
+    statistics.clear();
+    apply();
+
+    assertThat(statistics.getPrepareStatementCount()).isPositive();
+  }
+
+  private List<FilterableObject> apply() {
+    // Drop the compiled filter, so the filter is loaded through the repository every time
+    compiledFilterCache.invalidate(filterId);
+    return transactionTemplate.execute(status -> filterService.filterObjectsUsingFilterWithId(objects, filterId));
+  }
+}
@@ -0,0 +1,115 @@
+package ee.spiritix.filterssb3.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class FilterFanOutTest {
+
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+  @AfterEach
+  void tearDown() {
+    executor.close();
+  }
+
+  @Test
+  @DisplayName("Should return the results in input order")
+  void map_ShouldPreserveInputOrder() {
+    FilterFanOut fanOut = new FilterFanOut(executor, transactionManager, 4);
+    List<Integer> items = IntStream.range(0, 100).boxed().toList();
+
+    List<Integer> result = fanOut.map(items, item -> {
+      sleep(100 - item);
+      return item * 2;
+    });
+
+    assertThat(result).containsExactlyElementsOf(items.stream().map(item -> item * 2).toList());
+  }
+
+  @Test
+  @DisplayName("Should run at most the configured number of tasks at once")
+  void map_ShouldLimitConcurrency() {
+    FilterFanOut fanOut = new FilterFanOut(executor, transactionManager, 3);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+
+    fanOut.map(IntStream.range(0, 30).boxed().toList(), item -> {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      sleep(5);
+      running.decrementAndGet();
+      return item;
+    });
+
+    assertThat(maxRunning.get()).isBetween(1, 3);
+  }
+
+  @Test
+  @DisplayName("Should submit a task only once a permit is free")
+  void map_ShouldWaitForPermitBeforeSubmitting() throws InterruptedException {
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(10, 10, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+    FilterFanOut fanOut = new FilterFanOut(pool, transactionManager, 3);
+    CountDownLatch started = new CountDownLatch(3);
+    CountDownLatch finish = new CountDownLatch(1);
+
+    Thread caller = Thread.ofVirtual().start(() -> fanOut.map(IntStream.range(0, 10).boxed().toList(), item -> {
+      started.countDown();
+      await(finish);
+      return item;
+    }));
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    Thread.sleep(50);
+
+    assertThat(pool.getTaskCount()).isEqualTo(3);
+    finish.countDown();
+    caller.join();
+    assertThat(pool.getCompletedTaskCount()).isEqualTo(10);
+    pool.close();
+  }
+
+  @Test
+  @DisplayName("Should rethrow the exception of a failed task")
+  void map_ShouldRethrowTaskException() {
+    FilterFanOut fanOut = new FilterFanOut(executor, transactionManager, 4);
+
+    assertThatThrownBy(() -> fanOut.map(List.of(1L, 2L, 3L), id -> {
+      if (id == 2L) {
+        throw new NoSuchElementException("No value present");
+      }
+      return id;
+    })).isInstanceOf(NoSuchElementException.class);
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.dto.AmountCriteriaDTO;
+import ee.spiritix.filterssb3.dto.FilterCriteriaDTO;
+import ee.spiritix.filterssb3.dto.FilterDTO;
+import ee.spiritix.filterssb3.dto.FilterImportResultDTO;
+import ee.spiritix.filterssb3.dto.TextCriteriaDTO;
+import ee.spiritix.filterssb3.entity.Filter;
+import ee.spiritix.filterssb3.repository.FilterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static ee.spiritix.filterssb3.constant.FilterCriteriaTypes.AMOUNT;
+import static ee.spiritix.filterssb3.constant.FilterCriteriaTypes.TEXT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not transactional: the importer commits one transaction per chunk
+@SpringBootTest(properties = "filters.import.chunk-size=2")
+class FilterImporterTest {
+
+  @Autowired
+  private FilterImporter filterImporter;
+
+  @Autowired
+  private FilterRepository filterRepository;
+
+  @BeforeEach
+  void setUp() {
+    filterRepository.deleteAll();
+  }
+
+  @Test
+  @DisplayName("Should import valid filters across chunks and report invalid ones by position")
+  void importFilters_ShouldSkipInvalidFilters() {
+    List<FilterDTO> filters = new ArrayList<>(IntStream.range(0, 5).mapToObj(i -> validFilter("Filter " + i)).toList());
+    filters.add(2, FilterDTO.builder()
+        .selection(SelectionType.S1)
+        .criteriaList(List.of(amount("greater_than")))
+        .build());
+    filters.add(4, filter("Unknown condition", amount("between")));
+
+    FilterImportResultDTO result = filterImporter.importFilters(filters);
+
+    assertThat(result.getImported()).isEqualTo(5);
+    assertThat(result.getFailed()).isEqualTo(2);
+    assertThat(result.getFilterIds()).hasSize(5).doesNotHaveDuplicates();
+    assertThat(result.getErrors()).extracting("index").containsExactly(2, 4);
+    assertThat(result.getErrors().get(0).getMessage()).contains("name");
+    assertThat(result.getErrors().get(1).getName()).isEqualTo("Unknown condition");
+
+    List<Filter> stored = filterRepository.findAllWithCriteriaByIdIn(result.getFilterIds());
+    assertThat(stored).extracting(Filter::getName)
+        .containsExactly("Filter 0", "Filter 1", "Filter 2", "Filter 3", "Filter 4");
+    assertThat(stored).allSatisfy(filter -> assertThat(filter.getFilterCriteria()).hasSize(2));
+  }
+
+  @Test
+  @DisplayName("Should report a filter without criteria")
+  void importFilters_ShouldRejectFilterWithoutCriteria() {
+    FilterImportResultDTO result = filterImporter.importFilters(List.of(filter("Empty")));
+
+    assertThat(result.getImported()).isZero();
+    assertThat(result.getErrors()).singleElement()
+        .satisfies(error -> assertThat(error.getMessage()).contains("criteriaList"));
+    assertThat(filterRepository.count()).isZero();
+  }
+
+  private static FilterDTO validFilter(String name) {
+    return filter(name, amount("greater_than"), TextCriteriaDTO.builder()
+        .filterType(TEXT)
+        .conditionType("contains")
+        .value("Apple")
+        .build());
+  }
+
+  private static FilterDTO filter(String name, FilterCriteriaDTO... criteria) {
+    return FilterDTO.builder()
+        .name(name)
+        .selection(SelectionType.S1)
+        .criteriaList(List.of(criteria))
+        .build();
+  }
+
+  private static AmountCriteriaDTO amount(String conditionType) {
+    return AmountCriteriaDTO.builder()
+        .filterType(AMOUNT)
+        .conditionType(conditionType)
+        .value(BigDecimal.valueOf(100))
+        .build();
+  }
+}
@@ -0,0 +1,249 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.AmountConditionType;
+import ee.spiritix.filterssb3.constant.DateConditionType;
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.constant.TextConditionType;
+import ee.spiritix.filterssb3.constant.TextMatchMode;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FilterIndexTest {
+
+  private static final LocalDate BASE_DATE = LocalDate.of(2024, 1, 1);
+  private static final String[] WORDS =
+      {"Apple", "Banana", "Item", "Product", "Apple Product", "", "APPLE", "\u00c4pple", "product"};
+
+  private final Random random = new Random(7);
+
+  @Test
+  @DisplayName("Should find the same filters as evaluating every filter separately")
+  void findMatchingFilterIds_ShouldMatchSeparateEvaluation() {
+    FilterIndex index = new FilterIndex();
+    List<FilterFunction> functions = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      FilterFunction function = randomFunction();
+      functions.add(function);
+      index.add((long) i, function);
+      // Alternate lookups and additions so the lazy rebuild is exercised as well
+      if (i % 50 == 49) {
+        assertMatchesSeparateEvaluation(index, functions, 200);
+      }
+    }
+    assertMatchesSeparateEvaluation(index, functions, 2_000);
+  }
+
+  @Test
+  @DisplayName("Should match pending and rebuilt filters alike while filters keep being added and replaced")
+  void findMatchingFilterIds_ShouldMatchSeparateEvaluationBetweenRebuilds() {
+    FilterIndex index = new FilterIndex();
+    List<FilterFunction> functions = new ArrayList<>();
+    for (int i = 0; i < 1_000; i++) {
+      FilterFunction function = randomFunction();
+      functions.add(function);
+      index.add((long) i, function);
+      if (i % 7 == 0) {
+        int replaced = random.nextInt(functions.size());
+        FilterFunction replacement = randomFunction();
+        functions.set(replaced, replacement);
+        index.add((long) replaced, replacement);
+      }
+      if (i % 10 == 9) {
+        assertMatchesSeparateEvaluation(index, functions, 5);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Should pass not contains criteria only when the matcher does not find their value")
+  void findMatchingFilterIds_ShouldDecideNotContainsFromMatcher() {
+    FilterIndex index = new FilterIndex();
+    index.add(1L, FilterFunction.builder()
+        .selection(SelectionType.S1)
+        .filterCriteria(List.of(text(TextConditionType.NOT_CONTAINS, "Apple")))
+        .build());
+    index.add(2L, FilterFunction.builder()
+        .selection(SelectionType.S1)
+        .filterCriteria(List.of(
+            text(TextConditionType.CONTAINS, "Product"), text(TextConditionType.NOT_CONTAINS, "Pro")))
+        .build());
+    index.add(3L, FilterFunction.builder()
+        .selection(SelectionType.S1)
+        .filterCriteria(List.of(
+            text(TextConditionType.CONTAINS, "Product"), text(TextConditionType.NOT_CONTAINS, "Apple")))
+        .build());
+
+    assertThat(index.findMatchingFilterIds(
+        new FilterableObject(BigDecimal.ONE, "Apple Product", BASE_DATE, SelectionType.S1))).isEmpty();
+    assertThat(index.findMatchingFilterIds(
+        new FilterableObject(BigDecimal.ONE, "Banana Product", BASE_DATE, SelectionType.S1))).containsExactly(1L, 3L);
+  }
+
+  @Test
+  @DisplayName("Should leave out filters on a missing amount or date and match the others as evaluated separately")
+  void findMatchingFilterIds_ShouldSkipFiltersOnMissingValues() {
+    FilterIndex index = new FilterIndex();
+    List<FilterFunction> functions = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      FilterFunction function = randomFunction();
+      functions.add(function);
+      index.add((long) i, function);
+      // The first lookups build the index, the later ones also evaluate the 50 filters added since
+      if (i == 149 || i == 199) {
+        for (int j = 0; j < 500; j++) {
+          boolean withAmount = random.nextBoolean();
+          FilterableObject object = new FilterableObject(
+              withAmount ? BigDecimal.valueOf(random.nextInt(40), random.nextInt(3)) : null,
+              WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)],
+              withAmount ? null : BASE_DATE.plusDays(random.nextInt(10)),
+              SelectionType.values()[random.nextInt(SelectionType.values().length)]);
+
+          List<Long> expected = new ArrayList<>();
+          for (int filter = 0; filter < functions.size(); filter++) {
+            boolean readsMissingValue = functions.get(filter).getFilterCriteria().stream()
+                .anyMatch(criterion -> withAmount ? criterion instanceof DateCriteriaFunction
+                    : criterion instanceof AmountCriteriaFunction);
+            if (!readsMissingValue && functions.get(filter).matches(object)) {
+              expected.add((long) filter);
+            }
+          }
+          assertThat(index.findMatchingFilterIds(object)).isEqualTo(expected);
+        }
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Should use the latest criteria of a filter that is added again")
+  void add_ShouldReplaceExistingFilter() {
+    FilterIndex index = new FilterIndex();
+    FilterableObject object = new FilterableObject(BigDecimal.valueOf(150), "Apple", BASE_DATE, SelectionType.S1);
+    index.add(1L, FilterFunction.builder()
+        .selection(SelectionType.S1)
+        .filterCriteria(List.of(amount(AmountConditionType.LESS_THAN, "100")))
+        .build());
+    assertThat(index.findMatchingFilterIds(object)).isEmpty();
+
+    index.add(1L, FilterFunction.builder()
+        .selection(SelectionType.S1)
+        .filterCriteria(List.of(amount(AmountConditionType.GREATER_THAN, "100")))
+        .build());
+
+    assertThat(index.size()).isEqualTo(1);
+    assertThat(index.findMatchingFilterIds(object)).containsExactly(1L);
+  }
+
+  @Test
+  @DisplayName("Should evaluate criteria without an index form directly")
+  void findMatchingFilterIds_ShouldEvaluateUnindexedCriteria() {
+    FilterIndex index = new FilterIndex();
+    index.add(1L, FilterFunction.builder()
+        .selection(SelectionType.S2)
+        .filterCriteria(List.of(amount(AmountConditionType.NOT_EQUALS, "1.0"), object -> object.getTitle().isEmpty()))
+        .build());
+    index.add(2L, FilterFunction.builder()
+        .selection(SelectionType.S2)
+        .filterCriteria(List.of(amount(AmountConditionType.NOT_EQUALS, "1.0"), object -> true))
+        .build());
+
+    assertThat(index.findMatchingFilterIds(
+        new FilterableObject(new BigDecimal("2"), "Item", BASE_DATE, SelectionType.S2))).containsExactly(2L);
+    assertThat(index.findMatchingFilterIds(
+        new FilterableObject(new BigDecimal("1.00"), "Item", BASE_DATE, SelectionType.S2))).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should compile only the criteria the index cannot answer")
+  void add_ShouldCompileOnlyUnindexedCriteria() {
+    TextCriteriaFunction startsWith = TextCriteriaFunction.builder()
+        .conditionType(TextConditionType.STARTS_WITH)
+        .textValue("App")
+        .matchMode(TextMatchMode.EXACT)
+        .build();
+    List<List<FilterCriteriaInterface>> compiled = new ArrayList<>();
+    FilterIndex index = new FilterIndex((selection, criteria) -> {
+      compiled.add(criteria);
+      return object -> criteria.stream().allMatch(criterion -> criterion.applyCriteria(object));
+    });
+    index.add(1L, FilterFunction.builder()
+        .selection(SelectionType.S1)
+        .filterCriteria(List.of(amount(AmountConditionType.GREATER_THAN, "100"), startsWith))
+        .build());
+    index.add(2L, FilterFunction.builder()
+        .selection(SelectionType.S1)
+        .filterCriteria(List.of(amount(AmountConditionType.GREATER_THAN, "100")))
+        .build());
+
+    assertThat(compiled).containsExactly(List.of(startsWith));
+    assertThat(index.findMatchingFilterIds(
+        new FilterableObject(BigDecimal.valueOf(150), "Apple", BASE_DATE, SelectionType.S1))).containsExactly(1L, 2L);
+    assertThat(index.findMatchingFilterIds(
+        new FilterableObject(BigDecimal.valueOf(150), "Banana", BASE_DATE, SelectionType.S1))).containsExactly(2L);
+  }
+
+  private void assertMatchesSeparateEvaluation(FilterIndex index, List<FilterFunction> functions, int objects) {
+    for (int i = 0; i < objects; i++) {
+      FilterableObject object = new FilterableObject(
+          BigDecimal.valueOf(random.nextInt(40), random.nextInt(3)),
+          WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)],
+          BASE_DATE.plusDays(random.nextInt(10)),
+          SelectionType.values()[random.nextInt(SelectionType.values().length)]);
+
+      List<Long> expected = new ArrayList<>();
+      for (int filter = 0; filter < functions.size(); filter++) {
+        if (functions.get(filter).matches(object)) {
+          expected.add((long) filter);
+        }
+      }
+      assertThat(index.findMatchingFilterIds(object)).isEqualTo(expected);
+    }
+  }
+
+  private FilterFunction randomFunction() {
+    List<FilterCriteriaInterface> criteria = new ArrayList<>();
+    int count = random.nextInt(4);
+    for (int i = 0; i < count; i++) {
+      criteria.add(switch (random.nextInt(3)) {
+        case 0 -> amount(AmountConditionType.values()[random.nextInt(AmountConditionType.values().length)],
+            BigDecimal.valueOf(random.nextInt(40), random.nextInt(3)).toPlainString());
+        case 1 -> DateCriteriaFunction.builder()
+            .conditionType(DateConditionType.values()[random.nextInt(DateConditionType.values().length)])
+            .dateValue(BASE_DATE.plusDays(random.nextInt(10)))
+            .build();
+        default -> TextCriteriaFunction.builder()
+            .conditionType(TextConditionType.values()[random.nextInt(TextConditionType.values().length)])
+            .textValue(WORDS[random.nextInt(WORDS.length)])
+            .matchMode(TextMatchMode.values()[random.nextInt(TextMatchMode.values().length)])
+            .build();
+      });
+    }
+    return FilterFunction.builder()
+        .selection(SelectionType.values()[random.nextInt(SelectionType.values().length)])
+        .filterCriteria(criteria)
+        .build();
+  }
+
+  private static TextCriteriaFunction text(TextConditionType conditionType, String value) {
+    return TextCriteriaFunction.builder()
+        .conditionType(conditionType)
+        .textValue(value)
+        .matchMode(TextMatchMode.EXACT)
+        .build();
+  }
+
+  private static AmountCriteriaFunction amount(AmountConditionType conditionType, String value) {
+    return AmountCriteriaFunction.builder()
+        .conditionType(conditionType)
+        .amountValue(new BigDecimal(value))
+        .build();
+  }
+}
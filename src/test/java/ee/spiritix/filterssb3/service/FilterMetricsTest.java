@@ -0,0 +1,112 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.AmountConditionType;
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.constant.TextConditionType;
+import ee.spiritix.filterssb3.constant.TextMatchMode;
+import ee.spiritix.filterssb3.dto.FilterDTO;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FilterMetricsTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private FilterMetrics filterMetrics;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    filterMetrics = new FilterMetrics(meterRegistry, 1, 100);
+  }
+
+  @Test
+  void recordEvaluation_ShouldTimePerFilterAndCountObjects() {
+    filterMetrics.recordEvaluation(7L, 10, 3, 2_000_000);
+    filterMetrics.recordEvaluation(7L, 5, 5, 1_000_000);
+
+    assertThat(meterRegistry.get(FilterMetrics.EVALUATION).tag("filter", "7").timer().count()).isEqualTo(2);
+    assertThat(meterRegistry.get(FilterMetrics.EVALUATION).tag("filter", "7").timer().totalTime(TimeUnit.MILLISECONDS))
+        .isEqualTo(3.0);
+    assertThat(meterRegistry.get(FilterMetrics.OBJECTS).tag("direction", "in").counter().count()).isEqualTo(15);
+    assertThat(meterRegistry.get(FilterMetrics.OBJECTS).tag("direction", "out").counter().count()).isEqualTo(8);
+  }
+
+  @Test
+  void recordEvaluation_ShouldKeepTimingFilters_WhenTimerCacheIsFull() {
+    FilterMetrics smallCache = new FilterMetrics(meterRegistry, 1, 1);
+
+    smallCache.recordEvaluation(1L, 1, 1, 1_000);
+    smallCache.recordEvaluation(2L, 1, 1, 1_000);
+    smallCache.recordEvaluation(1L, 1, 1, 1_000);
+
+    assertThat(meterRegistry.get(FilterMetrics.EVALUATION).tag("filter", "1").timer().count()).isEqualTo(2);
+    assertThat(meterRegistry.get(FilterMetrics.EVALUATION).tag("filter", "2").timer().count()).isEqualTo(1);
+    assertThat(meterRegistry.get(FilterMetrics.EVALUATION).tag("filter", "1").timer().takeSnapshot().histogramCounts())
+        .isNotEmpty();
+  }
+
+  @Test
+  void sampling_ShouldCountOutcomesPerCriterionType() {
+    FilterFunction filterFunction = FilterFunction.builder()
+        .selection(SelectionType.S1)
+        .filterCriteria(List.of(
+            AmountCriteriaFunction.builder()
+                .conditionType(AmountConditionType.GREATER_THAN)
+                .amountValue(BigDecimal.valueOf(100))
+                .build(),
+            TextCriteriaFunction.builder()
+                .conditionType(TextConditionType.CONTAINS)
+                .textValue("Apple")
+                .build()))
+        .build();
+    List<FilterableObject> objects = List.of(
+        new FilterableObject(BigDecimal.valueOf(200), "Banana", LocalDate.now(), SelectionType.S1),
+        new FilterableObject(BigDecimal.valueOf(50), "Apple", LocalDate.now(), SelectionType.S1),
+        new FilterableObject(BigDecimal.valueOf(300), "Apple", LocalDate.now(), SelectionType.S2));
+
+    List<FilterableObject> matching = objects.stream().filter(filterMetrics.sampling(filterFunction)).toList();
+
+    assertThat(matching).isEmpty();
+    // The S2 object is skipped, and the amount rejection does not stop the text criterion from being counted
+    assertThat(count("amount", "pass")).isEqualTo(1);
+    assertThat(count("amount", "reject")).isEqualTo(1);
+    assertThat(count("text", "pass")).isEqualTo(1);
+    assertThat(count("text", "reject")).isEqualTo(1);
+    assertThat(count("date", "pass")).isZero();
+  }
+
+  @Test
+  void regexStepLimit_ShouldCountAbandonedSearches() {
+    double before = meterRegistry.get(FilterMetrics.REGEX_STEP_LIMIT).functionCounter().count();
+
+    boolean found = TextMatching.find(TextMatching.compile("a*a*a*a*a*a*b", TextMatchMode.EXACT), "a".repeat(200));
+
+    assertThat(found).isFalse();
+    assertThat(meterRegistry.get(FilterMetrics.REGEX_STEP_LIMIT).functionCounter().count()).isGreaterThan(before);
+  }
+
+  @Test
+  void recordMapping_ShouldTagTargetClass() {
+    filterMetrics.recordMapping(FilterDTO.class, 1_000);
+    filterMetrics.recordMapping(FilterDTO.class, 1_000);
+    filterMetrics.recordMapping(FilterableObject.class, 1_000);
+
+    assertThat(meterRegistry.get(FilterMetrics.MAPPING).tag("target", "FilterDTO").timer().count()).isEqualTo(2);
+    assertThat(meterRegistry.get(FilterMetrics.MAPPING).tag("target", "Filter").timer().count()).isZero();
+    assertThat(meterRegistry.get(FilterMetrics.MAPPING).tag("target", "FilterableObject").timer().count())
+        .isEqualTo(1);
+  }
+
+  private double count(String type, String result) {
+    return meterRegistry.get(FilterMetrics.CRITERIA).tag("type", type).tag("result", result).counter().count();
+  }
+}
@@ -0,0 +1,142 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.RankBy;
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.dto.FilterResultDTO;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FilterResultsTest {
+
+  private static final Predicate<FilterableObject> OVER_100 =
+      object -> object.getAmount().compareTo(BigDecimal.valueOf(100)) > 0;
+
+  @Test
+  @DisplayName("Should stop reading at the first match")
+  void exists_ShouldStopAtFirstMatch() {
+    CountingIterator objects = new CountingIterator(List.of(object(50, 1), object(150, 2), object(200, 3)));
+
+    FilterResultDTO result = FilterResults.exists(objects, OVER_100);
+
+    assertThat(result.getExists()).isTrue();
+    assertThat(result.getEvaluated()).isEqualTo(2);
+    assertThat(objects.read).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should read everything and report no match when nothing matches")
+  void exists_ShouldReturnFalse_WhenNothingMatches() {
+    FilterResultDTO result = FilterResults.exists(List.of(object(50, 1), object(60, 2)).iterator(), OVER_100);
+
+    assertThat(result.getExists()).isFalse();
+    assertThat(result.getEvaluated()).isEqualTo(2);
+  }
+
+  @Test
+  void count_ShouldCountMatchesWithoutKeepingObjects() {
+    FilterResultDTO result = FilterResults.count(
+        List.of(object(50, 1), object(150, 2), object(200, 3)).iterator(), OVER_100);
+
+    assertThat(result.getCount()).isEqualTo(2);
+    assertThat(result.getObjects()).isNull();
+  }
+
+  @Test
+  @DisplayName("Should return the first matches in input order and stop reading after the limit")
+  void limit_ShouldStopAfterLimit() {
+    CountingIterator objects = new CountingIterator(
+        List.of(object(150, 1), object(50, 2), object(200, 3), object(300, 4), object(400, 5)));
+
+    FilterResultDTO result = FilterResults.limit(objects, OVER_100, 2);
+
+    assertThat(result.getObjects()).extracting(FilterableObject::getTitle).containsExactly("1", "3");
+    assertThat(result.getEvaluated()).isEqualTo(3);
+    assertThat(objects.read).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("Should return the same objects as sorting all matches and taking the first K")
+  void top_ShouldMatchFullSort() {
+    Random random = new Random(23);
+    List<FilterableObject> objects = new ArrayList<>();
+    for (int i = 0; i < 5_000; i++) {
+      // Few distinct amounts and dates, so ties are common
+      objects.add(new FilterableObject(BigDecimal.valueOf(random.nextInt(400)), String.valueOf(i),
+          LocalDate.of(2024, 1, 1).plusDays(random.nextInt(60)), SelectionType.S1));
+    }
+
+    for (int k : new int[]{1, 50, 10_000}) {
+      assertTopMatchesSort(objects, k, RankBy.AMOUNT, Comparator.comparing(FilterableObject::getAmount));
+      assertTopMatchesSort(objects, k, RankBy.DATE, Comparator.comparing(FilterableObject::getDate));
+    }
+  }
+
+  @Test
+  @DisplayName("Should rank objects without an amount or date last")
+  void top_ShouldRankMissingKeysLast() {
+    FilterableObject noAmount = new FilterableObject(null, "no amount", LocalDate.of(2024, 1, 9), SelectionType.S1);
+    FilterableObject noDate = new FilterableObject(BigDecimal.valueOf(500), "no date", null, SelectionType.S1);
+    List<FilterableObject> objects = List.of(noAmount, object(150, 1), noDate, object(200, 2));
+
+    FilterResultDTO byAmount = FilterResults.top(objects.iterator(), object -> true, 3, RankBy.AMOUNT);
+    FilterResultDTO byDate = FilterResults.top(objects.iterator(), object -> true, 3, RankBy.DATE);
+
+    assertThat(byAmount.getObjects()).extracting(FilterableObject::getTitle).containsExactly("no date", "2", "1");
+    assertThat(byDate.getObjects()).extracting(FilterableObject::getTitle).containsExactly("no amount", "2", "1");
+    assertThat(FilterResults.top(objects.iterator(), object -> true, 4, RankBy.AMOUNT).getObjects())
+        .extracting(FilterableObject::getTitle).containsExactly("no date", "2", "1", "no amount");
+  }
+
+  private static void assertTopMatchesSort(List<FilterableObject> objects, int k, RankBy rankBy,
+                                           Comparator<FilterableObject> byKey) {
+    List<FilterableObject> matching = objects.stream().filter(OVER_100).toList();
+    List<FilterableObject> expected = matching.stream()
+        .sorted(byKey.reversed())
+        .limit(k)
+        .toList();
+
+    FilterResultDTO result = FilterResults.top(objects.iterator(), OVER_100, k, rankBy);
+
+    assertThat(result.getObjects()).containsExactlyElementsOf(expected);
+    assertThat(result.getCount()).isEqualTo(matching.size());
+    assertThat(result.getEvaluated()).isEqualTo(objects.size());
+  }
+
+  private static FilterableObject object(int amount, int id) {
+    return new FilterableObject(BigDecimal.valueOf(amount), String.valueOf(id), LocalDate.of(2024, 1, id),
+        SelectionType.S1);
+  }
+
+  private static final class CountingIterator implements Iterator<FilterableObject> {
+
+    private final Iterator<FilterableObject> delegate;
+    private int read;
+
+    private CountingIterator(List<FilterableObject> objects) {
+      this.delegate = objects.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return delegate.hasNext();
+    }
+
+    @Override
+    public FilterableObject next() {
+      read++;
+      return delegate.next();
+    }
+  }
+}
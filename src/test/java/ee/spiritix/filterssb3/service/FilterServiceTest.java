@@ -1,11 +1,19 @@
 package ee.spiritix.filterssb3.service;
 
+import ee.spiritix.filterssb3.constant.AmountConditionType;
+import ee.spiritix.filterssb3.constant.FilterAnalysisStatus;
+import ee.spiritix.filterssb3.constant.RankBy;
+import ee.spiritix.filterssb3.constant.ResultMode;
 import ee.spiritix.filterssb3.constant.SelectionType;
 import ee.spiritix.filterssb3.dto.AmountCriteriaDTO;
 import ee.spiritix.filterssb3.dto.DateCriteriaDTO;
 import ee.spiritix.filterssb3.dto.FilterDTO;
+import ee.spiritix.filterssb3.dto.FilterImportResultDTO;
+import ee.spiritix.filterssb3.dto.FilterPageDTO;
+import ee.spiritix.filterssb3.dto.FilterResultDTO;
 import ee.spiritix.filterssb3.dto.TextCriteriaDTO;
 import ee.spiritix.filterssb3.entity.Filter;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
 import ee.spiritix.filterssb3.mapper.TypeMapper;
 import ee.spiritix.filterssb3.repository.FilterRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,17 +22,23 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.BitSet;
 import java.util.List;
+import java.util.function.Function;
 
 import static ee.spiritix.filterssb3.constant.FilterCriteriaTypes.AMOUNT;
 import static ee.spiritix.filterssb3.constant.FilterCriteriaTypes.DATE;
 import static ee.spiritix.filterssb3.constant.FilterCriteriaTypes.TEXT;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -38,6 +52,30 @@ class FilterServiceTest {
   @Mock
   private TypeMapper typeMapper;
 
+  @Mock
+  private CompiledFilterCache compiledFilterCache;
+
+  @Mock
+  private FilterCompiler filterCompiler;
+
+  @Mock
+  private ParallelFilterEvaluator parallelFilterEvaluator;
+
+  @Mock
+  private StoredFilterIndex storedFilterIndex;
+
+  @Mock
+  private FilterImporter filterImporter;
+
+  @Mock
+  private FilterEntityCache filterEntityCache;
+
+  @Mock
+  private FilterMetrics filterMetrics;
+
+  @Mock
+  private FilterFanOut filterFanOut;
+
   @InjectMocks
   private FilterService filterService;
 
@@ -84,6 +122,37 @@ class FilterServiceTest {
     verify(typeMapper, times(1)).mapList(filters, FilterDTO.class);
   }
 
+  @Test
+  void getFilterPage_ShouldReturnCursorOfFullPage() {
+    List<Filter> filters = List.of(filterEntity);
+    when(filterRepository.findIdsAfter(0, PageRequest.of(0, 1))).thenReturn(List.of(1L));
+    when(filterRepository.findAllWithCriteriaByIdIn(List.of(1L))).thenReturn(filters);
+    when(typeMapper.mapList(filters, FilterDTO.class)).thenReturn(List.of(filterDTO));
+
+    FilterPageDTO page = filterService.getFilterPage(null, 1);
+
+    assertThat(page.getFilters()).containsExactly(filterDTO);
+    assertThat(page.getNextAfter()).isEqualTo(1L);
+  }
+
+  @Test
+  void getFilterPage_ShouldEndOnPartialPage() {
+    when(filterRepository.findIdsAfter(1L, PageRequest.of(0, 10))).thenReturn(List.of());
+    when(typeMapper.mapList(List.of(), FilterDTO.class)).thenReturn(List.of());
+
+    FilterPageDTO page = filterService.getFilterPage(1L, 10);
+
+    assertThat(page.getFilters()).isEmpty();
+    assertThat(page.getNextAfter()).isNull();
+    verify(filterRepository, never()).findAllWithCriteriaByIdIn(any());
+  }
+
+  @Test
+  void getFilterPage_ShouldRejectTooLargePage() {
+    assertThrows(IllegalArgumentException.class,
+        () -> filterService.getFilterPage(null, FilterService.MAX_PAGE_SIZE + 1));
+  }
+
   @Test
   void add_ShouldSaveAndReturnFilter() {
     filterDTO.setCriteriaList(List.of(TextCriteriaDTO.builder().build()));
@@ -99,6 +168,9 @@ class FilterServiceTest {
     verify(typeMapper, times(1)).mapObject(filterDTO, Filter.class);
     verify(filterRepository, times(1)).save(filterEntity);
     verify(typeMapper, times(1)).mapObject(filterEntity, FilterDTO.class);
+    verify(compiledFilterCache, times(1)).invalidate(1L);
+    verify(filterEntityCache, times(1)).evict(1L);
+    verify(storedFilterIndex, times(1)).filterSaved(filterEntity);
   }
 
   @Test
@@ -203,4 +275,131 @@ class FilterServiceTest {
     assertThat(result).isNotNull();
     assertThat(result.getCriteriaList()).hasSize(2);
   }
-}
\ No newline at end of file
+
+  @Test
+  void importFilters_ShouldDelegateToImporter() {
+    FilterImportResultDTO importResult = FilterImportResultDTO.builder()
+        .imported(1)
+        .filterIds(List.of(1L))
+        .errors(List.of())
+        .build();
+    when(filterImporter.importFilters(List.of(filterDTO))).thenReturn(importResult);
+
+    assertThat(filterService.importFilters(List.of(filterDTO))).isSameAs(importResult);
+  }
+
+  @Test
+  void filterObjectsUsingFilterWithId_ShouldRecordEvaluationMetrics() {
+    FilterFunction filterFunction = FilterFunction.builder()
+        .selection(SelectionType.S1)
+        .filterCriteria(List.of(AmountCriteriaFunction.builder()
+            .conditionType(AmountConditionType.GREATER_THAN)
+            .amountValue(BigDecimal.valueOf(100))
+            .build()))
+        .build();
+    when(compiledFilterCache.get(eq(1L), any())).thenReturn(filterFunction);
+    when(filterMetrics.sampling(filterFunction)).thenReturn(filterFunction::matches);
+    List<FilterableObject> objects = List.of(
+        new FilterableObject(BigDecimal.valueOf(200), "Apple", LocalDate.now(), SelectionType.S1),
+        new FilterableObject(BigDecimal.valueOf(50), "Banana", LocalDate.now(), SelectionType.S1));
+
+    List<FilterableObject> result = filterService.filterObjectsUsingFilterWithId(objects, 1L);
+
+    assertThat(result).hasSize(1);
+    verify(filterMetrics).recordEvaluation(eq(1L), eq(2), eq(1), anyLong());
+  }
+
+  @Test
+  void filterObjectsUsingFilterWithId_ShouldSkipUnsatisfiableFilter() {
+    FilterFunction filterFunction = FilterFunction.builder()
+        .selection(SelectionType.S1)
+        .filterCriteria(List.of())
+        .analysis(new FilterAnalyzer.Analysis(FilterAnalysisStatus.UNSATISFIABLE, List.of(), List.of()))
+        .build();
+    when(compiledFilterCache.get(eq(1L), any())).thenReturn(filterFunction);
+    List<FilterableObject> objects = List.of(
+        new FilterableObject(BigDecimal.valueOf(200), "Apple", LocalDate.now(), SelectionType.S1));
+
+    assertThat(filterService.filterObjectsUsingFilterWithId(objects, 1L)).isEmpty();
+    assertThat(filterService.getFilterAnalysis(1L).getStatus()).isEqualTo(FilterAnalysisStatus.UNSATISFIABLE);
+    verify(filterMetrics, never()).sampling(any());
+  }
+
+  @Test
+  void matchFiltersWithIds_ShouldFanOutOnlyUncachedFiltersOnce() {
+    FilterFunction matchingS1 = FilterFunction.builder()
+        .selection(SelectionType.S1)
+        .filterCriteria(List.of())
+        .build();
+    FilterFunction matchingS2 = FilterFunction.builder()
+        .selection(SelectionType.S2)
+        .filterCriteria(List.of())
+        .build();
+    when(compiledFilterCache.getIfPresent(1L)).thenReturn(null);
+    when(compiledFilterCache.getIfPresent(2L)).thenReturn(matchingS2);
+    when(compiledFilterCache.getIfPresent(3L)).thenReturn(null);
+    when(filterFanOut.map(eq(List.of(1L, 3L)), any())).thenReturn(List.of(matchingS1, matchingS2));
+    List<FilterableObject> objects = List.of(
+        new FilterableObject(BigDecimal.valueOf(200), "Apple", LocalDate.now(), SelectionType.S1));
+
+    List<BitSet> result = filterService.matchFiltersWithIds(objects, List.of(1L, 2L, 1L, 3L));
+
+    // Filters 1 and 1 again match the S1 object, the S2 filters 2 and 3 do not
+    assertThat(result).containsExactly(BitSet.valueOf(new long[]{0b0101}));
+    verify(filterFanOut).map(eq(List.of(1L, 3L)), any());
+    verify(compiledFilterCache, never()).get(anyLong(), any());
+  }
+
+  @Test
+  void matchFiltersWithIds_ShouldLoadFiltersThroughFanOut() {
+    FilterFunction filterFunction = FilterFunction.builder()
+        .selection(SelectionType.S1)
+        .filterCriteria(List.of())
+        .build();
+    when(compiledFilterCache.get(anyLong(), any())).thenReturn(filterFunction);
+    when(filterFanOut.map(eq(List.of(1L, 2L)), any())).thenAnswer(invocation -> {
+      Function<Long, FilterFunction> task = invocation.getArgument(1);
+      return List.of(task.apply(1L), task.apply(2L));
+    });
+    List<FilterableObject> objects = List.of(
+        new FilterableObject(BigDecimal.valueOf(200), "Apple", LocalDate.now(), SelectionType.S1));
+
+    List<BitSet> result = filterService.matchFiltersWithIds(objects, List.of(1L, 2L));
+
+    assertThat(result).containsExactly(BitSet.valueOf(new long[]{0b11}));
+    verify(filterFanOut).map(eq(List.of(1L, 2L)), any());
+  }
+
+  @Test
+  void evaluate_ShouldCountMatchesAndRecordMetrics() {
+    FilterFunction filterFunction = FilterFunction.builder()
+        .selection(SelectionType.S1)
+        .filterCriteria(List.of(AmountCriteriaFunction.builder()
+            .conditionType(AmountConditionType.GREATER_THAN)
+            .amountValue(BigDecimal.valueOf(100))
+            .build()))
+        .build();
+    when(compiledFilterCache.get(eq(1L), any())).thenReturn(filterFunction);
+    List<FilterableObject> objects = List.of(
+        new FilterableObject(BigDecimal.valueOf(200), "Apple", LocalDate.now(), SelectionType.S1),
+        new FilterableObject(BigDecimal.valueOf(50), "Banana", LocalDate.now(), SelectionType.S1),
+        new FilterableObject(BigDecimal.valueOf(300), "Cherry", LocalDate.now(), SelectionType.S1));
+
+    FilterResultDTO result = filterService.evaluate(objects, 1L, ResultMode.COUNT, 0, null);
+
+    assertThat(result.getCount()).isEqualTo(2);
+    assertThat(result.getObjects()).isNull();
+    verify(filterMetrics).recordEvaluation(eq(1L), eq(3), eq(2), anyLong());
+  }
+
+  @Test
+  void evaluate_ShouldRejectLimitOutOfRange() {
+    List<FilterableObject> objects = List.of();
+
+    assertThrows(IllegalArgumentException.class,
+        () -> filterService.evaluate(objects, 1L, ResultMode.TOP, 0, RankBy.AMOUNT));
+    assertThrows(IllegalArgumentException.class,
+        () -> filterService.evaluate(objects, 1L, ResultMode.LIMIT, FilterService.MAX_RESULT_LIMIT + 1, null));
+    verify(compiledFilterCache, never()).get(anyLong(), any());
+  }
+}
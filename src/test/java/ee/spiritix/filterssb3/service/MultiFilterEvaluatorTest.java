@@ -0,0 +1,130 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.AmountConditionType;
+import ee.spiritix.filterssb3.constant.DateConditionType;
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.constant.TextConditionType;
+import ee.spiritix.filterssb3.constant.TextMatchMode;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MultiFilterEvaluatorTest {
+
+  private static final LocalDate BASE_DATE = LocalDate.of(2024, 1, 1);
+  private static final String[] WORDS =
+      {"Apple", "Banana", "Item", "Product", "Apple Product", "", "APPLE", "\u00c4pple", "product"};
+
+  private final Random random = new Random(11);
+
+  @Test
+  @DisplayName("Should report the same matches as evaluating every filter separately")
+  void evaluate_ShouldMatchSeparateEvaluation() {
+    List<FilterFunction> functions = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      functions.add(FilterFunction.builder()
+          .selection(SelectionType.values()[random.nextInt(SelectionType.values().length)])
+          .filterCriteria(randomCriteria(random.nextInt(4)))
+          .build());
+    }
+    MultiFilterEvaluator evaluator = new MultiFilterEvaluator(functions);
+
+    for (int i = 0; i < 1_000; i++) {
+      FilterableObject object = new FilterableObject(
+          BigDecimal.valueOf(random.nextInt(40), random.nextInt(3)),
+          WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)],
+          BASE_DATE.plusDays(random.nextInt(10)),
+          SelectionType.values()[random.nextInt(SelectionType.values().length)]);
+
+      BitSet expected = new BitSet();
+      for (int filter = 0; filter < functions.size(); filter++) {
+        if (functions.get(filter).matches(object)) {
+          expected.set(filter);
+        }
+      }
+      assertThat(evaluator.evaluate(object)).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  @DisplayName("Should evaluate criteria shared between filters only once per object")
+  void evaluate_ShouldShareEqualCriteria() {
+    AtomicInteger evaluations = new AtomicInteger();
+    FilterCriteriaInterface counting = object -> {
+      evaluations.incrementAndGet();
+      return true;
+    };
+    FilterFunction first = FilterFunction.builder()
+        .selection(SelectionType.S1)
+        .filterCriteria(List.of(
+            amount(AmountConditionType.GREATER_THAN, "100"),
+            text(TextConditionType.CONTAINS, "Apple"),
+            counting))
+        .build();
+    FilterFunction second = FilterFunction.builder()
+        .selection(SelectionType.S1)
+        .filterCriteria(List.of(
+            amount(AmountConditionType.LESS_THAN, "100.00"),
+            text(TextConditionType.NOT_CONTAINS, "Apple"),
+            counting))
+        .build();
+    FilterFunction third = FilterFunction.builder()
+        .selection(SelectionType.S1)
+        .filterCriteria(List.of(
+            amount(AmountConditionType.NOT_EQUALS, "100"),
+            counting))
+        .build();
+
+    MultiFilterEvaluator evaluator = new MultiFilterEvaluator(List.of(first, second, third));
+    BitSet matches = evaluator.evaluate(
+        new FilterableObject(BigDecimal.valueOf(150), "Apple Product", BASE_DATE, SelectionType.S1));
+
+    assertThat(evaluator.getProbeCount()).isEqualTo(3);
+    assertThat(matches.stream().toArray()).containsExactly(0, 2);
+    assertThat(evaluations.get()).isEqualTo(1);
+  }
+
+  private List<FilterCriteriaInterface> randomCriteria(int count) {
+    List<FilterCriteriaInterface> criteria = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      criteria.add(switch (random.nextInt(3)) {
+        case 0 -> amount(AmountConditionType.values()[random.nextInt(AmountConditionType.values().length)],
+            BigDecimal.valueOf(random.nextInt(40), random.nextInt(3)).toPlainString());
+        case 1 -> DateCriteriaFunction.builder()
+            .conditionType(DateConditionType.values()[random.nextInt(DateConditionType.values().length)])
+            .dateValue(BASE_DATE.plusDays(random.nextInt(10)))
+            .build();
+        default -> TextCriteriaFunction.builder()
+            .conditionType(TextConditionType.values()[random.nextInt(TextConditionType.values().length)])
+            .textValue(WORDS[random.nextInt(WORDS.length)])
+            .matchMode(TextMatchMode.values()[random.nextInt(TextMatchMode.values().length)])
+            .build();
+      });
+    }
+    return criteria;
+  }
+
+  private static AmountCriteriaFunction amount(AmountConditionType conditionType, String value) {
+    return AmountCriteriaFunction.builder()
+        .conditionType(conditionType)
+        .amountValue(new BigDecimal(value))
+        .build();
+  }
+
+  private static TextCriteriaFunction text(TextConditionType conditionType, String value) {
+    return TextCriteriaFunction.builder()
+        .conditionType(conditionType)
+        .textValue(value)
+        .build();
+  }
+}
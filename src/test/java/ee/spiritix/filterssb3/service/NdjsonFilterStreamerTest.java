@@ -0,0 +1,78 @@
+package ee.spiritix.filterssb3.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NdjsonFilterStreamerTest {
+
+  private static final String OBJECTS = """
+      {"amount":100,"title":"Apple Product","date":"2024-01-01","selection":"S1"}
+      {"amount":200,"title":"Banana Item","date":"2024-01-02","selection":"S1"}
+      {"amount":300,"title":"Cherry Good","date":"2024-01-03","selection":"S1"}
+      """;
+
+  private final NdjsonFilterStreamer streamer = new NdjsonFilterStreamer(new ObjectMapper().findAndRegisterModules());
+
+  @Test
+  @DisplayName("Should write one matching object per line without a leading separator")
+  void filter_ShouldWriteOneObjectPerLine() throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    long matched = streamer.filter(input(), output,
+        object -> object.getAmount().compareTo(BigDecimal.valueOf(150)) > 0);
+
+    assertThat(matched).isEqualTo(2);
+    List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+    assertThat(lines).hasSize(2).allMatch(line -> line.startsWith("{"));
+    assertThat(lines.get(1)).contains("\"title\":\"Cherry Good\"");
+  }
+
+  @Test
+  @DisplayName("Should flush every match as soon as it is written")
+  void filter_ShouldFlushEachMatch() throws IOException {
+    List<String> flushed = new ArrayList<>();
+    ByteArrayOutputStream output = new ByteArrayOutputStream() {
+      @Override
+      public void flush() {
+        flushed.add(toString(StandardCharsets.UTF_8));
+      }
+    };
+
+    streamer.filter(input(), output, object -> !object.getTitle().startsWith("Banana"));
+
+    assertThat(flushed).hasSizeGreaterThanOrEqualTo(2);
+    assertThat(flushed.get(0)).contains("Apple Product").doesNotContain("Cherry Good");
+  }
+
+  @Test
+  @DisplayName("Should write records without a leading separator")
+  void write_ShouldWriteOneRecordPerLine() throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    long written = streamer.write(Stream.of(
+        new FilterableObject(BigDecimal.ONE, "Apple", LocalDate.of(2024, 1, 1), SelectionType.S1),
+        new FilterableObject(BigDecimal.TEN, "Banana", LocalDate.of(2024, 1, 1), SelectionType.S2)), output);
+
+    assertThat(written).isEqualTo(2);
+    assertThat(output.toString(StandardCharsets.UTF_8).lines()).hasSize(2).allMatch(line -> line.startsWith("{"));
+  }
+
+  private static ByteArrayInputStream input() {
+    return new ByteArrayInputStream(OBJECTS.getBytes(StandardCharsets.UTF_8));
+  }
+}
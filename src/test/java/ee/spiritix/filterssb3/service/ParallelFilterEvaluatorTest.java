@@ -0,0 +1,65 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.AmountConditionType;
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParallelFilterEvaluatorTest {
+
+  private final ForkJoinPool pool = new ForkJoinPool(4);
+
+  private final FilterFunction function = FilterFunction.builder()
+      .selection(SelectionType.S1)
+      .filterCriteria(List.of(AmountCriteriaFunction.builder()
+          .conditionType(AmountConditionType.GREATER_THAN)
+          .amountValue(BigDecimal.valueOf(50))
+          .build()))
+      .build();
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdown();
+  }
+
+  @Test
+  @DisplayName("Should return matches in input order when evaluated in parallel")
+  void filter_ShouldPreserveInputOrder_AboveThreshold() {
+    ParallelFilterEvaluator evaluator = new ParallelFilterEvaluator(pool, 100, 100);
+    List<FilterableObject> objects = objects(10_007);
+
+    List<FilterableObject> result = evaluator.filter(objects, function);
+
+    assertThat(result).containsExactlyElementsOf(objects.stream().filter(function::matches).toList());
+  }
+
+  @Test
+  @DisplayName("Should filter on the calling thread below the threshold")
+  void filter_ShouldMatchSequentialResult_BelowThreshold() {
+    ParallelFilterEvaluator evaluator = new ParallelFilterEvaluator(pool, 1_000, 64);
+    List<FilterableObject> objects = objects(999);
+
+    List<FilterableObject> result = evaluator.filter(objects, function);
+
+    assertThat(result).containsExactlyElementsOf(objects.stream().filter(function::matches).toList());
+  }
+
+  private List<FilterableObject> objects(int count) {
+    List<FilterableObject> objects = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      objects.add(new FilterableObject(BigDecimal.valueOf(i % 100), "Item " + i, LocalDate.of(2024, 1, 1),
+          SelectionType.values()[i % SelectionType.values().length]));
+    }
+    return objects;
+  }
+}
@@ -0,0 +1,79 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.dto.AmountCriteriaDTO;
+import ee.spiritix.filterssb3.dto.FilterDTO;
+import ee.spiritix.filterssb3.dto.TextCriteriaDTO;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import ee.spiritix.filterssb3.repository.FilterRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static ee.spiritix.filterssb3.constant.FilterCriteriaTypes.AMOUNT;
+import static ee.spiritix.filterssb3.constant.FilterCriteriaTypes.TEXT;
+
+// Not transactional: the filter has to be loaded on a scheduler thread without a session, as in production
+@SpringBootTest
+class ReactiveFilterServiceIntegrationTest {
+
+  @Autowired
+  private ReactiveFilterService reactiveFilterService;
+
+  @Autowired
+  private FilterService filterService;
+
+  @Autowired
+  private CompiledFilterCache compiledFilterCache;
+
+  @Autowired
+  private FilterRepository filterRepository;
+
+  private Long filterId;
+
+  @BeforeEach
+  void setUp() {
+    filterId = filterService.add(FilterDTO.builder()
+        .name("Reactive Filter")
+        .selection(SelectionType.S1)
+        .criteriaList(List.of(
+            AmountCriteriaDTO.builder()
+                .filterType(AMOUNT)
+                .conditionType("greater_than")
+                .value(BigDecimal.valueOf(100))
+                .build(),
+            TextCriteriaDTO.builder()
+                .filterType(TEXT)
+                .conditionType("contains")
+                .value("Apple")
+                .build()))
+        .build()).getId();
+  }
+
+  @AfterEach
+  void tearDown() {
+    filterRepository.deleteById(filterId);
+  }
+
+  @Test
+  @DisplayName("Should load an uncached filter with its lazy criteria off the request thread")
+  void filter_ShouldLoadUncachedFilter() {
+    compiledFilterCache.invalidate(filterId);
+
+    StepVerifier.create(reactiveFilterService.filter(filterId, Flux.just(
+            new FilterableObject(BigDecimal.valueOf(200), "Apple Product", LocalDate.now(), SelectionType.S1),
+            new FilterableObject(BigDecimal.valueOf(50), "Apple Special", LocalDate.now(), SelectionType.S1),
+            new FilterableObject(BigDecimal.valueOf(300), "Banana Item", LocalDate.now(), SelectionType.S1))))
+        .expectNextMatches(object -> object.getTitle().equals("Apple Product"))
+        .verifyComplete();
+  }
+}
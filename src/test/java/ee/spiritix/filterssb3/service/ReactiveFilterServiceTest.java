@@ -0,0 +1,100 @@
+package ee.spiritix.filterssb3.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveFilterServiceTest {
+
+  private static final int PREFETCH = 8;
+
+  @Mock
+  private FilterService filterService;
+
+  private ReactiveFilterService reactiveFilterService;
+
+  @BeforeEach
+  void setUp() {
+    NdjsonFilterStreamer streamer = new NdjsonFilterStreamer(new ObjectMapper().findAndRegisterModules());
+    reactiveFilterService = new ReactiveFilterService(filterService, streamer, PREFETCH);
+  }
+
+  @Test
+  @DisplayName("Should emit only the objects matching the stored filter, in order")
+  void filter_ShouldEmitMatchingObjects() {
+    when(filterService.getFilterPredicate(1L)).thenReturn(object -> object.getAmount().intValue() % 2 == 0);
+
+    StepVerifier.create(reactiveFilterService.filter(1L, Flux.range(1, 6).map(ReactiveFilterServiceTest::object)))
+        .expectNextMatches(object -> object.getAmount().intValue() == 2)
+        .expectNextMatches(object -> object.getAmount().intValue() == 4)
+        .expectNextMatches(object -> object.getAmount().intValue() == 6)
+        .verifyComplete();
+  }
+
+  @Test
+  @DisplayName("Should fail the flux when the filter cannot be loaded")
+  void filter_ShouldError_WhenFilterMissing() {
+    when(filterService.getFilterPredicate(2L)).thenThrow(new IllegalArgumentException("Filter not found"));
+
+    StepVerifier.create(reactiveFilterService.filter(2L, Flux.just(object(1))))
+        .verifyErrorMessage("Filter not found");
+  }
+
+  @Test
+  @DisplayName("Should request objects from upstream only as the subscriber demands")
+  void filter_ShouldBoundUpstreamDemand() {
+    List<Long> requests = new CopyOnWriteArrayList<>();
+    Flux<FilterableObject> objects = Flux.range(1, 1_000)
+        .map(ReactiveFilterServiceTest::object)
+        .doOnRequest(requests::add);
+
+    StepVerifier.create(reactiveFilterService.filter(object -> true, objects), 0)
+        .thenRequest(3)
+        .expectNextCount(3)
+        .thenCancel()
+        .verify();
+
+    assertThat(requests).isNotEmpty().allMatch(request -> request <= PREFETCH);
+    assertThat(requests.stream().mapToLong(Long::longValue).sum()).isLessThanOrEqualTo(PREFETCH);
+  }
+
+  @Test
+  @DisplayName("Should read newline-delimited JSON objects lazily")
+  void read_ShouldParseNdjson() {
+    String ndjson = """
+        {"amount":100,"title":"Apple Product","date":"2024-01-01","selection":"S1"}
+        {"amount":200,"title":"Banana Item","date":"2024-01-02","selection":"S2"}
+        """;
+
+    StepVerifier.create(reactiveFilterService.read(
+            new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8))))
+        .expectNextMatches(object -> object.getTitle().equals("Apple Product"))
+        .expectNextMatches(object -> object.getSelection() == SelectionType.S2
+            && object.getDate().equals(LocalDate.of(2024, 1, 2)))
+        .verifyComplete();
+  }
+
+  private static FilterableObject object(int amount) {
+    return new FilterableObject(BigDecimal.valueOf(amount), "Item " + amount, LocalDate.of(2024, 1, 1),
+        SelectionType.S1);
+  }
+}
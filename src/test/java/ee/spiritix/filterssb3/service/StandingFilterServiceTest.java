@@ -0,0 +1,168 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.ObjectChangeType;
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.dto.MembershipDeltaDTO;
+import ee.spiritix.filterssb3.dto.ObjectChangeDTO;
+import ee.spiritix.filterssb3.dto.SubscriptionDTO;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StandingFilterServiceTest {
+
+  @Mock
+  private FilterService filterService;
+
+  private StandingFilterService standingFilterService;
+  private String subscriptionId;
+
+  @BeforeEach
+  void setUp() {
+    standingFilterService = new StandingFilterService(filterService, 2, 3, Duration.ofMinutes(30));
+    when(filterService.getFilterPredicate(1L))
+        .thenReturn(object -> object.getAmount().compareTo(BigDecimal.valueOf(100)) > 0);
+    subscriptionId = standingFilterService.subscribe(1L).getId();
+  }
+
+  @Test
+  @DisplayName("Should report only the objects entering and leaving the result set")
+  void applyChanges_ShouldReturnMembershipDeltas() {
+    MembershipDeltaDTO inserted = standingFilterService.applyChanges(subscriptionId, List.of(
+        change(ObjectChangeType.INSERT, "a", 150),
+        change(ObjectChangeType.INSERT, "b", 50),
+        change(ObjectChangeType.INSERT, "c", 200)));
+
+    assertThat(inserted.getEntered()).containsExactly("a", "c");
+    assertThat(inserted.getLeft()).isEmpty();
+    assertThat(inserted.getMembers()).isEqualTo(2);
+
+    MembershipDeltaDTO updated = standingFilterService.applyChanges(subscriptionId, List.of(
+        change(ObjectChangeType.UPDATE, "a", 160),
+        change(ObjectChangeType.UPDATE, "b", 120),
+        change(ObjectChangeType.UPDATE, "c", 10),
+        delete("missing")));
+
+    assertThat(updated.getEntered()).containsExactly("b");
+    assertThat(updated.getLeft()).containsExactly("c");
+    assertThat(updated.getMembers()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should evaluate every batch with the filter as it is currently stored")
+  void applyChanges_ShouldUseCurrentFilter() {
+    standingFilterService.applyChanges(subscriptionId, List.of(change(ObjectChangeType.INSERT, "a", 150)));
+
+    when(filterService.getFilterPredicate(1L))
+        .thenReturn(object -> object.getAmount().compareTo(BigDecimal.valueOf(500)) > 0);
+    MembershipDeltaDTO delta = standingFilterService.applyChanges(subscriptionId, List.of(
+        change(ObjectChangeType.UPDATE, "a", 150),
+        change(ObjectChangeType.INSERT, "b", 600)));
+
+    assertThat(delta.getEntered()).containsExactly("b");
+    assertThat(delta.getLeft()).containsExactly("a");
+  }
+
+  @Test
+  @DisplayName("Should report the net effect of several changes to the same object")
+  void applyChanges_ShouldReturnNetDelta_WhenObjectChangedTwice() {
+    MembershipDeltaDTO delta = standingFilterService.applyChanges(subscriptionId, List.of(
+        change(ObjectChangeType.INSERT, "a", 150),
+        delete("a"),
+        change(ObjectChangeType.INSERT, "b", 150)));
+
+    assertThat(delta.getEntered()).containsExactly("b");
+    assertThat(delta.getLeft()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should reject a batch that exceeds the member limit and keep the previous state")
+  void applyChanges_ShouldRollBack_WhenMemberLimitExceeded() {
+    standingFilterService.applyChanges(subscriptionId, List.of(change(ObjectChangeType.INSERT, "a", 150)));
+
+    assertThatThrownBy(() -> standingFilterService.applyChanges(subscriptionId, List.of(
+        delete("a"),
+        change(ObjectChangeType.INSERT, "b", 150),
+        change(ObjectChangeType.INSERT, "c", 150),
+        change(ObjectChangeType.INSERT, "d", 150),
+        change(ObjectChangeType.INSERT, "e", 150))))
+        .isInstanceOf(IllegalStateException.class);
+
+    assertThat(standingFilterService.getSubscription(subscriptionId).getMembers()).isEqualTo(1);
+    MembershipDeltaDTO delta = standingFilterService.applyChanges(subscriptionId, List.of(delete("a")));
+    assertThat(delta.getLeft()).containsExactly("a");
+  }
+
+  @Test
+  @DisplayName("Should reject changes without an object before applying any of them")
+  void applyChanges_ShouldRejectInvalidChange() {
+    ObjectChangeDTO invalid = ObjectChangeDTO.builder().type(ObjectChangeType.UPDATE).objectId("b").build();
+
+    assertThatThrownBy(() -> standingFilterService.applyChanges(subscriptionId, List.of(
+        change(ObjectChangeType.INSERT, "a", 150), invalid)))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThat(standingFilterService.getSubscription(subscriptionId).getMembers()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should limit the number of subscriptions and forget removed ones")
+  void subscribe_ShouldEnforceLimit() {
+    SubscriptionDTO second = standingFilterService.subscribe(1L);
+
+    assertThatThrownBy(() -> standingFilterService.subscribe(1L)).isInstanceOf(IllegalStateException.class);
+
+    standingFilterService.unsubscribe(second.getId());
+    assertThatThrownBy(() -> standingFilterService.getSubscription(second.getId()))
+        .isInstanceOf(NoSuchElementException.class);
+    assertThat(standingFilterService.subscribe(1L).getFilterId()).isEqualTo(1L);
+  }
+
+  @Test
+  @DisplayName("Should drop idle subscriptions when a new one is created")
+  void subscribe_ShouldExpireIdleSubscriptions() {
+    StandingFilterService shortLived = new StandingFilterService(filterService, 1, 10, Duration.ZERO);
+    String first = shortLived.subscribe(1L).getId();
+
+    shortLived.subscribe(1L);
+
+    assertThatThrownBy(() -> shortLived.getSubscription(first)).isInstanceOf(NoSuchElementException.class);
+  }
+
+  @Test
+  @DisplayName("Should expire idle subscriptions without a new one being created")
+  void applyChanges_ShouldFail_WhenSubscriptionExpired() {
+    StandingFilterService shortLived = new StandingFilterService(filterService, 10, 10, Duration.ZERO);
+    String expired = shortLived.subscribe(1L).getId();
+
+    assertThatThrownBy(() -> shortLived.applyChanges(expired, List.of(delete("a"))))
+        .isInstanceOf(NoSuchElementException.class);
+  }
+
+  private static ObjectChangeDTO change(ObjectChangeType type, String objectId, int amount) {
+    return ObjectChangeDTO.builder()
+        .type(type)
+        .objectId(objectId)
+        .object(new FilterableObject(BigDecimal.valueOf(amount), "Item " + objectId, LocalDate.of(2024, 1, 1),
+            SelectionType.S1))
+        .build();
+  }
+
+  private static ObjectChangeDTO delete(String objectId) {
+    return ObjectChangeDTO.builder().type(ObjectChangeType.DELETE).objectId(objectId).build();
+  }
+}
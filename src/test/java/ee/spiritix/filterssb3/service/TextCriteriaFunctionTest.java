@@ -0,0 +1,193 @@
+package ee.spiritix.filterssb3.service;
+
+import ee.spiritix.filterssb3.constant.SelectionType;
+import ee.spiritix.filterssb3.constant.TextConditionType;
+import ee.spiritix.filterssb3.constant.TextMatchMode;
+import ee.spiritix.filterssb3.external.model.FilterableObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TextCriteriaFunctionTest {
+
+  private static final String CREME_BRULEE = "Cr\u00e8me Br\u00fbl\u00e9e";
+  private static final TextConditionType[] CONDITIONS = Arrays.stream(TextConditionType.values())
+      .filter(conditionType -> conditionType != TextConditionType.MATCHES)
+      .toArray(TextConditionType[]::new);
+
+  @Test
+  void applyCriteria_ShouldIgnoreCase() {
+    TextCriteriaFunction equals = text(TextConditionType.EQUALS, "Apple Pie", TextMatchMode.IGNORE_CASE);
+    TextCriteriaFunction contains = text(TextConditionType.CONTAINS, "PIE", TextMatchMode.IGNORE_CASE);
+    TextCriteriaFunction notContains = text(TextConditionType.NOT_CONTAINS, "pie", TextMatchMode.IGNORE_CASE);
+
+    assertThat(equals.getFoldedValue()).isEqualTo("apple pie");
+    assertThat(equals.applyCriteria(object("APPLE pie"))).isTrue();
+    assertThat(equals.applyCriteria(object("Apple Pies"))).isFalse();
+    assertThat(contains.applyCriteria(object("cherry pIe"))).isTrue();
+    assertThat(contains.applyCriteria(object("pi"))).isFalse();
+    assertThat(notContains.applyCriteria(object("Cherry PIE"))).isFalse();
+    assertThat(text(TextConditionType.EQUALS, "apple", TextMatchMode.IGNORE_CASE).applyCriteria(object("\u00e4pple")))
+        .isFalse();
+  }
+
+  @Test
+  void applyCriteria_ShouldIgnoreCaseAndAccents() {
+    TextCriteriaFunction equals = text(TextConditionType.EQUALS, "creme brulee", TextMatchMode.IGNORE_CASE_AND_ACCENTS);
+    TextCriteriaFunction notEquals =
+        text(TextConditionType.NOT_EQUALS, CREME_BRULEE, TextMatchMode.IGNORE_CASE_AND_ACCENTS);
+    TextCriteriaFunction contains =
+        text(TextConditionType.CONTAINS, "BR\u00dbLEE", TextMatchMode.IGNORE_CASE_AND_ACCENTS);
+
+    assertThat(equals.applyCriteria(object(CREME_BRULEE))).isTrue();
+    assertThat(equals.applyCriteria(object(CREME_BRULEE.toUpperCase(Locale.ROOT)))).isTrue();
+    // Decomposed input, e followed by a combining grave accent
+    assertThat(equals.applyCriteria(object("Cre\u0300me brulee"))).isTrue();
+    assertThat(notEquals.applyCriteria(object("CREME BRULEE"))).isFalse();
+    assertThat(contains.applyCriteria(object("Vanilla " + CREME_BRULEE))).isTrue();
+    assertThat(contains.applyCriteria(object("Vanilla"))).isFalse();
+  }
+
+  @Test
+  void applyCriteria_ShouldMatchPrefixAndSuffix() {
+    TextCriteriaFunction startsWith = text(TextConditionType.STARTS_WITH, "APPLE", TextMatchMode.IGNORE_CASE);
+    TextCriteriaFunction endsWith = text(TextConditionType.ENDS_WITH, "brulee", TextMatchMode.IGNORE_CASE_AND_ACCENTS);
+
+    assertThat(startsWith.applyCriteria(object("apple pie"))).isTrue();
+    assertThat(startsWith.applyCriteria(object("pineapple"))).isFalse();
+    assertThat(startsWith.applyCriteria(object("app"))).isFalse();
+    assertThat(endsWith.applyCriteria(object(CREME_BRULEE))).isTrue();
+    assertThat(endsWith.applyCriteria(object("lee"))).isFalse();
+    assertThat(text(TextConditionType.ENDS_WITH, "Pie", TextMatchMode.EXACT).applyCriteria(object("apple pie")))
+        .isFalse();
+  }
+
+  @Test
+  void applyCriteria_ShouldFindPatternForMatchMode() {
+    TextCriteriaFunction exact = text(TextConditionType.MATCHES, "^Apple \\w+$", TextMatchMode.EXACT);
+    TextCriteriaFunction ignoreCase = text(TextConditionType.MATCHES, "^apple \\w+$", TextMatchMode.IGNORE_CASE);
+    TextCriteriaFunction ignoreAccents =
+        text(TextConditionType.MATCHES, "cr.me br\u00fbl", TextMatchMode.IGNORE_CASE_AND_ACCENTS);
+
+    assertThat(exact.applyCriteria(object("Apple pie"))).isTrue();
+    assertThat(exact.applyCriteria(object("APPLE PIE"))).isFalse();
+    assertThat(ignoreCase.applyCriteria(object("APPLE PIE"))).isTrue();
+    assertThat(ignoreCase.applyCriteria(object("APPLE PIE TART"))).isFalse();
+    assertThat(ignoreAccents.applyCriteria(object("Vanilla " + CREME_BRULEE))).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should reject patterns that repeat a repeating group")
+  void builder_ShouldRejectNestedQuantifiers() {
+    assertThatThrownBy(() -> text(TextConditionType.MATCHES, "(a+)+b", TextMatchMode.EXACT))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> text(TextConditionType.MATCHES, "(\\w+\\s?)*$", TextMatchMode.EXACT))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThat(text(TextConditionType.MATCHES, "(ab){2}|[(a+)]+", TextMatchMode.EXACT).getPattern()).isNotNull();
+  }
+
+  @Test
+  @DisplayName("Should reject patterns that repeat an alternation or have several wildcard runs")
+  void builder_ShouldRejectRepeatedAlternationAndWildcardRuns() {
+    assertThatThrownBy(() -> text(TextConditionType.MATCHES, "(a|aa)+", TextMatchMode.EXACT))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("alternation");
+    assertThatThrownBy(() -> text(TextConditionType.MATCHES, "((a|b)c){2,}", TextMatchMode.EXACT))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> text(TextConditionType.MATCHES, ".*a.+b", TextMatchMode.EXACT))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("unbounded run");
+    assertThat(text(TextConditionType.MATCHES, "^(cat|dog)s? .*$", TextMatchMode.EXACT).getPattern()).isNotNull();
+    assertThat(text(TextConditionType.MATCHES, "a.b\\.*[.]*c.{2}", TextMatchMode.EXACT).getPattern()).isNotNull();
+  }
+
+  @Test
+  @DisplayName("Should give up and count a search that reads too many characters")
+  void applyCriteria_ShouldStopBacktrackingAtStepLimit() {
+    // No nested group, but a failed search tries every way of splitting the title between the stars
+    TextCriteriaFunction adjacent = text(TextConditionType.MATCHES, "a*a*a*a*a*a*b", TextMatchMode.EXACT);
+    long stepLimitHits = TextMatching.stepLimitHits();
+
+    assertThat(adjacent.applyCriteria(object("aaaab"))).isTrue();
+    assertThat(adjacent.applyCriteria(object("a".repeat(200)))).isFalse();
+    assertThat(TextMatching.stepLimitHits()).isGreaterThan(stepLimitHits);
+  }
+
+  @Test
+  @DisplayName("Should fold the title again when it is replaced")
+  void applyCriteria_ShouldRefoldReplacedTitle() {
+    TextCriteriaFunction equals = text(TextConditionType.EQUALS, "apple", TextMatchMode.IGNORE_CASE_AND_ACCENTS);
+    FilterableObject object = object("\u00c4pple");
+    assertThat(equals.applyCriteria(object)).isTrue();
+
+    object.setTitle("Banana");
+
+    assertThat(equals.applyCriteria(object)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should match folding both sides for random titles")
+  void applyCriteria_ShouldMatchFoldedComparison() {
+    String[] parts = {"a", "A", "\u00e4", "\u00c4", "b", "B", "\u212a", "k", "K", "\u00df", " ", "\ud801\udc00",
+        "\ud801\udc28", "\u0130", "i"};
+    Random random = new Random(24);
+
+    for (int i = 0; i < 20_000; i++) {
+      String title = randomText(random, parts, 8);
+      String value = randomText(random, parts, 3);
+      TextConditionType conditionType = CONDITIONS[random.nextInt(CONDITIONS.length)];
+      TextMatchMode matchMode = TextMatchMode.values()[random.nextInt(TextMatchMode.values().length)];
+
+      String foldedTitle = foldBoth(title, matchMode);
+      String foldedValue = foldBoth(value, matchMode);
+      boolean expected = switch (conditionType) {
+        case EQUALS -> foldedTitle.equals(foldedValue);
+        case CONTAINS -> foldedTitle.contains(foldedValue);
+        case NOT_CONTAINS -> !foldedTitle.contains(foldedValue);
+        case NOT_EQUALS -> !foldedTitle.equals(foldedValue);
+        case STARTS_WITH -> foldedTitle.startsWith(foldedValue);
+        case ENDS_WITH -> foldedTitle.endsWith(foldedValue);
+        case MATCHES -> throw new IllegalStateException("Not a folded comparison");
+      };
+
+      assertThat(text(conditionType, value, matchMode).applyCriteria(object(title)))
+          .as("'%s' %s '%s' %s", title, conditionType, value, matchMode)
+          .isEqualTo(expected);
+    }
+  }
+
+  private static String foldBoth(String text, TextMatchMode matchMode) {
+    return switch (matchMode) {
+      case EXACT -> text;
+      case IGNORE_CASE -> text.codePoints()
+          .map(codePoint -> Character.toLowerCase(Character.toUpperCase(codePoint)))
+          .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+          .toString();
+      case IGNORE_CASE_AND_ACCENTS -> TextMatching.foldTitle(text);
+    };
+  }
+
+  private static String randomText(Random random, String[] parts, int maxParts) {
+    StringBuilder text = new StringBuilder();
+    for (int i = random.nextInt(maxParts + 1); i > 0; i--) {
+      text.append(parts[random.nextInt(parts.length)]);
+    }
+    return text.toString();
+  }
+
+  private static TextCriteriaFunction text(TextConditionType conditionType, String value, TextMatchMode matchMode) {
+    return TextCriteriaFunction.builder().conditionType(conditionType).textValue(value).matchMode(matchMode).build();
+  }
+
+  private static FilterableObject object(String title) {
+    return new FilterableObject(BigDecimal.ONE, title, LocalDate.of(2024, 1, 1), SelectionType.S1);
+  }
+}